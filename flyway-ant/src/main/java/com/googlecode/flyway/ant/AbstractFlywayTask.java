@@ -81,6 +81,18 @@ public abstract class AbstractFlywayTask extends Task {
      */
     private String table;
 
+    /**
+     * The number of connections clean uses concurrently. (default: 1, sequential)<br/>Also configurable with Ant
+     * Property: ${flyway.cleanThreads}
+     */
+    private String cleanThreads;
+
+    /**
+     * Flag to clean each schema by dropping and recreating it where possible, instead of dropping its objects one by
+     * one. (default: false)<br/>Also configurable with Ant Property: ${flyway.recreateSchemas}
+     */
+    private boolean recreateSchemas;
+
     /**
      * @param classpath The classpath used to load the JDBC driver and the migrations.<br/>Also configurable with Ant
      *                  Property: ${flyway.classpath}
@@ -147,6 +159,25 @@ public abstract class AbstractFlywayTask extends Task {
         this.table = table;
     }
 
+    /**
+     * @param cleanThreads The number of connections clean uses concurrently. On SQL Server and DB2 independent objects
+     *                     are dropped concurrently, on the other databases whole schemas, which must then not depend on
+     *                     each other. (default: 1, sequential)<br/>Also configurable with Ant Property:
+     *                     ${flyway.cleanThreads}
+     */
+    public void setCleanThreads(String cleanThreads) {
+        this.cleanThreads = cleanThreads;
+    }
+
+    /**
+     * @param recreateSchemas Flag to clean each schema by dropping and recreating it where possible, instead of
+     *                        dropping its objects one by one. (default: false)<br/>Also configurable with Ant
+     *                        Property: ${flyway.recreateSchemas}
+     */
+    public void setRecreateSchemas(boolean recreateSchemas) {
+        this.recreateSchemas = recreateSchemas;
+    }
+
     /**
      * Creates the datasource base on the provided parameters.
      *
@@ -219,6 +250,15 @@ public abstract class AbstractFlywayTask extends Task {
             if (tableValue != null) {
                 flyway.setTable(tableValue);
             }
+            String cleanThreadsValue = useValueIfPropertyNotSet(cleanThreads, "cleanThreads");
+            if (cleanThreadsValue != null) {
+                flyway.setCleanThreads(Integer.parseInt(cleanThreadsValue));
+            }
+            boolean recreateSchemasValue =
+                    Boolean.valueOf(
+                            useValueIfPropertyNotSet(
+                                    Boolean.toString(recreateSchemas), "recreateSchemas"));
+            flyway.setRecreateSchemas(recreateSchemasValue);
 
             doExecute(flyway);
         } catch (Exception e) {
@@ -48,6 +48,11 @@ public abstract class AbstractMigrationLoadingTask extends AbstractFlywayTask {
      */
     private String encoding;
 
+    /**
+     * The number of threads used to load and checksum the Sql migrations concurrently. (default: 1, sequential)<br/>Also configurable with Ant Property: ${flyway.resolverThreads}
+     */
+    private String resolverThreads;
+
     /**
      * The file name prefix for Sql migrations (default: V)<br/>Also configurable with Ant Property: ${flyway.sqlMigrationPrefix}
      */
@@ -103,6 +108,13 @@ public abstract class AbstractMigrationLoadingTask extends AbstractFlywayTask {
         this.encoding = encoding;
     }
 
+    /**
+     * @param resolverThreads The number of threads used to load and checksum the Sql migrations concurrently. (default: 1, sequential)<br/>Also configurable with Ant Property: ${flyway.resolverThreads}
+     */
+    public void setResolverThreads(String resolverThreads) {
+        this.resolverThreads = resolverThreads;
+    }
+
     /**
      * @param sqlMigrationPrefix The file name prefix for Sql migrations (default: V)<br/>Also configurable with Ant Property: ${flyway.sqlMigrationPrefix}
      */
@@ -151,6 +163,10 @@ public abstract class AbstractMigrationLoadingTask extends AbstractFlywayTask {
         if (encodingValue != null) {
             flyway.setEncoding(encodingValue);
         }
+        String resolverThreadsValue = useValueIfPropertyNotSet(resolverThreads, "resolverThreads");
+        if (resolverThreadsValue != null) {
+            flyway.setResolverThreads(Integer.parseInt(resolverThreadsValue));
+        }
         String sqlMigrationPrefixValue = useValueIfPropertyNotSet(sqlMigrationPrefix, "sqlMigrationPrefix");
         if (sqlMigrationPrefixValue != null) {
             flyway.setSqlMigrationPrefix(sqlMigrationPrefixValue);
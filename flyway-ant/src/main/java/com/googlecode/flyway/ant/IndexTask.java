@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2010-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.ant;
+
+import com.googlecode.flyway.core.Flyway;
+import com.googlecode.flyway.core.migration.CompositeMigrationResolver;
+import com.googlecode.flyway.core.migration.MigrationIndex;
+import com.googlecode.flyway.core.migration.sql.PlaceholderReplacer;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.tools.ant.BuildException;
+
+import javax.sql.DataSource;
+import java.io.File;
+
+/**
+ * Ant task that generates the index of the available migrations (META-INF/flyway/migrations.idx) in a directory of
+ * compiled classes. No database connection is needed.
+ */
+@SuppressWarnings({"UnusedDeclaration", "JavaDoc"})
+public class IndexTask extends AbstractMigrationLoadingTask {
+    /**
+     * Logger.
+     */
+    private static final Log LOG = LogFactory.getLog(IndexTask.class);
+
+    /**
+     * The directory of compiled classes in which to generate the index.<br/>Also configurable with Ant Property:
+     * ${flyway.outputDirectory}
+     */
+    private String outputDirectory;
+
+    /**
+     * @param outputDirectory The directory of compiled classes in which to generate the index.<br/>Also configurable
+     *                        with Ant Property: ${flyway.outputDirectory}
+     */
+    public void setOutputDirectory(String outputDirectory) {
+        this.outputDirectory = outputDirectory;
+    }
+
+    @Override
+    DataSource createDataSource() throws Exception {
+        return null;
+    }
+
+    @Override
+    protected void doExecute(Flyway flyway) throws Exception {
+        super.doExecute(flyway);
+
+        String outputDirectoryValue = useValueIfPropertyNotSet(outputDirectory, "outputDirectory");
+        if (outputDirectoryValue == null) {
+            throw new BuildException("Missing outputDirectory for the migration index");
+        }
+
+        CompositeMigrationResolver migrationResolver =
+                new CompositeMigrationResolver(flyway.getLocations(), flyway.getBasePackage(), flyway.getBaseDir(), flyway.getEncoding(), flyway.getBatchSize(), flyway.getResolverThreads(),
+                        flyway.getSqlMigrationPrefix(), flyway.getSqlMigrationSuffix(), PlaceholderReplacer.NO_PLACEHOLDERS);
+        int indexedMigrations = MigrationIndex.generate(migrationResolver, new File(outputDirectoryValue));
+        LOG.info("Indexed " + indexedMigrations + " migrations in " + MigrationIndex.LOCATION);
+    }
+}
@@ -20,6 +20,7 @@ import com.googlecode.flyway.core.migration.CompositeMigrationResolver;
 import com.googlecode.flyway.core.migration.Migration;
 import com.googlecode.flyway.core.migration.MigrationResolver;
 import com.googlecode.flyway.core.migration.SchemaVersion;
+import com.googlecode.flyway.core.migration.sql.PlaceholderReplacer;
 import com.googlecode.flyway.core.validation.ValidationMode;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -58,6 +59,13 @@ public class MigrateTask extends AbstractMigrationLoadingTask {
      */
     private boolean ignoreFailedFutureMigration;
 
+    /**
+     * The maximum number of consecutive data manipulation statements (insert, update, delete, ...) of a Sql migration
+     * to send to the database as a single JDBC batch. (default: 0, batching disabled)<br/>Also configurable with Ant
+     * Property: ${flyway.batchSize}
+     */
+    private String batchSize;
+
     /**
      * A map of &lt;placeholder, replacementValue&gt; to apply to sql migration scripts.
      */
@@ -73,6 +81,12 @@ public class MigrateTask extends AbstractMigrationLoadingTask {
      */
     private String placeholderSuffix;
 
+    /**
+     * Whether to fail when a sql migration script contains a placeholder without a value, instead of leaving it
+     * untouched. (default: false)<br/>Also configurable with Ant Property: ${flyway.strictPlaceholders}
+     */
+    private boolean strictPlaceholders;
+
     /**
      * The type of validation to be performed before migrating.<br/> <br/> Possible values are:<br/> <br/> <b>NONE</b>
      * (default)<br/> No validation is performed.<br/> <br/> <b>ALL</b><br/> For each sql migration a CRC32 checksum is
@@ -88,6 +102,14 @@ public class MigrateTask extends AbstractMigrationLoadingTask {
      */
     private boolean disableInitCheck;
 
+    /**
+     * Flag to skip resolving and validating the migrations when the schema is already up to date, as detected by
+     * comparing the fingerprint of the migration index generated by the index task with the migrations applied to the
+     * database. When they are, the checksums of sql migrations are taken from the up to date index of the classpath
+     * entry containing them. (default: false)<br/>Also configurable with Ant Property: ${flyway.fingerprintCheck}
+     */
+    private boolean fingerprintCheck;
+
     /**
      * @param target The target version up to which Flyway should run migrations. Migrations with a higher version number will not be
      *               applied. (default: the latest version)<br/>Also configurable with Ant Property: ${flyway.target}
@@ -109,6 +131,15 @@ public class MigrateTask extends AbstractMigrationLoadingTask {
         this.ignoreFailedFutureMigration = ignoreFailedFutureMigration;
     }
 
+    /**
+     * @param batchSize The maximum number of consecutive data manipulation statements (insert, update, delete, ...) of a
+     *                  Sql migration to send to the database as a single JDBC batch. (default: 0, batching disabled)<br/>Also
+     *                  configurable with Ant Property: ${flyway.batchSize}
+     */
+    public void setBatchSize(String batchSize) {
+        this.batchSize = batchSize;
+    }
+
     /**
      * @param placeholderPrefix The prefix of every placeholder. (default: ${ )<br/>Also configurable with Ant Property: ${flyway.placeholderPrefix}
      */
@@ -123,6 +154,15 @@ public class MigrateTask extends AbstractMigrationLoadingTask {
         this.placeholderSuffix = placeholderSuffix;
     }
 
+    /**
+     * @param strictPlaceholders Whether to fail when a sql migration script contains a placeholder without a value,
+     *                           instead of leaving it untouched. (default: false)<br/>Also configurable with Ant Property:
+     *                           ${flyway.strictPlaceholders}
+     */
+    public void setStrictPlaceholders(boolean strictPlaceholders) {
+        this.strictPlaceholders = strictPlaceholders;
+    }
+
     /**
      * @param validationMode The type of validation to be performed before migrating.<br/> <br/> Possible values are:<br/> <br/> <b>NONE</b>
      *                       (default)<br/> No validation is performed.<br/> <br/> <b>ALL</b><br/> For each sql migration a CRC32 checksum is
@@ -142,6 +182,16 @@ public class MigrateTask extends AbstractMigrationLoadingTask {
         this.disableInitCheck = disableInitCheck;
     }
 
+    /**
+     * @param fingerprintCheck Flag to skip resolving and validating the migrations when the schema is already up to date, as detected by
+     *                         comparing the fingerprint of the migration index generated by the index task with the migrations applied to the
+     *                         database. When they are, the checksums of sql migrations are taken from the up to date index of the classpath
+     *                         entry containing them. (default: false)<br/>Also configurable with Ant Property: ${flyway.fingerprintCheck}
+     */
+    public void setFingerprintCheck(boolean fingerprintCheck) {
+        this.fingerprintCheck = fingerprintCheck;
+    }
+
     /**
      * Adds a placeholder from a nested &lt;placeholder&gt; element. Called by Ant.
      *
@@ -179,6 +229,10 @@ public class MigrateTask extends AbstractMigrationLoadingTask {
                                 Boolean.toString(ignoreFailedFutureMigration),
                                 "ignoreFailedFutureMigration"));
         flyway.setIgnoreFailedFutureMigration(ignoreFailedFutureMigrationValue);
+        String batchSizeValue = useValueIfPropertyNotSet(batchSize, "batchSize");
+        if (batchSizeValue != null) {
+            flyway.setBatchSize(Integer.parseInt(batchSizeValue));
+        }
 
         addPlaceholdersFromProperties(placeholders, getProject().getProperties());
         flyway.setPlaceholders(placeholders);
@@ -191,6 +245,11 @@ public class MigrateTask extends AbstractMigrationLoadingTask {
         if (placeholderSuffixValue != null) {
             flyway.setPlaceholderSuffix(placeholderSuffixValue);
         }
+        boolean strictPlaceholdersValue =
+                Boolean.valueOf(
+                        useValueIfPropertyNotSet(
+                                Boolean.toString(strictPlaceholders), "strictPlaceholders"));
+        flyway.setStrictPlaceholders(strictPlaceholdersValue);
         String validationModeValue = useValueIfPropertyNotSet(validationMode, "validationMode");
         if (validationModeValue != null) {
             flyway.setValidationMode(ValidationMode.valueOf(validationModeValue.toUpperCase()));
@@ -200,16 +259,25 @@ public class MigrateTask extends AbstractMigrationLoadingTask {
                         useValueIfPropertyNotSet(
                                 Boolean.toString(disableInitCheck), "disableInitCheck"));
         flyway.setDisableInitCheck(disableInitCheckValue);
-
-        MigrationResolver migrationResolver =
-                new CompositeMigrationResolver(flyway.getLocations(), flyway.getBasePackage(), flyway.getBaseDir(), flyway.getEncoding(),
-                        flyway.getSqlMigrationPrefix(), flyway.getSqlMigrationSuffix(),
-                        flyway.getPlaceholders(), flyway.getPlaceholderPrefix(), flyway.getPlaceholderSuffix());
-        List<Migration> availableMigrations = migrationResolver.resolveMigrations();
-
-        if (availableMigrations.isEmpty()) {
-            LOG.warn("Possible solution: run the Ant javac and copy tasks first so Flyway can find the migrations");
-            return;
+        boolean fingerprintCheckValue =
+                Boolean.valueOf(
+                        useValueIfPropertyNotSet(
+                                Boolean.toString(fingerprintCheck), "fingerprintCheck"));
+        flyway.setFingerprintCheck(fingerprintCheckValue);
+
+        if (!flyway.isFingerprintCheck()) {
+            // Stop early with a helpful hint when no migrations can be found
+            MigrationResolver migrationResolver =
+                    new CompositeMigrationResolver(flyway.getLocations(), flyway.getBasePackage(), flyway.getBaseDir(), flyway.getEncoding(), flyway.getBatchSize(), flyway.getResolverThreads(),
+                            flyway.getSqlMigrationPrefix(), flyway.getSqlMigrationSuffix(),
+                            new PlaceholderReplacer(flyway.getPlaceholders(), flyway.getPlaceholderPrefix(),
+                                    flyway.getPlaceholderSuffix(), flyway.isStrictPlaceholders()));
+            List<Migration> availableMigrations = migrationResolver.resolveMigrations();
+
+            if (availableMigrations.isEmpty()) {
+                LOG.warn("Possible solution: run the Ant javac and copy tasks first so Flyway can find the migrations");
+                return;
+            }
         }
 
         flyway.migrate();
@@ -183,19 +183,25 @@ public class Main {
         LOG.info("password            : Password to use to connect to the database");
         LOG.info("schemas             : Comma-separated list of the schemas managed by Flyway");
         LOG.info("table               : Name of Flyway's metadata table");
+        LOG.info("cleanThreads        : Number of connections clean uses concurrently");
+        LOG.info("recreateSchemas     : Clean by dropping and recreating schemas where possible");
         LOG.info("locations           : Classpath locations to scan recursively for migrations");
         LOG.info("sqlMigrationPrefix  : File name prefix for Sql migrations");
         LOG.info("sqlMigrationSuffix  : File name suffix for Sql migrations");
         LOG.info("encoding            : Encoding of Sql migrations");
+        LOG.info("resolverThreads     : Number of threads loading and checksumming Sql migrations");
+        LOG.info("batchSize           : Max number of Sql migration inserts/updates/deletes per JDBC batch");
         LOG.info("placeholders        : Placeholders to replace in Sql migrations");
         LOG.info("placeholderPrefix   : Prefix of every placeholder");
         LOG.info("placeholderSuffix   : Suffix of every placeholder");
+        LOG.info("strictPlaceholders  : Fail on placeholders without a value");
         LOG.info("target              : Target version up to which Flyway should run migrations");
         LOG.info("validationMode      : Type of validation to be performed before migrating");
         LOG.info("validationErrorMode : Action to take when validation fails");
         LOG.info("initialVersion      : Initial version to put in the database");
         LOG.info("initialDescription  : Description of the initial version");
         LOG.info("disableInitCheck    : Don't check that a non-empty schema has been initialized");
+        LOG.info("fingerprintCheck    : Skip resolution when the migration index matches the database");
         LOG.info("configFile          : Config file to use (default: conf/flyway.properties)");
         LOG.info("configFileEncoding  : Encoding of the config file (default: UTF-8)");
         LOG.info("");
@@ -16,6 +16,7 @@
 package com.googlecode.flyway.core;
 
 import com.googlecode.flyway.core.clean.DbCleaner;
+import com.googlecode.flyway.core.clean.ParallelDbCleaner;
 import com.googlecode.flyway.core.dbsupport.DbSupport;
 import com.googlecode.flyway.core.dbsupport.DbSupportFactory;
 import com.googlecode.flyway.core.exception.FlywayException;
@@ -23,10 +24,12 @@ import com.googlecode.flyway.core.init.DbInit;
 import com.googlecode.flyway.core.metadatatable.MetaDataTable;
 import com.googlecode.flyway.core.metadatatable.MetaDataTableRow;
 import com.googlecode.flyway.core.migration.*;
+import com.googlecode.flyway.core.migration.sql.PlaceholderReplacer;
 import com.googlecode.flyway.core.util.StringUtils;
 import com.googlecode.flyway.core.util.jdbc.DriverDataSource;
 import com.googlecode.flyway.core.util.jdbc.JdbcUtils;
 import com.googlecode.flyway.core.util.jdbc.TransactionTemplate;
+import com.googlecode.flyway.core.util.scanner.ClassPathScanner;
 import com.googlecode.flyway.core.validation.DbValidator;
 import com.googlecode.flyway.core.validation.ValidationErrorMode;
 import com.googlecode.flyway.core.validation.ValidationException;
@@ -35,8 +38,11 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import javax.sql.DataSource;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -80,6 +86,29 @@ public class Flyway {
      */
     private String encoding = "UTF-8";
 
+    /**
+     * The maximum number of consecutive data manipulation statements (insert, update, delete, ...) of a Sql migration
+     * to send to the database as a single JDBC batch. Ddl and all other statements are always executed on their own.
+     * (default: 0, batching disabled)
+     */
+    private int batchSize;
+
+    /**
+     * The number of threads used to load and checksum the Sql migrations concurrently. (default: 1, sequential)
+     */
+    private int resolverThreads = 1;
+
+    /**
+     * The number of connections clean uses concurrently. (default: 1, sequential)
+     */
+    private int cleanThreads = 1;
+
+    /**
+     * Flag indicating whether clean should drop and recreate each schema where the database and the privileges of the
+     * current user allow it, instead of dropping its objects one by one. (default: false)
+     */
+    private boolean recreateSchemas;
+
     /**
      * The schemas managed by Flyway. The first schema in the list will be the one containing the metadata table.
      * (default: The default schema for the datasource connection)
@@ -115,6 +144,18 @@ public class Flyway {
      */
     private String placeholderSuffix = "}";
 
+    /**
+     * Whether to fail when a sql migration script contains a placeholder without a value, instead of leaving it
+     * untouched. (default: false)
+     */
+    private boolean strictPlaceholders;
+
+    /**
+     * The placeholder replacer built from the placeholder configuration. {@code null} if it hasn't been built yet or if
+     * that configuration changed since.
+     */
+    private PlaceholderReplacer placeholderReplacer;
+
     /**
      * The file name prefix for sql migrations. (default: V)
      */
@@ -163,11 +204,60 @@ public class Flyway {
      */
     private boolean disableInitCheck;
 
+    /**
+     * Flag to skip resolving and validating the migrations when the schema is already up to date. This is detected
+     * by comparing the fingerprint of the migration index generated at build time ({@code META-INF/flyway/migrations.idx})
+     * with the fingerprint of the migrations applied to the database. Without index, migrations are always resolved.
+     * When they are, the checksums of sql migrations are taken from the index of the classpath entry containing them,
+     * as long as it is up to date. (default: false)
+     */
+    private boolean fingerprintCheck;
+
+    /**
+     * Flag to check whether the migration files on the file system have been modified since the migrations were last
+     * resolved, and to resolve them again if they have. Only useful during development, when the migrations change
+     * while the application is running. (default: false)
+     */
+    private boolean checkMigrationTimestamps;
+
+    /**
+     * The migrations resolved by a previous command, reused as long as the configuration does not change. {@code null}
+     * if they haven't been resolved yet.
+     */
+    private List<Migration> resolvedMigrations;
+
+    /**
+     * The configuration the cached migrations were resolved with.
+     */
+    private List<Object> resolvedMigrationsConfiguration;
+
+    /**
+     * The time the migration files had last been modified when the cached migrations were resolved. Only tracked when
+     * checkMigrationTimestamps is active.
+     */
+    private long resolvedMigrationsLastModified;
+
     /**
      * The dataSource to use to access the database. Must have the necessary privileges to execute ddl.
      */
     private DataSource dataSource;
 
+    /**
+     * The connection for the metadata table changes kept open by the current session. {@code null} if no session is
+     * open.
+     */
+    private Connection sessionConnectionMetaDataTable;
+
+    /**
+     * The connection for user object changes kept open by the current session. {@code null} if no session is open.
+     */
+    private Connection sessionConnectionUserObjects;
+
+    /**
+     * The database-specific support for the connections of the current session. {@code null} if no session is open.
+     */
+    private DbSupport sessionDbSupport;
+
     /**
      * Retrieves locations on the classpath to scan recursively for migrations. Locations may contain both sql
      * and java-based migrations.
@@ -212,6 +302,43 @@ public class Flyway {
         return encoding;
     }
 
+    /**
+     * Retrieves the maximum number of consecutive data manipulation statements (insert, update, delete, ...) of a Sql
+     * migration to send to the database as a single JDBC batch.
+     *
+     * @return The maximum batch size. (default: 0, batching disabled)
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Retrieves the number of threads used to load and checksum the Sql migrations concurrently.
+     *
+     * @return The number of threads. (default: 1, sequential)
+     */
+    public int getResolverThreads() {
+        return resolverThreads;
+    }
+
+    /**
+     * Retrieves the number of connections clean uses concurrently.
+     *
+     * @return The number of threads. (default: 1, sequential)
+     */
+    public int getCleanThreads() {
+        return cleanThreads;
+    }
+
+    /**
+     * Checks whether clean drops and recreates each schema where possible, instead of dropping its objects one by one.
+     *
+     * @return {@code true} if the schemas are recreated where possible, {@code false} if not. (default: false)
+     */
+    public boolean isRecreateSchemas() {
+        return recreateSchemas;
+    }
+
     /**
      * Retrieves the schemas managed by Flyway. The first schema in the list will be the one containing the metadata
      * table.
@@ -272,6 +399,15 @@ public class Flyway {
         return placeholderSuffix;
     }
 
+    /**
+     * Checks whether to fail when a sql migration script contains a placeholder without a value.
+     *
+     * @return {@code true} to fail, {@code false} to leave the placeholder untouched. (default: false)
+     */
+    public boolean isStrictPlaceholders() {
+        return strictPlaceholders;
+    }
+
     /**
      * Retrieves the file name prefix for sql migrations.
      *
@@ -353,6 +489,30 @@ public class Flyway {
         return disableInitCheck;
     }
 
+    /**
+     * Flag to skip resolving and validating the migrations when the schema is already up to date. This is detected
+     * by comparing the fingerprint of the migration index generated at build time ({@code META-INF/flyway/migrations.idx})
+     * with the fingerprint of the migrations applied to the database. Without index, migrations are always resolved.
+     * When they are, the checksums of sql migrations are taken from the index of the classpath entry containing them,
+     * as long as it is up to date.
+     *
+     * @return {@code true} if the fingerprint check is active. {@code false} if it isn't. (default: false)
+     */
+    public boolean isFingerprintCheck() {
+        return fingerprintCheck;
+    }
+
+    /**
+     * Flag to check whether the migration files on the file system have been modified since the migrations were last
+     * resolved, and to resolve them again if they have. Only useful during development, when the migrations change
+     * while the application is running.
+     *
+     * @return {@code true} if the modification times are checked. {@code false} if they aren't. (default: false)
+     */
+    public boolean isCheckMigrationTimestamps() {
+        return checkMigrationTimestamps;
+    }
+
     /**
      * Retrieves the dataSource to use to access the database. Must have the necessary privileges to execute ddl.
      *
@@ -440,6 +600,57 @@ public class Flyway {
         this.encoding = encoding;
     }
 
+    /**
+     * Sets the maximum number of consecutive data manipulation statements (insert, update, delete, ...) of a Sql
+     * migration to send to the database as a single JDBC batch. This drastically reduces the number of network round
+     * trips for scripts with many inserts. Ddl and all other statements are always executed on their own.
+     *
+     * @param batchSize The maximum batch size. 0 or 1 to disable batching. (default: 0)
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Sets the number of threads used to load and checksum the Sql migrations concurrently. Raising this speeds up the
+     * resolution of large numbers of Sql migrations, especially on cold file system caches. The order of the
+     * migrations and the checks for duplicate versions are not affected.
+     *
+     * @param resolverThreads The number of threads. 1 to resolve sequentially. (default: 1)
+     */
+    public void setResolverThreads(int resolverThreads) {
+        this.resolverThreads = resolverThreads;
+    }
+
+    /**
+     * Sets the number of connections clean uses concurrently. On SQL Server and DB2, the objects of each schema are
+     * then dropped in waves of objects which do not depend on each other, each wave spread across these connections.
+     * These schemas are still cleaned one after the other, in the configured order. Waves with fewer objects than
+     * connections leave some of them idle, but schemas referencing each other can be cleaned in a safe order. On the
+     * other databases, the schemas themselves are cleaned concurrently, each on its own connection. These schemas must
+     * then not depend on each other, as the objects of one schema may be dropped while those of another schema are
+     * still being dropped. In both cases the objects of a schema are no longer dropped in a single transaction.
+     *
+     * @param cleanThreads The number of threads. 1 to clean the schemas one after the other. (default: 1)
+     */
+    public void setCleanThreads(int cleanThreads) {
+        this.cleanThreads = cleanThreads;
+    }
+
+    /**
+     * Sets whether clean should drop and recreate each schema, with the same owner, instead of dropping its objects
+     * one by one. This is much faster for schemas with many objects. Schemas which can not be recreated, because the
+     * database does not support it, because privileges have been granted on them or because the current user lacks
+     * the privileges to do so, are still cleaned by dropping their objects one by one. Currently only supported on
+     * PostgreSQL.
+     *
+     * @param recreateSchemas {@code true} to recreate the schemas where possible, {@code false} to always drop their
+     *                        objects one by one. (default: false)
+     */
+    public void setRecreateSchemas(boolean recreateSchemas) {
+        this.recreateSchemas = recreateSchemas;
+    }
+
     /**
      * Sets the schemas managed by Flyway. The first schema in the list will be the one containing the metadata table.
      *
@@ -479,6 +690,7 @@ public class Flyway {
      */
     public void setPlaceholders(Map<String, String> placeholders) {
         this.placeholders = placeholders;
+        this.placeholderReplacer = null;
     }
 
     /**
@@ -488,6 +700,7 @@ public class Flyway {
      */
     public void setPlaceholderPrefix(String placeholderPrefix) {
         this.placeholderPrefix = placeholderPrefix;
+        this.placeholderReplacer = null;
     }
 
     /**
@@ -497,6 +710,18 @@ public class Flyway {
      */
     public void setPlaceholderSuffix(String placeholderSuffix) {
         this.placeholderSuffix = placeholderSuffix;
+        this.placeholderReplacer = null;
+    }
+
+    /**
+     * Sets whether to fail when a sql migration script contains a placeholder without a value, instead of leaving it
+     * untouched.
+     *
+     * @param strictPlaceholders {@code true} to fail, {@code false} to leave the placeholder untouched. (default: false)
+     */
+    public void setStrictPlaceholders(boolean strictPlaceholders) {
+        this.strictPlaceholders = strictPlaceholders;
+        this.placeholderReplacer = null;
     }
 
     /**
@@ -555,6 +780,31 @@ public class Flyway {
         this.disableInitCheck = disableInitCheck;
     }
 
+    /**
+     * Flag to skip resolving and validating the migrations when the schema is already up to date. This is detected
+     * by comparing the fingerprint of the migration index generated at build time ({@code META-INF/flyway/migrations.idx})
+     * with the fingerprint of the migrations applied to the database. Without index, migrations are always resolved.
+     * When they are, the checksums of sql migrations are taken from the index of the classpath entry containing them,
+     * as long as it is up to date.
+     *
+     * @param fingerprintCheck {@code true} if the fingerprint check is active. {@code false} if it isn't. (default: false)
+     */
+    public void setFingerprintCheck(boolean fingerprintCheck) {
+        this.fingerprintCheck = fingerprintCheck;
+    }
+
+    /**
+     * Flag to check whether the migration files on the file system have been modified since the migrations were last
+     * resolved, and to resolve them again if they have. Only useful during development, when the migrations change
+     * while the application is running.
+     *
+     * @param checkMigrationTimestamps {@code true} if the modification times are checked. {@code false} if they aren't.
+     *                                 (default: false)
+     */
+    public void setCheckMigrationTimestamps(boolean checkMigrationTimestamps) {
+        this.checkMigrationTimestamps = checkMigrationTimestamps;
+    }
+
     /**
      * Starts the database migration. All pending migrations will be applied in order.
      *
@@ -564,16 +814,19 @@ public class Flyway {
     public int migrate() throws FlywayException {
         return execute(new Command<Integer>() {
             public Integer execute(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport) {
-                MigrationResolver migrationResolver =
-                        new CompositeMigrationResolver(locations, basePackage, baseDir, encoding, sqlMigrationPrefix, sqlMigrationSuffix, placeholders, placeholderPrefix, placeholderSuffix);
-                List<Migration> availableMigrations = migrationResolver.resolveMigrations();
+                MetaDataTable metaDataTable = createMetaDataTable(connectionMetaDataTable, dbSupport);
+                if (fingerprintCheck && isUpToDate(metaDataTable)) {
+                    LOG.info("Schema is up to date (matching migration index fingerprint). No migration necessary.");
+                    return 0;
+                }
+
+                List<Migration> availableMigrations = resolveMigrations();
                 if (availableMigrations.isEmpty()) {
                     return 0;
                 }
 
-                MetaDataTable metaDataTable = createMetaDataTable(connectionMetaDataTable, dbSupport);
 
-                doValidate(connectionMetaDataTable, connectionUserObjects, dbSupport);
+                doValidate(connectionUserObjects, dbSupport, metaDataTable);
 
                 metaDataTable.createIfNotExists();
 
@@ -584,6 +837,44 @@ public class Flyway {
         });
     }
 
+    /**
+     * Checks whether the migrations applied to the database match those of the migration index on the classpath, in
+     * which case there is nothing to migrate. The index is only trusted when every classpath entry containing one of
+     * the locations has an up to date index covering it.
+     *
+     * @param metaDataTable The metadata table of this command.
+     * @return {@code true} if the schema is up to date, {@code false} if it may not be or if there is no index.
+     */
+    private boolean isUpToDate(MetaDataTable metaDataTable) {
+        MigrationIndex migrationIndex = MigrationIndex.load();
+        if (migrationIndex == null) {
+            LOG.debug("No migration index found on the classpath (" + MigrationIndex.LOCATION + ")");
+            return false;
+        }
+
+        List<String> allLocations = new ArrayList<String>();
+        allLocations.add(baseDir);
+        allLocations.add(basePackage);
+        allLocations.addAll(Arrays.asList(locations));
+        if (!migrationIndex.isUpToDate(allLocations)) {
+            return false;
+        }
+
+        MetaDataTableRow latestAppliedMigration = metaDataTable.latestAppliedMigration();
+        if ((latestAppliedMigration == null) || (latestAppliedMigration.getState() != MigrationState.SUCCESS)) {
+            return false;
+        }
+
+        List<MetaDataTableRow> appliedMigrations = metaDataTable.allAppliedMigrations();
+        SchemaVersion initVersion = null;
+        if (MigrationType.INIT == appliedMigrations.get(0).getMigrationType()) {
+            initVersion = appliedMigrations.get(0).getVersion();
+            appliedMigrations = appliedMigrations.subList(1, appliedMigrations.size());
+        }
+
+        return migrationIndex.getFingerprint(initVersion, target) == MigrationIndex.getFingerprint(appliedMigrations);
+    }
+
     /**
      * Validate applied migration with classpath migrations to detect accidental changes.
      *
@@ -593,7 +884,7 @@ public class Flyway {
         execute(new Command<Void>() {
             public Void execute(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport) {
                 validationMode = ValidationMode.ALL;
-                doValidate(connectionMetaDataTable, connectionUserObjects, dbSupport);
+                doValidate(connectionUserObjects, dbSupport, createMetaDataTable(connectionMetaDataTable, dbSupport));
                 return null;
             }
         });
@@ -602,16 +893,13 @@ public class Flyway {
     /**
      * Performs the actual validation. All set up must have taken place beforehand.
      *
-     * @param connectionMetaDataTable The database connection for the metadata table changes.
-     * @param connectionUserObjects   The database connection for user object changes.
-     * @param dbSupport               The database-specific support for these connections.
+     * @param connectionUserObjects The database connection for user object changes.
+     * @param dbSupport             The database-specific support for these connections.
+     * @param metaDataTable         The metadata table of this command.
      */
-    private void doValidate(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport) {
-        MigrationResolver migrationResolver =
-                new CompositeMigrationResolver(locations, basePackage, baseDir, encoding, sqlMigrationPrefix, sqlMigrationSuffix, placeholders, placeholderPrefix, placeholderSuffix);
-        List<Migration> availableMigrations = migrationResolver.resolveMigrations();
+    private void doValidate(Connection connectionUserObjects, DbSupport dbSupport, MetaDataTable metaDataTable) {
+        List<Migration> availableMigrations = resolveMigrations();
 
-        MetaDataTable metaDataTable = createMetaDataTable(connectionMetaDataTable, dbSupport);
         if (SchemaVersion.EMPTY.equals(metaDataTable.getCurrentSchemaVersion()) && !disableInitCheck) {
             for (String schema : schemas) {
                 try {
@@ -633,12 +921,70 @@ public class Flyway {
             if (ValidationErrorMode.CLEAN.equals(validationErrorMode)) {
                 LOG.warn(msg + " running clean and migrate again.");
                 doClean(connectionUserObjects, dbSupport);
+                metaDataTable.clearCache();
             } else {
                 throw new ValidationException(msg);
             }
         }
     }
 
+    /**
+     * Finds all available migrations. They are only resolved again when the configuration changed since the previous
+     * command, or when checkMigrationTimestamps is active and the migration files have been modified since.
+     *
+     * @return The available migrations, sorted by version, newest first. An empty list is returned when no migrations
+     *         can be found.
+     */
+    private List<Migration> resolveMigrations() {
+        CompositeMigrationResolver migrationResolver =
+                new CompositeMigrationResolver(locations, basePackage, baseDir, encoding, batchSize, resolverThreads, fingerprintCheck, sqlMigrationPrefix, sqlMigrationSuffix, getPlaceholderReplacer());
+
+        List<Object> configuration = Arrays.<Object>asList(Arrays.asList(locations), basePackage, baseDir, encoding,
+                batchSize, fingerprintCheck, sqlMigrationPrefix, sqlMigrationSuffix, new HashMap<String, String>(placeholders),
+                placeholderPrefix, placeholderSuffix, strictPlaceholders,
+                Thread.currentThread().getContextClassLoader());
+        long lastModified = checkMigrationTimestamps ? getLastModified(migrationResolver) : 0;
+
+        if ((resolvedMigrations != null) && configuration.equals(resolvedMigrationsConfiguration)
+                && (lastModified == resolvedMigrationsLastModified)) {
+            LOG.debug("Reusing the migrations resolved by a previous command");
+            return resolvedMigrations;
+        }
+
+        resolvedMigrations = migrationResolver.resolveMigrations();
+        resolvedMigrationsConfiguration = configuration;
+        resolvedMigrationsLastModified = lastModified;
+        return resolvedMigrations;
+    }
+
+    /**
+     * Determines when the migration files at the locations of this resolver were last modified.
+     *
+     * @param migrationResolver The resolver whose locations to check.
+     * @return The time of the last modification, in milliseconds since the epoch.
+     */
+    private long getLastModified(CompositeMigrationResolver migrationResolver) {
+        ClassPathScanner classPathScanner = new ClassPathScanner();
+        long lastModified = 0;
+        for (String location : migrationResolver.getLocations()) {
+            try {
+                lastModified = Math.max(lastModified, classPathScanner.getLastModified(location));
+            } catch (IOException e) {
+                throw new FlywayException("Unable to determine the modification time of location: " + location, e);
+            }
+        }
+        return lastModified;
+    }
+
+    /**
+     * Discards the migrations resolved by previous commands, so that the next command resolves them again. Use this
+     * when the migrations changed without the configuration changing, for example after redeploying them.
+     */
+    public void clearResolvedMigrations() {
+        resolvedMigrations = null;
+        resolvedMigrationsConfiguration = null;
+    }
+
     /**
      * Drops all objects (tables, views, procedures, triggers, ...) in the configured schemas.
      */
@@ -658,8 +1004,13 @@ public class Flyway {
      * @param dbSupport             The database-specific support for these connections.
      */
     private void doClean(Connection connectionUserObjects, DbSupport dbSupport) {
-        new DbCleaner(new TransactionTemplate(connectionUserObjects),
-                dbSupport.getJdbcTemplate(), dbSupport, schemas).clean();
+        if (cleanThreads > 1) {
+            new ParallelDbCleaner(dataSource, schemas, cleanThreads, recreateSchemas).clean();
+            return;
+        }
+
+        new DbCleaner(new TransactionTemplate(connectionUserObjects, dbSupport.getJdbcTemplate()),
+                dbSupport.getJdbcTemplate(), dbSupport, schemas, recreateSchemas).clean();
     }
 
     /**
@@ -699,12 +1050,26 @@ public class Flyway {
         execute(new Command<Void>() {
             public Void execute(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport) {
                 MetaDataTable metaDataTable = createMetaDataTable(connectionMetaDataTable, dbSupport);
-                new DbInit(new TransactionTemplate(connectionMetaDataTable), metaDataTable).init(initialVersion, initialDescription);
+                new DbInit(new TransactionTemplate(connectionMetaDataTable, dbSupport.getJdbcTemplate()), metaDataTable).init(initialVersion, initialDescription);
                 return null;
             }
         });
     }
 
+    /**
+     * Retrieves the placeholder replacer for the current placeholder configuration. It is only built again when that
+     * configuration changes.
+     *
+     * @return The placeholder replacer.
+     */
+    private PlaceholderReplacer getPlaceholderReplacer() {
+        if (placeholderReplacer == null) {
+            placeholderReplacer =
+                    new PlaceholderReplacer(placeholders, placeholderPrefix, placeholderSuffix, strictPlaceholders);
+        }
+        return placeholderReplacer;
+    }
+
     /**
      * @return A new, fully configured, MetaDataTable instance.
      */
@@ -757,6 +1122,10 @@ public class Flyway {
         if (placeholderSuffixProp != null) {
             setPlaceholderSuffix(placeholderSuffixProp);
         }
+        String strictPlaceholdersProp = properties.getProperty("flyway.strictPlaceholders");
+        if (strictPlaceholdersProp != null) {
+            setStrictPlaceholders(Boolean.parseBoolean(strictPlaceholdersProp));
+        }
         String sqlMigrationPrefixProp = properties.getProperty("flyway.sqlMigrationPrefix");
         if (sqlMigrationPrefixProp != null) {
             setSqlMigrationPrefix(sqlMigrationPrefixProp);
@@ -769,6 +1138,22 @@ public class Flyway {
         if (encodingProp != null) {
             setEncoding(encodingProp);
         }
+        String batchSizeProp = properties.getProperty("flyway.batchSize");
+        if (batchSizeProp != null) {
+            setBatchSize(Integer.parseInt(batchSizeProp));
+        }
+        String resolverThreadsProp = properties.getProperty("flyway.resolverThreads");
+        if (resolverThreadsProp != null) {
+            setResolverThreads(Integer.parseInt(resolverThreadsProp));
+        }
+        String cleanThreadsProp = properties.getProperty("flyway.cleanThreads");
+        if (cleanThreadsProp != null) {
+            setCleanThreads(Integer.parseInt(cleanThreadsProp));
+        }
+        String recreateSchemasProp = properties.getProperty("flyway.recreateSchemas");
+        if (recreateSchemasProp != null) {
+            setRecreateSchemas(Boolean.parseBoolean(recreateSchemasProp));
+        }
         String schemasProp = properties.getProperty("flyway.schemas");
         if (schemasProp != null) {
             setSchemas(StringUtils.tokenizeToStringArray(schemasProp, ","));
@@ -797,6 +1182,10 @@ public class Flyway {
         if (disableInitCheckProp != null) {
             setDisableInitCheck(Boolean.parseBoolean(disableInitCheckProp));
         }
+        String fingerprintCheckProp = properties.getProperty("flyway.fingerprintCheck");
+        if (fingerprintCheckProp != null) {
+            setFingerprintCheck(Boolean.parseBoolean(fingerprintCheckProp));
+        }
         String targetProp = properties.getProperty("flyway.target");
         if (targetProp != null) {
             setTarget(new SchemaVersion(targetProp));
@@ -815,6 +1204,48 @@ public class Flyway {
         setPlaceholders(placeholdersFromProps);
     }
 
+    /**
+     * Opens a session, keeping the connections to the database open across all commands executed until
+     * {@link #closeSession()} is called. This avoids establishing new connections for every command when several of them
+     * are executed back to back, like validate, migrate and status.
+     *
+     * @throws FlywayException when the session could not be opened.
+     */
+    public void openSession() {
+        if (sessionDbSupport != null) {
+            throw new FlywayException("A session is already open! Close it before opening a new one.");
+        }
+        if (dataSource == null) {
+            throw new FlywayException("DataSource not set! Check your configuration!");
+        }
+
+        Connection connectionMetaDataTable = null;
+        Connection connectionUserObjects = null;
+        try {
+            connectionMetaDataTable = JdbcUtils.openConnection(dataSource);
+            connectionUserObjects = JdbcUtils.openConnection(dataSource);
+            sessionDbSupport = DbSupportFactory.createDbSupport(dataSource, connectionMetaDataTable);
+        } finally {
+            if (sessionDbSupport == null) {
+                JdbcUtils.closeConnection(connectionUserObjects);
+                JdbcUtils.closeConnection(connectionMetaDataTable);
+            }
+        }
+        sessionConnectionMetaDataTable = connectionMetaDataTable;
+        sessionConnectionUserObjects = connectionUserObjects;
+    }
+
+    /**
+     * Closes the current session and its connections to the database. Does nothing if no session is open.
+     */
+    public void closeSession() {
+        JdbcUtils.closeConnection(sessionConnectionUserObjects);
+        JdbcUtils.closeConnection(sessionConnectionMetaDataTable);
+        sessionConnectionUserObjects = null;
+        sessionConnectionMetaDataTable = null;
+        sessionDbSupport = null;
+    }
+
     /**
      * Executes this command with proper resource handling and cleanup.
      *
@@ -825,21 +1256,30 @@ public class Flyway {
     /*private -> testing*/ <T> T execute(Command<T> command) {
         T result;
 
+        boolean inSession = sessionDbSupport != null;
         Connection connectionMetaDataTable = null;
         Connection connectionUserObjects = null;
 
         try {
-            if (dataSource == null) {
-                throw new FlywayException("DataSource not set! Check your configuration!");
-            }
+            DbSupport dbSupport;
+            if (inSession) {
+                connectionMetaDataTable = sessionConnectionMetaDataTable;
+                connectionUserObjects = sessionConnectionUserObjects;
+                dbSupport = sessionDbSupport;
+            } else {
+                if (dataSource == null) {
+                    throw new FlywayException("DataSource not set! Check your configuration!");
+                }
 
-            connectionMetaDataTable = JdbcUtils.openConnection(dataSource);
-            connectionUserObjects = JdbcUtils.openConnection(dataSource);
+                connectionMetaDataTable = JdbcUtils.openConnection(dataSource);
+                connectionUserObjects = JdbcUtils.openConnection(dataSource);
+
+                dbSupport = DbSupportFactory.createDbSupport(dataSource, connectionMetaDataTable);
+            }
 
-            DbSupport dbSupport = DbSupportFactory.createDbSupport(connectionMetaDataTable);
             if (schemas.length == 0) {
                 try {
-                    setSchemas(dbSupport.getCurrentSchema());
+                    setSchemas(DbSupportFactory.getDefaultSchema(dataSource, dbSupport));
                 } catch (SQLException e) {
                     throw new FlywayException("Error retrieving current schema", e);
                 }
@@ -853,8 +1293,10 @@ public class Flyway {
 
             result = command.execute(connectionMetaDataTable, connectionUserObjects, dbSupport);
         } finally {
-            JdbcUtils.closeConnection(connectionUserObjects);
-            JdbcUtils.closeConnection(connectionMetaDataTable);
+            if (!inSession) {
+                JdbcUtils.closeConnection(connectionUserObjects);
+                JdbcUtils.closeConnection(connectionMetaDataTable);
+            }
         }
         return result;
     }
@@ -58,6 +58,12 @@ public class DbCleaner {
      */
     private final String[] schemas;
 
+    /**
+     * Flag indicating whether the schemas should be dropped and created again where possible, instead of having their
+     * objects dropped one by one.
+     */
+    private final boolean recreateSchemas;
+
     /**
      * Creates a new database cleaner.
      *
@@ -67,10 +73,26 @@ public class DbCleaner {
      * @param schemas             The schemas to clean.
      */
     public DbCleaner(TransactionTemplate transactionTemplate, JdbcTemplate jdbcTemplate, DbSupport dbSupport, String[] schemas) {
+        this(transactionTemplate, jdbcTemplate, dbSupport, schemas, false);
+    }
+
+    /**
+     * Creates a new database cleaner.
+     *
+     * @param transactionTemplate The transaction template to use.
+     * @param jdbcTemplate        JdbcTemplate with ddl manipulation access to the database.
+     * @param dbSupport           Database-specific functionality.
+     * @param schemas             The schemas to clean.
+     * @param recreateSchemas     {@code true} if the schemas should be dropped and created again where possible,
+     *                            {@code false} if their objects should always be dropped one by one.
+     */
+    public DbCleaner(TransactionTemplate transactionTemplate, JdbcTemplate jdbcTemplate, DbSupport dbSupport, String[] schemas,
+                     boolean recreateSchemas) {
         this.transactionTemplate = transactionTemplate;
         this.jdbcTemplate = jdbcTemplate;
         this.dbSupport = dbSupport;
         this.schemas = schemas;
+        this.recreateSchemas = recreateSchemas;
     }
 
     /**
@@ -91,27 +113,72 @@ public class DbCleaner {
      *
      * @throws FlywayException when clean failed.
      */
-    private void cleanSchema(String schema) {
+    private void cleanSchema(final String schema) {
         LOG.debug("Starting to drop all database objects in schema '" + schema + "' ...");
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
+        if (recreateSchemas && recreateSchema(schema)) {
+            stopWatch.stop();
+            LOG.info(String.format("Cleaned database schema '%s' by recreating it (execution time %s)",
+                    schema, TimeFormat.format(stopWatch.getTotalTimeMillis())));
+            return;
+        }
+
         try {
-            final SqlScript cleanScript = dbSupport.createCleanScript(schema);
-            try {
-                transactionTemplate.execute(new TransactionCallback<Void>() {
-                    public Void doInTransaction() {
-                        cleanScript.execute(jdbcTemplate);
-                        return null;
+            transactionTemplate.execute(new TransactionCallback<Void>() {
+                public Void doInTransaction() {
+                    SqlScript cleanScript;
+                    try {
+                        cleanScript = dbSupport.createCleanScript(schema);
+                    } catch (SQLException e) {
+                        throw new FlywayException("Error while generating clean script", e);
                     }
-                });
-            } catch (TransactionException e) {
-                throw new FlywayException("Clean failed! Schema: " + schema, e);
-            }
-        } catch (SQLException e) {
-            throw new FlywayException("Error while generating clean script", e);
+                    cleanScript.execute(jdbcTemplate);
+                    return null;
+                }
+            });
+        } catch (TransactionException e) {
+            throw new FlywayException("Clean failed! Schema: " + schema, e);
         }
         stopWatch.stop();
         LOG.info(String.format("Cleaned database schema '%s' (execution time %s)",
                 schema, TimeFormat.format(stopWatch.getTotalTimeMillis())));
     }
+
+    /**
+     * Cleans this schema by dropping it and creating it again, if the database and the privileges of the current user
+     * allow it.
+     *
+     * @param schema The schema to recreate.
+     * @return {@code true} if the schema has been recreated, {@code false} if its objects must be dropped one by one
+     *         instead.
+     * @throws FlywayException when recreating the schema failed and the changes could not be rolled back.
+     */
+    private boolean recreateSchema(final String schema) {
+        try {
+            return transactionTemplate.execute(new TransactionCallback<Boolean>() {
+                public Boolean doInTransaction() {
+                    SqlScript recreateScript;
+                    try {
+                        recreateScript = dbSupport.createRecreateSchemaScript(schema);
+                    } catch (SQLException e) {
+                        throw new FlywayException("Error while generating recreate script", e);
+                    }
+                    if (recreateScript == null) {
+                        LOG.debug("Unable to recreate schema '" + schema + "'. Dropping its objects one by one instead.");
+                        return false;
+                    }
+                    recreateScript.execute(jdbcTemplate);
+                    return true;
+                }
+            });
+        } catch (FlywayException e) {
+            if (!dbSupport.supportsDdlTransactions()) {
+                throw new FlywayException("Clean failed! Schema: " + schema, e);
+            }
+            LOG.warn("Unable to recreate schema '" + schema + "' (" + e.getMessage()
+                    + "). Dropping its objects one by one instead.");
+            return false;
+        }
+    }
 }
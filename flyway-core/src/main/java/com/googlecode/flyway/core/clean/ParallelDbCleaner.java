@@ -0,0 +1,277 @@
+/**
+ * Copyright (C) 2010-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.clean;
+
+import com.googlecode.flyway.core.dbsupport.DbSupport;
+import com.googlecode.flyway.core.dbsupport.DbSupportFactory;
+import com.googlecode.flyway.core.dbsupport.DropGraph;
+import com.googlecode.flyway.core.exception.FlywayException;
+import com.googlecode.flyway.core.util.StopWatch;
+import com.googlecode.flyway.core.util.StringUtils;
+import com.googlecode.flyway.core.util.TimeFormat;
+import com.googlecode.flyway.core.util.jdbc.JdbcTemplate;
+import com.googlecode.flyway.core.util.jdbc.JdbcUtils;
+import com.googlecode.flyway.core.util.jdbc.TransactionTemplate;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Workflow for cleaning schemas concurrently on several connections.
+ * <p/>
+ * On databases able to tell in which order the objects of a schema must be dropped (see
+ * {@link DbSupport#createCleanDropGraph(String)}), the schemas are cleaned one after the other, and the independent
+ * objects of each schema are dropped concurrently, in waves. The waves of a schema already spread across all threads,
+ * and cleaning the schemas in their configured order lets schemas referencing each other be cleaned in a safe order.
+ * Otherwise the schemas themselves are cleaned concurrently, each on its own connection. They must then not depend on
+ * each other, as they are cleaned in no particular order. A failure to clean one schema does not stop the others from being
+ * cleaned. All failures are reported together once every schema has been processed.
+ */
+public class ParallelDbCleaner {
+    /**
+     * Logger.
+     */
+    private static final Log LOG = LogFactory.getLog(ParallelDbCleaner.class);
+
+    /**
+     * The datasource to obtain the connections of the workers from.
+     */
+    private final DataSource dataSource;
+
+    /**
+     * The schemas to clean.
+     */
+    private final String[] schemas;
+
+    /**
+     * The maximum number of schemas to clean at the same time.
+     */
+    private final int threads;
+
+    /**
+     * Flag indicating whether the schemas should be dropped and created again where possible, instead of having their
+     * objects dropped one by one.
+     */
+    private final boolean recreateSchemas;
+
+    /**
+     * Creates a new parallel database cleaner.
+     *
+     * @param dataSource      The datasource to obtain the connections of the workers from.
+     * @param schemas         The schemas to clean.
+     * @param threads         The maximum number of schemas to clean at the same time, and therefore of additional
+     *                        connections to open.
+     * @param recreateSchemas {@code true} if the schemas should be dropped and created again where possible,
+     *                        {@code false} if their objects should always be dropped one by one.
+     */
+    public ParallelDbCleaner(DataSource dataSource, String[] schemas, int threads, boolean recreateSchemas) {
+        this.dataSource = dataSource;
+        this.schemas = schemas;
+        this.threads = threads;
+        this.recreateSchemas = recreateSchemas;
+    }
+
+    /**
+     * Cleans the schemas of all objects.
+     *
+     * @throws FlywayException when clean failed for at least one schema.
+     */
+    public void clean() throws FlywayException {
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+
+        Map<String, Throwable> failures = new LinkedHashMap<String, Throwable>();
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            List<String> schemasToCleanConcurrently = new ArrayList<String>();
+            Connection connection = JdbcUtils.openConnection(dataSource);
+            try {
+                DbSupport dbSupport = DbSupportFactory.createDbSupport(dataSource, connection);
+                for (String schema : schemas) {
+                    DropGraph dropGraph;
+                    try {
+                        dropGraph = dbSupport.createCleanDropGraph(schema);
+                    } catch (SQLException e) {
+                        LOG.error("Clean failed! Schema: " + schema, e);
+                        failures.put(schema, new FlywayException("Error while generating drop graph for schema " + schema, e));
+                        continue;
+                    }
+
+                    if (dropGraph == null) {
+                        schemasToCleanConcurrently.add(schema);
+                    } else {
+                        cleanSchemaInWaves(executorService, schema, dropGraph, failures);
+                    }
+                }
+            } finally {
+                JdbcUtils.closeConnection(connection);
+            }
+
+            cleanSchemasConcurrently(executorService, schemasToCleanConcurrently, failures);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlywayException("Interrupted while cleaning schemas", e);
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        if (!failures.isEmpty()) {
+            throw new FlywayException("Clean failed! Schemas: "
+                    + StringUtils.collectionToCommaDelimitedString(failures.keySet()), failures.values().iterator().next());
+        }
+
+        stopWatch.stop();
+        LOG.info(String.format("Cleaned %d database schemas (execution time %s)",
+                schemas.length, TimeFormat.format(stopWatch.getTotalTimeMillis())));
+    }
+
+    /**
+     * Cleans these schemas concurrently, each on its own connection.
+     *
+     * @param executorService The executor service to clean the schemas with.
+     * @param schemas         The schemas to clean.
+     * @param failures        The failures to add those of these schemas to, by schema.
+     * @throws InterruptedException when interrupted while waiting for the schemas to be cleaned.
+     */
+    private void cleanSchemasConcurrently(ExecutorService executorService, List<String> schemas,
+                                          Map<String, Throwable> failures) throws InterruptedException {
+        Map<String, Future<Void>> results = new LinkedHashMap<String, Future<Void>>();
+        for (final String schema : schemas) {
+            results.put(schema, executorService.submit(new Callable<Void>() {
+                public Void call() {
+                    cleanSchema(schema);
+                    return null;
+                }
+            }));
+        }
+
+        for (Map.Entry<String, Future<Void>> result : results.entrySet()) {
+            try {
+                result.getValue().get();
+            } catch (ExecutionException e) {
+                LOG.error("Clean failed! Schema: " + result.getKey(), e.getCause());
+                failures.put(result.getKey(), e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Cleans this schema by dropping its objects concurrently, one wave of independent objects after the other. The
+     * remaining waves are skipped after a wave failed, as their objects may depend on those which couldn't be dropped.
+     *
+     * @param executorService The executor service to drop the objects with.
+     * @param schema          The schema to clean.
+     * @param dropGraph       The objects of the schema to drop.
+     * @param failures        The failures to add the one of this schema to, by schema.
+     * @throws InterruptedException when interrupted while waiting for the objects to be dropped.
+     */
+    private void cleanSchemaInWaves(ExecutorService executorService, String schema, DropGraph dropGraph,
+                                    Map<String, Throwable> failures) throws InterruptedException {
+        LOG.debug("Starting to drop all database objects in schema '" + schema + "' concurrently ...");
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+
+        List<List<String>> waves = dropGraph.getWaves();
+        for (List<String> wave : waves) {
+            int workers = Math.min(threads, wave.size());
+            List<Future<Void>> results = new ArrayList<Future<Void>>();
+            for (int i = 0; i < workers; i++) {
+                final List<String> dropStatements = new ArrayList<String>();
+                for (int j = i; j < wave.size(); j += workers) {
+                    dropStatements.add(wave.get(j));
+                }
+                results.add(executorService.submit(new Callable<Void>() {
+                    public Void call() {
+                        executeDropStatements(dropStatements);
+                        return null;
+                    }
+                }));
+            }
+
+            Throwable firstFailure = null;
+            for (Future<Void> result : results) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    LOG.error("Clean failed! Schema: " + schema, e.getCause());
+                    if (firstFailure == null) {
+                        firstFailure = e.getCause();
+                    }
+                }
+            }
+            if (firstFailure != null) {
+                failures.put(schema, firstFailure);
+                return;
+            }
+        }
+
+        stopWatch.stop();
+        LOG.info(String.format("Cleaned database schema '%s' by dropping %d objects in %d waves (execution time %s)",
+                schema, dropGraph.size(), waves.size(), TimeFormat.format(stopWatch.getTotalTimeMillis())));
+    }
+
+    /**
+     * Executes these drop statements one after the other, on a connection of their own.
+     *
+     * @param dropStatements The drop statements to execute.
+     * @throws FlywayException when a statement could not be executed.
+     */
+    private void executeDropStatements(List<String> dropStatements) {
+        Connection connection = JdbcUtils.openConnection(dataSource);
+        try {
+            JdbcTemplate jdbcTemplate = DbSupportFactory.createDbSupport(dataSource, connection).getJdbcTemplate();
+            for (String dropStatement : dropStatements) {
+                try {
+                    jdbcTemplate.executeStatement(dropStatement);
+                } catch (SQLException e) {
+                    throw new FlywayException("Error executing statement: " + dropStatement, e);
+                }
+            }
+        } finally {
+            JdbcUtils.closeConnection(connection);
+        }
+    }
+
+    /**
+     * Cleans this schema of all objects, on a connection of its own.
+     *
+     * @param schema The schema to clean.
+     * @throws FlywayException when clean failed.
+     */
+    private void cleanSchema(String schema) {
+        Connection connection = JdbcUtils.openConnection(dataSource);
+        try {
+            DbSupport dbSupport = DbSupportFactory.createDbSupport(dataSource, connection);
+            new DbCleaner(new TransactionTemplate(connection, dbSupport.getJdbcTemplate()),
+                    dbSupport.getJdbcTemplate(), dbSupport, new String[]{schema},
+                    recreateSchemas).clean();
+        } finally {
+            JdbcUtils.closeConnection(connection);
+        }
+    }
+}
@@ -15,10 +15,14 @@
  */
 package com.googlecode.flyway.core.dbsupport;
 
+import com.googlecode.flyway.core.exception.FlywayException;
 import com.googlecode.flyway.core.migration.sql.PlaceholderReplacer;
 import com.googlecode.flyway.core.migration.sql.SqlScript;
+import com.googlecode.flyway.core.util.FileCopyUtils;
 import com.googlecode.flyway.core.util.jdbc.JdbcTemplate;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.sql.SQLException;
 
 /**
@@ -56,6 +60,34 @@ public abstract class DbSupport {
      */
     public abstract SqlScript createSqlScript(String sqlScriptSource, PlaceholderReplacer placeholderReplacer);
 
+    /**
+     * Creates a new streaming sql script reading from this reader with these placeholders to replace. Its statements
+     * are parsed one at a time as they are being executed.
+     *
+     * <p>By default the whole script is read into memory and passed to
+     * {@link #createSqlScript(String, PlaceholderReplacer)}. Databases supporting streaming override this.</p>
+     *
+     * @param sqlScriptReader     The reader for the sql script with all placeholders still present.
+     * @param placeholderReplacer The placeholder replacer to apply to sql migration scripts.
+     * @return A new streaming sql script.
+     * @throws FlywayException when the script could not be read from this reader.
+     */
+    public SqlScript createSqlScript(Reader sqlScriptReader, PlaceholderReplacer placeholderReplacer) {
+        String sqlScriptSource;
+        try {
+            sqlScriptSource = FileCopyUtils.copyToString(sqlScriptReader);
+        } catch (IOException e) {
+            throw new FlywayException("Unable to read sql script", e);
+        }
+
+        //Strip UTF-8 BOM if necessary
+        if (sqlScriptSource.startsWith("\ufeff")) {
+            sqlScriptSource = sqlScriptSource.substring(1);
+        }
+
+        return createSqlScript(sqlScriptSource, placeholderReplacer);
+    }
+
     /**
      * Creates a new sql script which clean this schema, by dropping all objects.
      *
@@ -65,6 +97,33 @@ public abstract class DbSupport {
      */
     public abstract SqlScript createCleanScript(String schema) throws SQLException;
 
+    /**
+     * Creates a new sql script which cleans this schema by dropping it with all its objects and creating it again,
+     * with the same owner and privileges. This is much faster than dropping the objects one by one for schemas with
+     * many objects, but is only possible when the database and the privileges of the current user allow it.
+     *
+     * @param schema The schema to clean.
+     * @return A new sql script recreating the schema, or {@code null} if the schema can not be recreated, in which case
+     *         it must be cleaned with the script returned by {@link #createCleanScript(String)} instead.
+     * @throws SQLException when querying the database for generating the script failed.
+     */
+    public SqlScript createRecreateSchemaScript(String schema) throws SQLException {
+        return null;
+    }
+
+    /**
+     * Creates the graph of the objects to drop to clean this schema, which allows independent objects to be dropped
+     * concurrently on several connections.
+     *
+     * @param schema The schema to clean.
+     * @return The drop graph, or {@code null} if this database does not support dropping objects concurrently, in which
+     *         case the schema must be cleaned with the script returned by {@link #createCleanScript(String)} instead.
+     * @throws SQLException when querying the database for generating the graph failed.
+     */
+    public DropGraph createCleanDropGraph(String schema) throws SQLException {
+        return null;
+    }
+
     /**
      * Returns the location on the classpath where the scripts for this database reside.
      *
@@ -27,9 +27,12 @@ import com.googlecode.flyway.core.exception.FlywayException;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * Factory for obtaining the correct DbSupport instance for the current connection.
@@ -40,6 +43,12 @@ public class DbSupportFactory {
      */
     private static final Log LOG = LogFactory.getLog(DbSupportFactory.class);
 
+    /**
+     * The database detected so far for each DataSource instance. The DataSources are only weakly referenced, so that
+     * they can be garbage collected. A DataSource created anew for every command detects its database again.
+     */
+    private static final Map<DataSource, DatabaseInfo> DATABASE_INFOS = new WeakHashMap<DataSource, DatabaseInfo>();
+
     /**
      * Prevent instantiation.
      */
@@ -54,13 +63,82 @@ public class DbSupportFactory {
      * @return The appropriate DbSupport class.
      */
     public static DbSupport createDbSupport(Connection connection) {
-        String databaseProductName = getDatabaseProductName(connection);
-        if (databaseProductName == null) {
-            throw new FlywayException("Unable to determine database. Product name is null.");
+        DatabaseInfo databaseInfo = getDatabaseInfo(connection);
+        LOG.debug("Database: " + databaseInfo);
+        return createDbSupport(databaseInfo.productName, connection);
+    }
+
+    /**
+     * Initializes the appropriate DbSupport class for the database product used by the data source. The database is
+     * only detected on the first connection of this DataSource. It is then reused until {@link #invalidate} is called.
+     *
+     * @param dataSource The DataSource the connection comes from.
+     * @param connection The Jdbc connection to use to query the database.
+     * @return The appropriate DbSupport class.
+     */
+    public static DbSupport createDbSupport(DataSource dataSource, Connection connection) {
+        DatabaseInfo databaseInfo;
+        synchronized (DATABASE_INFOS) {
+            databaseInfo = DATABASE_INFOS.get(dataSource);
+        }
+        if (databaseInfo == null) {
+            databaseInfo = getDatabaseInfo(connection);
+            LOG.debug("Database: " + databaseInfo);
+            synchronized (DATABASE_INFOS) {
+                DATABASE_INFOS.put(dataSource, databaseInfo);
+            }
+        }
+        return createDbSupport(databaseInfo.productName, connection);
+    }
+
+    /**
+     * Retrieves the default schema of the connections of this DataSource. It is only queried the first time. It is then
+     * reused until {@link #invalidate} is called.
+     *
+     * @param dataSource The DataSource the connection of the DbSupport comes from.
+     * @param dbSupport  The DbSupport created by {@link #createDbSupport(DataSource, Connection)} for this DataSource.
+     * @return The default schema.
+     * @throws SQLException when the default schema could not be retrieved.
+     */
+    public static String getDefaultSchema(DataSource dataSource, DbSupport dbSupport) throws SQLException {
+        DatabaseInfo databaseInfo;
+        synchronized (DATABASE_INFOS) {
+            databaseInfo = DATABASE_INFOS.get(dataSource);
+        }
+        if (databaseInfo == null) {
+            return dbSupport.getCurrentSchema();
         }
 
-        LOG.debug("Database: " + databaseProductName);
+        if (databaseInfo.defaultSchema == null) {
+            databaseInfo.defaultSchema = dbSupport.getCurrentSchema();
+        }
+        return databaseInfo.defaultSchema;
+    }
 
+    /**
+     * Discards what has been detected about the database of this DataSource, so that it is detected again on the next
+     * connection. Use this when the DataSource now points to a different database, or its default schema changed.
+     *
+     * @param dataSource The DataSource. {@code null} to discard what has been detected for all DataSources.
+     */
+    public static void invalidate(DataSource dataSource) {
+        synchronized (DATABASE_INFOS) {
+            if (dataSource == null) {
+                DATABASE_INFOS.clear();
+            } else {
+                DATABASE_INFOS.remove(dataSource);
+            }
+        }
+    }
+
+    /**
+     * Initializes the appropriate DbSupport class for this database product.
+     *
+     * @param databaseProductName The name of the database product.
+     * @param connection          The Jdbc connection to use to query the database.
+     * @return The appropriate DbSupport class.
+     */
+    private static DbSupport createDbSupport(String databaseProductName, Connection connection) {
         if ("Apache Derby".equals(databaseProductName)) {
             return new DerbyDbSupport(connection);
         }
@@ -95,21 +173,64 @@ public class DbSupportFactory {
     }
 
     /**
-     * Retrieves the name of the database product.
+     * Retrieves the name and version of the database product.
      *
      * @param connection The connection to use to query the database.
-     * @return The name of the database product. Ex.: Oracle, MySQL, ...
+     * @return The database product.
      */
-    private static String getDatabaseProductName(Connection connection) {
+    private static DatabaseInfo getDatabaseInfo(Connection connection) {
+        String databaseProductName;
+        String databaseProductVersion;
         try {
             DatabaseMetaData databaseMetaData = connection.getMetaData();
             if (databaseMetaData == null) {
                 throw new FlywayException("Unable to read database metadata while it is null!");
             }
-            return databaseMetaData.getDatabaseProductName();
+            databaseProductName = databaseMetaData.getDatabaseProductName();
+            databaseProductVersion = databaseMetaData.getDatabaseProductVersion();
         } catch (SQLException e) {
             throw new FlywayException("Error while determining database product name", e);
         }
+
+        if (databaseProductName == null) {
+            throw new FlywayException("Unable to determine database. Product name is null.");
+        }
+        return new DatabaseInfo(databaseProductName, databaseProductVersion);
     }
 
+    /**
+     * What has been detected about the database of a DataSource.
+     */
+    private static class DatabaseInfo {
+        /**
+         * The name of the database product. Ex.: Oracle, MySQL, ...
+         */
+        private final String productName;
+
+        /**
+         * The version of the database product.
+         */
+        private final String productVersion;
+
+        /**
+         * The default schema of the connections. {@code null} if it hasn't been retrieved yet.
+         */
+        private volatile String defaultSchema;
+
+        /**
+         * Creates a new DatabaseInfo.
+         *
+         * @param productName    The name of the database product.
+         * @param productVersion The version of the database product.
+         */
+        DatabaseInfo(String productName, String productVersion) {
+            this.productName = productName;
+            this.productVersion = productVersion;
+        }
+
+        @Override
+        public String toString() {
+            return (productVersion == null) ? productName : productName + " " + productVersion;
+        }
+    }
 }
@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2010-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.dbsupport;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The objects of a schema to drop, together with the order in which they must be dropped. The objects are grouped into
+ * waves: the objects of a wave only need the objects of the previous waves to be dropped first, and can therefore be
+ * dropped concurrently.
+ */
+public class DropGraph {
+    /**
+     * The drop statements of the objects, by object id, in the order the objects were added.
+     */
+    private final Map<String, String> dropStatements = new LinkedHashMap<String, String>();
+
+    /**
+     * The ids of the objects which must be dropped before an object, by object id.
+     */
+    private final Map<String, Set<String>> predecessors = new HashMap<String, Set<String>>();
+
+    /**
+     * Adds an object to drop.
+     *
+     * @param id            The id of the object, unique within this graph.
+     * @param dropStatement The statement dropping the object.
+     */
+    public void addObject(String id, String dropStatement) {
+        dropStatements.put(id, dropStatement);
+    }
+
+    /**
+     * Records that this object must be dropped before this other one, typically because it references it. Ids of
+     * objects not part of this graph, {@code null} ids and references of an object to itself are ignored.
+     *
+     * @param first The id of the object to drop first.
+     * @param then  The id of the object to drop afterwards.
+     */
+    public void dropBefore(String first, String then) {
+        if ((first == null) || (then == null) || first.equals(then)
+                || !dropStatements.containsKey(first) || !dropStatements.containsKey(then)) {
+            return;
+        }
+
+        Set<String> thenPredecessors = predecessors.get(then);
+        if (thenPredecessors == null) {
+            thenPredecessors = new HashSet<String>();
+            predecessors.put(then, thenPredecessors);
+        }
+        thenPredecessors.add(first);
+    }
+
+    /**
+     * @return The number of objects to drop.
+     */
+    public int size() {
+        return dropStatements.size();
+    }
+
+    /**
+     * Groups the drop statements into waves. All statements of a wave can be executed concurrently, once those of the
+     * previous waves have been executed. Within a wave, the statements keep the order in which their objects were
+     * added. Objects caught in a dependency cycle end up in waves of their own at the end, in the order they were
+     * added.
+     *
+     * @return The waves of drop statements.
+     */
+    public List<List<String>> getWaves() {
+        Map<String, Integer> remainingPredecessorCounts = new HashMap<String, Integer>();
+        Map<String, List<String>> successors = new HashMap<String, List<String>>();
+        for (String id : dropStatements.keySet()) {
+            Set<String> idPredecessors = predecessors.get(id);
+            remainingPredecessorCounts.put(id, (idPredecessors == null) ? 0 : idPredecessors.size());
+            if (idPredecessors != null) {
+                for (String predecessor : idPredecessors) {
+                    List<String> predecessorSuccessors = successors.get(predecessor);
+                    if (predecessorSuccessors == null) {
+                        predecessorSuccessors = new ArrayList<String>();
+                        successors.put(predecessor, predecessorSuccessors);
+                    }
+                    predecessorSuccessors.add(id);
+                }
+            }
+        }
+
+        List<List<String>> waves = new ArrayList<List<String>>();
+        Set<String> dropped = new HashSet<String>();
+        while (dropped.size() < dropStatements.size()) {
+            List<String> waveIds = new ArrayList<String>();
+            for (String id : dropStatements.keySet()) {
+                if (!dropped.contains(id) && (remainingPredecessorCounts.get(id) == 0)) {
+                    waveIds.add(id);
+                }
+            }
+
+            if (waveIds.isEmpty()) {
+                // Dependency cycle: drop the remaining objects one at a time
+                for (String id : dropStatements.keySet()) {
+                    if (!dropped.contains(id)) {
+                        List<String> wave = new ArrayList<String>();
+                        wave.add(dropStatements.get(id));
+                        waves.add(wave);
+                    }
+                }
+                break;
+            }
+
+            List<String> wave = new ArrayList<String>();
+            for (String id : waveIds) {
+                wave.add(dropStatements.get(id));
+                dropped.add(id);
+                List<String> idSuccessors = successors.get(id);
+                if (idSuccessors != null) {
+                    for (String successor : idSuccessors) {
+                        remainingPredecessorCounts.put(successor, remainingPredecessorCounts.get(successor) - 1);
+                    }
+                }
+            }
+            waves.add(wave);
+        }
+
+        return waves;
+    }
+}
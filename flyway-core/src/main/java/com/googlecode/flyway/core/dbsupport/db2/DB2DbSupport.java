@@ -16,14 +16,17 @@
 package com.googlecode.flyway.core.dbsupport.db2;
 
 import com.googlecode.flyway.core.dbsupport.DbSupport;
+import com.googlecode.flyway.core.dbsupport.DropGraph;
 import com.googlecode.flyway.core.migration.sql.PlaceholderReplacer;
 import com.googlecode.flyway.core.migration.sql.SqlScript;
 import com.googlecode.flyway.core.migration.sql.SqlStatement;
 
+import java.io.Reader;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DB2 Support.
@@ -42,6 +45,10 @@ public class DB2DbSupport extends DbSupport {
         return new DB2SqlScript(sqlScriptSource, placeholderReplacer);
     }
 
+    public SqlScript createSqlScript(Reader sqlScriptReader, PlaceholderReplacer placeholderReplacer) {
+        return new DB2SqlScript(sqlScriptReader, placeholderReplacer);
+    }
+
     public SqlScript createCleanScript(String schema) throws SQLException {
         String upperCaseSchema = schema.toUpperCase();
 
@@ -74,6 +81,73 @@ public class DB2DbSupport extends DbSupport {
         return new SqlScript(sqlStatements);
     }
 
+    @Override
+    public DropGraph createCleanDropGraph(String schema) throws SQLException {
+        String upperCaseSchema = schema.toUpperCase();
+        DropGraph dropGraph = new DropGraph();
+
+        // Views, aliases and tables share the same namespace within a schema, sequences have their own.
+        addToDropGraph(dropGraph, "", "DROP VIEW",
+                "select rtrim(TABNAME) from SYSCAT.TABLES where TYPE='V' and TABSCHEMA = ?", upperCaseSchema);
+        addToDropGraph(dropGraph, "", "DROP ALIAS",
+                "select rtrim(TABNAME) from SYSCAT.TABLES where TYPE='A' and TABSCHEMA = ?", upperCaseSchema);
+        addToDropGraph(dropGraph, "", "DROP TABLE",
+                "select rtrim(TABNAME) from SYSCAT.TABLES where TYPE='T' and TABSCHEMA = ?", upperCaseSchema);
+        addToDropGraph(dropGraph, "SEQUENCE:", "drop sequence",
+                "select rtrim(SEQNAME) from SYSCAT.SEQUENCES where SEQSCHEMA = ? and SEQTYPE='S'", upperCaseSchema);
+
+        // Views and aliases are dropped before the tables and views they are based on.
+        List<Map<String, String>> viewDependencies = jdbcTemplate.queryForList(
+                "select rtrim(VIEWNAME) as DEPENDENT, rtrim(BNAME) as BASE from SYSCAT.VIEWDEP" +
+                        " where VIEWSCHEMA = ? and BSCHEMA = ? and BTYPE in ('T', 'V')",
+                upperCaseSchema, upperCaseSchema);
+        addDependencies(dropGraph, viewDependencies);
+        List<Map<String, String>> aliasDependencies = jdbcTemplate.queryForList(
+                "select rtrim(TABNAME) as DEPENDENT, rtrim(BASE_TABNAME) as BASE from SYSCAT.TABLES" +
+                        " where TYPE='A' and TABSCHEMA = ? and BASE_TABSCHEMA = ?",
+                upperCaseSchema, upperCaseSchema);
+        addDependencies(dropGraph, aliasDependencies);
+
+        // Child tables are dropped before their parent tables, so no two drops compete for the same constraint.
+        List<Map<String, String>> foreignKeyDependencies = jdbcTemplate.queryForList(
+                "select rtrim(TABNAME) as DEPENDENT, rtrim(REFTABNAME) as BASE from SYSCAT.REFERENCES" +
+                        " where TABSCHEMA = ? and REFTABSCHEMA = ?",
+                upperCaseSchema, upperCaseSchema);
+        addDependencies(dropGraph, foreignKeyDependencies);
+
+        return dropGraph;
+    }
+
+    /**
+     * Adds the database objects returned by this query to this drop graph.
+     *
+     * @param dropGraph  The drop graph to add the objects to.
+     * @param idPrefix   The prefix for the ids of the objects in the graph, to separate namespaces.
+     * @param dropPrefix The drop command for the database object (e.g. 'drop table').
+     * @param query      The query to get all present database objects of this schema.
+     * @param schema     The schema of the objects.
+     * @throws SQLException when the objects could not be listed.
+     */
+    private void addToDropGraph(DropGraph dropGraph, String idPrefix, String dropPrefix, String query, String schema)
+            throws SQLException {
+        for (String dbObject : jdbcTemplate.queryForStringList(query, schema)) {
+            // DB2 needs double quotes
+            dropGraph.addObject(idPrefix + dbObject, dropPrefix + " \"" + schema + "\".\"" + dbObject + "\"");
+        }
+    }
+
+    /**
+     * Adds these dependencies between database objects to this drop graph.
+     *
+     * @param dropGraph    The drop graph to add the dependencies to.
+     * @param dependencies The dependencies, as rows with the DEPENDENT object to drop before the BASE object.
+     */
+    private void addDependencies(DropGraph dropGraph, List<Map<String, String>> dependencies) {
+        for (Map<String, String> dependency : dependencies) {
+            dropGraph.dropBefore(dependency.get("DEPENDENT"), dependency.get("BASE"));
+        }
+    }
+
     /**
      * Generates DROP statements for the sequences in this schema.
      * @param schema The schema of the objects.
@@ -17,7 +17,8 @@ package com.googlecode.flyway.core.dbsupport.db2;
 
 import com.googlecode.flyway.core.migration.sql.PlaceholderReplacer;
 import com.googlecode.flyway.core.migration.sql.SqlScript;
-import com.googlecode.flyway.core.util.StringUtils;
+
+import java.io.Reader;
 
 /**
  * SqlScript supporting DB2-specific delimiter changes.
@@ -36,13 +37,13 @@ public class DB2SqlScript extends SqlScript {
         super(sqlScriptSource, placeholderReplacer);
     }
 
-    @Override
-    protected boolean endsWithOpenMultilineStringLiteral(String statement) {
-        // DB2 only supports single quotes (') as delimiters
-        // A single quote inside a string literal is represented as two single quotes ('')
-        // An even number of single quotes thus means the string literal is closed.
-        // An uneven number means we are still waiting for the closing delimiter on a following line
-        int numQuotes = StringUtils.countOccurrencesOf(statement, "'");
-        return (numQuotes % 2) != 0;
+    /**
+     * Creates a new streaming sql script reading its source from this reader, with these placeholders to replace.
+     *
+     * @param sqlScriptReader     The reader for the sql script with all placeholders still present.
+     * @param placeholderReplacer The placeholder replacer to apply to sql migration scripts.
+     */
+    public DB2SqlScript(Reader sqlScriptReader, PlaceholderReplacer placeholderReplacer) {
+        super(sqlScriptReader, placeholderReplacer);
     }
 }
@@ -21,6 +21,7 @@ import com.googlecode.flyway.core.migration.sql.SqlScript;
 import com.googlecode.flyway.core.migration.sql.SqlStatement;
 import com.googlecode.flyway.core.util.StringUtils;
 
+import java.io.Reader;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -80,6 +81,10 @@ public class DerbyDbSupport extends DbSupport {
         return new DerbySqlScript(sqlScriptSource, placeholderReplacer);
     }
 
+    public SqlScript createSqlScript(Reader sqlScriptReader, PlaceholderReplacer placeholderReplacer) {
+        return new DerbySqlScript(sqlScriptReader, placeholderReplacer);
+    }
+
     public SqlScript createCleanScript(String schema) throws SQLException {
         List<String> statements = generateDropStatementsForConstraints(schema);
 
@@ -17,12 +17,8 @@ package com.googlecode.flyway.core.dbsupport.derby;
 
 import com.googlecode.flyway.core.migration.sql.PlaceholderReplacer;
 import com.googlecode.flyway.core.migration.sql.SqlScript;
-import com.googlecode.flyway.core.util.StringUtils;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.io.Reader;
 
 /**
  * SqlScript supporting Derby-specific delimiter changes.
@@ -40,6 +36,16 @@ public class DerbySqlScript extends SqlScript {
         super(sqlScriptSource, placeholderReplacer);
     }
 
+    /**
+     * Creates a new streaming sql script reading its source from this reader, with these placeholders to replace.
+     *
+     * @param sqlScriptReader     The reader for the sql script with all placeholders still present.
+     * @param placeholderReplacer The placeholder replacer to apply to sql migration scripts.
+     */
+    public DerbySqlScript(Reader sqlScriptReader, PlaceholderReplacer placeholderReplacer) {
+        super(sqlScriptReader, placeholderReplacer);
+    }
+
     /**
      * For testing only.
      */
@@ -52,116 +58,11 @@ public class DerbySqlScript extends SqlScript {
         return DEFAULT_STATEMENT_DELIMITER;
     }
 
-    /**
-     * Checks whether the statement we have assembled so far ends with an open multi-line string literal (which will be
-     * continued on the next line).
-     *
-     * @param statement The current statement, assembled from the lines we have parsed so far. May not yet be complete.
-     *
-     * @return {@code true} if the statement is unfinished and the end is currently in the middle of a multi-line string
-     *         literal. {@code false} if not.
-     */
     @Override
-    protected boolean endsWithOpenMultilineStringLiteral(String statement) {
-        //Ignore all special characters that naturally occur in SQL, but are not opening or closing string literals
-		String[] tokens = StringUtils.tokenizeToStringArray(statement, " ;=|(),");
-
-        List<Set<TokenType>> delimitingTokens = extractStringLiteralDelimitingTokens(tokens);
-
-        boolean insideQuoteStringLiteral = false;
-        boolean insideDollarStringLiteral = false;
-
-        for (Set<TokenType> delimitingToken : delimitingTokens) {
-            if (!insideDollarStringLiteral && !insideQuoteStringLiteral && delimitingToken.contains(TokenType.QUOTE_OPEN)) {
-                insideQuoteStringLiteral = true;
-                continue;
-            }
-            if (insideQuoteStringLiteral && delimitingToken.contains(TokenType.QUOTE_CLOSE)) {
-                insideQuoteStringLiteral = false;
-                continue;
-            }
-            if (!insideDollarStringLiteral && !insideQuoteStringLiteral && delimitingToken.contains(TokenType.DOLLAR_OPEN)) {
-                insideDollarStringLiteral = true;
-                continue;
-            }
-            if (insideDollarStringLiteral && delimitingToken.contains(TokenType.DOLLAR_CLOSE)) {
-                insideDollarStringLiteral = false;
-            }
+    protected String getStringLiteralOpening(String line, int pos) {
+        if (line.startsWith("$$", pos)) {
+            return "$$";
         }
-
-        return insideQuoteStringLiteral || insideDollarStringLiteral;
-    }
-
-    /**
-     * Extract the type of all tokens that potentially delimit string literals.
-     *
-     * @param tokens The tokens to analyse.
-     *
-     * @return The list of potentially delimiting string literals token types per token. Tokens that do not have any
-     *         impact on string delimiting are discarded.
-     */
-    private List<Set<TokenType>> extractStringLiteralDelimitingTokens(String[] tokens) {
-        List<Set<TokenType>> delimitingTokens = new ArrayList<Set<TokenType>>();
-        for (String token : tokens) {
-            //Remove escaped quotes as they do not form a string literal delimiter
-            String cleanToken = StringUtils.replace(token, "''", "");
-
-            Set<TokenType> tokenTypes = new HashSet<TokenType>();
-
-            if (cleanToken.startsWith("'")) {
-                if ((cleanToken.length() > 1) && cleanToken.endsWith("'")) {
-                    // Ignore. ' string literal is opened and closed inside the same token.
-                    continue;
-                }
-                tokenTypes.add(TokenType.QUOTE_OPEN);
-            }
-
-            if (cleanToken.endsWith("'")) {
-                tokenTypes.add(TokenType.QUOTE_CLOSE);
-            }
-
-            if (cleanToken.startsWith("$$")) {
-                if ((cleanToken.length() > 2) && cleanToken.endsWith("$$")) {
-                    // Ignore. $$ string literal is opened and closed inside the same token.
-                    continue;
-                }
-                tokenTypes.add(TokenType.DOLLAR_OPEN);
-            }
-
-            if (cleanToken.endsWith("$$")) {
-                tokenTypes.add(TokenType.DOLLAR_CLOSE);
-            }
-
-            if (!tokenTypes.isEmpty()) {
-                delimitingTokens.add(tokenTypes);
-            }
-        }
-
-        return delimitingTokens;
-    }
-
-    /**
-     * The types of tokens relevant for string delimiter related parsing.
-     */
-    private static enum TokenType {
-        /**
-         * Token opens ' string literal
-         */
-        QUOTE_OPEN,
-
-        /**
-         * Token closes ' string literal
-         */
-        QUOTE_CLOSE,
-
-        /**
-         * Token opens $$ string literal
-         */
-        DOLLAR_OPEN,
-
-        /**
-         * Token closes $$ string literal
-         */
-        DOLLAR_CLOSE
+        return super.getStringLiteralOpening(line, pos);
     }
 }
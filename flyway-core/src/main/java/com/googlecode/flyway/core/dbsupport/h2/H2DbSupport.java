@@ -24,6 +24,7 @@ import com.googlecode.flyway.core.util.jdbc.JdbcUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import java.io.Reader;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -103,6 +104,10 @@ public class H2DbSupport extends DbSupport {
         return new H2SqlScript(sqlScriptSource, placeholderReplacer);
     }
 
+    public SqlScript createSqlScript(Reader sqlScriptReader, PlaceholderReplacer placeholderReplacer) {
+        return new H2SqlScript(sqlScriptReader, placeholderReplacer);
+    }
+
     public SqlScript createCleanScript(String schema) throws SQLException {
         List<String> tableNames = listObjectNames("TABLE", "TABLE_TYPE = 'TABLE'", schema);
         List<String> statements = generateDropStatements("TABLE", tableNames, "CASCADE", schema);
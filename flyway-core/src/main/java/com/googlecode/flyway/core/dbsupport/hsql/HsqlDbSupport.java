@@ -23,6 +23,7 @@ import com.googlecode.flyway.core.util.jdbc.JdbcUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import java.io.Reader;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -103,6 +104,10 @@ public class HsqlDbSupport extends DbSupport {
         return new HsqlSqlScript(sqlScriptSource, placeholderReplacer);
     }
 
+    public SqlScript createSqlScript(Reader sqlScriptReader, PlaceholderReplacer placeholderReplacer) {
+        return new HsqlSqlScript(sqlScriptReader, placeholderReplacer);
+    }
+
     public SqlScript createCleanScript(final String schema) throws SQLException {
         final List<String> statements = generateDropStatementsForTables(schema);
         statements.addAll(generateDropStatementsForSequences(schema));
@@ -20,6 +20,7 @@ import com.googlecode.flyway.core.migration.sql.PlaceholderReplacer;
 import com.googlecode.flyway.core.migration.sql.SqlScript;
 import com.googlecode.flyway.core.migration.sql.SqlStatement;
 
+import java.io.Reader;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -90,6 +91,10 @@ public class MySQLDbSupport extends DbSupport {
         return new MySQLSqlScript(sqlScriptSource, placeholderReplacer);
     }
 
+    public SqlScript createSqlScript(Reader sqlScriptReader, PlaceholderReplacer placeholderReplacer) {
+        return new MySQLSqlScript(sqlScriptReader, placeholderReplacer);
+    }
+
     public SqlScript createCleanScript(String schema) throws SQLException {
         List<String> statements = cleanRoutines(schema);
         statements.addAll(cleanViews(schema));
@@ -23,6 +23,7 @@ import com.googlecode.flyway.core.migration.sql.SqlStatement;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import java.io.Reader;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -37,6 +38,35 @@ public class OracleDbSupport extends DbSupport {
      */
     private static final Log LOG = LogFactory.getLog(OracleDbSupport.class);
 
+    /**
+     * The types of objects dropped by clean, in the order they are dropped, with the extra arguments for their drop
+     * statements.
+     */
+    private static final String[][] DROPPED_OBJECT_TYPES = {
+            {"SEQUENCE", ""},
+            {"FUNCTION", ""},
+            {"MATERIALIZED VIEW", "PRESERVE TABLE"},
+            {"PACKAGE", ""},
+            {"PROCEDURE", ""},
+            {"SYNONYM", ""},
+            {"VIEW", "CASCADE CONSTRAINTS"},
+            {"TABLE", "CASCADE CONSTRAINTS PURGE"},
+            {"TYPE", "FORCE"}
+    };
+
+    /**
+     * The conditions on all_objects, besides owner and type, which the objects dropped by clean must satisfy.
+     */
+    private static final String DROPPED_OBJECT_FILTER = ""
+            // Ignore Recycle bin objects
+            + " AND object_name NOT LIKE 'BIN$%'"
+            // Ignore Spatial Index Tables and Sequences as they get dropped automatically when the index gets dropped.
+            + " AND object_name NOT LIKE 'MDRT_%$' AND object_name NOT LIKE 'MDRS_%$'"
+            // Ignore Materialized View Logs
+            + " AND object_name NOT LIKE 'MLOG$%' AND object_name NOT LIKE 'RUPD$%'"
+            // Ignore Oracle Text Index Tables
+            + " AND object_name NOT LIKE 'DR$%'";
+
     /**
      * Creates a new instance.
      *
@@ -88,6 +118,10 @@ public class OracleDbSupport extends DbSupport {
         return new OracleSqlScript(sqlScriptSource, placeholderReplacer);
     }
 
+    public SqlScript createSqlScript(Reader sqlScriptReader, PlaceholderReplacer placeholderReplacer) {
+        return new OracleSqlScript(sqlScriptReader, placeholderReplacer);
+    }
+
     public SqlScript createCleanScript(String schema) throws SQLException {
         if ("SYSTEM".equals(schema.toUpperCase())) {
             throw new FlywayException("Clean not supported on Oracle for user 'SYSTEM'! You should NEVER add your own objects to the SYSTEM schema!");
@@ -96,15 +130,14 @@ public class OracleDbSupport extends DbSupport {
         final List<String> allDropStatements = new ArrayList<String>();
         allDropStatements.add("PURGE RECYCLEBIN");
         allDropStatements.addAll(generateDropStatementsForSpatialExtensions(schema));
-        allDropStatements.addAll(generateDropStatementsForObjectType("SEQUENCE", "", schema));
-        allDropStatements.addAll(generateDropStatementsForObjectType("FUNCTION", "", schema));
-        allDropStatements.addAll(generateDropStatementsForObjectType("MATERIALIZED VIEW", "PRESERVE TABLE", schema));
-        allDropStatements.addAll(generateDropStatementsForObjectType("PACKAGE", "", schema));
-        allDropStatements.addAll(generateDropStatementsForObjectType("PROCEDURE", "", schema));
-        allDropStatements.addAll(generateDropStatementsForObjectType("SYNONYM", "", schema));
-        allDropStatements.addAll(generateDropStatementsForObjectType("VIEW", "CASCADE CONSTRAINTS", schema));
-        allDropStatements.addAll(generateDropStatementsForObjectType("TABLE", "CASCADE CONSTRAINTS PURGE", schema));
-        allDropStatements.addAll(generateDropStatementsForObjectType("TYPE", "FORCE", schema));
+
+        int objectCount = jdbcTemplate.queryForInt("SELECT COUNT(*) FROM all_objects WHERE owner = ?"
+                + " AND object_type IN (" + generateDroppedObjectTypeList() + ")" + DROPPED_OBJECT_FILTER,
+                schema.toUpperCase());
+        LOG.debug("Dropping " + objectCount + " objects in schema '" + schema + "' with a single PL/SQL block");
+        if (objectCount > 0) {
+            allDropStatements.add(generateDropBlock(schema));
+        }
 
         List<SqlStatement> sqlStatements = new ArrayList<SqlStatement>();
         int lineNumber = 1;
@@ -116,31 +149,56 @@ public class OracleDbSupport extends DbSupport {
     }
 
     /**
-     * Generates the drop statements for all database objects of this type.
+     * Generates an anonymous PL/SQL block which drops all objects of this schema server-side, one object type after the
+     * other in the order of {@link #DROPPED_OBJECT_TYPES}. This saves a round trip to the database per object.
      *
-     * @param objectType     The type of database object to drop.
-     * @param extraArguments The extra arguments to add to the drop statement.
-     * @param schema         The schema for which to generate the statements.
-     * @return The complete drop statements, ready to execute.
-     * @throws SQLException when the drop statements could not be generated.
+     * @param schema The schema for which to generate the block.
+     * @return The PL/SQL block, ready to execute.
+     */
+    /* private -> for testing */ static String generateDropBlock(String schema) {
+        StringBuilder typeOrder = new StringBuilder();
+        StringBuilder extraArguments = new StringBuilder();
+        for (int i = 0; i < DROPPED_OBJECT_TYPES.length; i++) {
+            String objectType = DROPPED_OBJECT_TYPES[i][0];
+            typeOrder.append(", '").append(objectType).append("', ").append(i);
+            if (DROPPED_OBJECT_TYPES[i][1].length() > 0) {
+                extraArguments.append(", '").append(objectType).append("', ' ").append(DROPPED_OBJECT_TYPES[i][1]).append("'");
+            }
+        }
+
+        return "DECLARE\n"
+                + "  stmt VARCHAR2(4000);\n"
+                + "BEGIN\n"
+                + "  FOR o IN (SELECT object_type, object_name FROM all_objects\n"
+                + "            WHERE owner = '" + schema.toUpperCase().replace("'", "''") + "'\n"
+                + "            AND object_type IN (" + generateDroppedObjectTypeList() + ")" + DROPPED_OBJECT_FILTER + "\n"
+                + "            ORDER BY DECODE(object_type" + typeOrder + "), object_name) LOOP\n"
+                + "    stmt := 'DROP ' || o.object_type || ' " + schema.replace("'", "''") + ".\"' || o.object_name || '\"'\n"
+                + "        || DECODE(o.object_type" + extraArguments + ", '');\n"
+                + "    BEGIN\n"
+                + "      EXECUTE IMMEDIATE stmt;\n"
+                + "    EXCEPTION\n"
+                + "      WHEN OTHERS THEN\n"
+                + "        RAISE_APPLICATION_ERROR(-20000, 'Unable to execute ' || stmt || ': ' || SQLERRM);\n"
+                + "    END;\n"
+                + "  END LOOP;\n"
+                + "END;";
+    }
+
+    /**
+     * Generates the list of the types of objects dropped by clean, for use in an IN condition.
+     *
+     * @return The comma-separated list of quoted object types.
      */
-    private List<String> generateDropStatementsForObjectType(String objectType, final String extraArguments, final String schema) throws SQLException {
-        String query = "SELECT object_name FROM all_objects WHERE object_type = ? AND owner = ?"
-                // Ignore Recycle bin objects
-                + " AND object_name NOT LIKE 'BIN$%'"
-                // Ignore Spatial Index Tables and Sequences as they get dropped automatically when the index gets dropped.
-                + " AND object_name NOT LIKE 'MDRT_%$' AND object_name NOT LIKE 'MDRS_%$'"
-                // Ignore Materialized View Logs
-                + " AND object_name NOT LIKE 'MLOG$%' AND object_name NOT LIKE 'RUPD$%'"
-                // Ignore Oracle Text Index Tables
-                + " AND object_name NOT LIKE 'DR$%'";
-
-        List<String> objectNames = jdbcTemplate.queryForStringList(query, objectType, schema.toUpperCase());
-        List<String> dropStatements = new ArrayList<String>();
-        for (String objectName : objectNames) {
-            dropStatements.add("DROP " + objectType + " " + schema + ".\"" + objectName + "\" " + extraArguments);
+    private static String generateDroppedObjectTypeList() {
+        StringBuilder typeList = new StringBuilder();
+        for (String[] droppedObjectType : DROPPED_OBJECT_TYPES) {
+            if (typeList.length() > 0) {
+                typeList.append(", ");
+            }
+            typeList.append("'").append(droppedObjectType[0]).append("'");
         }
-        return dropStatements;
+        return typeList.toString();
     }
 
     /**
@@ -17,10 +17,8 @@ package com.googlecode.flyway.core.dbsupport.oracle;
 
 import com.googlecode.flyway.core.migration.sql.PlaceholderReplacer;
 import com.googlecode.flyway.core.migration.sql.SqlScript;
-import com.googlecode.flyway.core.util.StringUtils;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.Reader;
 
 /**
  * SqlScript supporting Oracle-specific PL/SQL constructs.
@@ -42,6 +40,16 @@ public class OracleSqlScript extends SqlScript {
         super(sqlScriptSource, placeholderReplacer);
     }
 
+    /**
+     * Creates a new streaming sql script reading its source from this reader, with these placeholders to replace.
+     *
+     * @param sqlScriptReader     The reader for the sql script with all placeholders still present.
+     * @param placeholderReplacer The placeholder replacer to apply to sql migration scripts.
+     */
+    public OracleSqlScript(Reader sqlScriptReader, PlaceholderReplacer placeholderReplacer) {
+        super(sqlScriptReader, placeholderReplacer);
+    }
+
     @Override
     protected String changeDelimiterIfNecessary(String statement, String line, String delimiter) {
         String upperCaseLine = line.toUpperCase();
@@ -62,99 +70,26 @@ public class OracleSqlScript extends SqlScript {
         return delimiter;
     }
 
+    /**
+     * Recognizes q-quoted string literals (q'[...]', q'{...}', q'$...$', ...) in addition to the default string
+     * literals.
+     */
     @Override
-    protected boolean endsWithOpenMultilineStringLiteral(String statement) {
-        String filteredStatementForParensQQuotes =
-                com.googlecode.flyway.core.util.StringUtils.replaceAll(statement, "q'(", "q'[");
-        filteredStatementForParensQQuotes =
-                com.googlecode.flyway.core.util.StringUtils.replaceAll(filteredStatementForParensQQuotes, ")'", "]'");
-
-        //Ignore all special characters that naturally occur in SQL, but are not opening or closing string literals
-        String[] tokens = StringUtils.tokenizeToStringArray(filteredStatementForParensQQuotes, " ;=|(),");
-
-        List<Token> delimitingTokens = extractStringLiteralDelimitingTokens(tokens);
-
-        boolean insideQuoteStringLiteral = false;
-        boolean insideQStringLiteral = false;
-
-        for (Token delimitingToken : delimitingTokens) {
-            boolean moreTokensApplicable = true;
-            for (TokenType tokenType : delimitingToken.tokenTypes) {
-                if (!moreTokensApplicable) {
-                    continue;
-                }
-
-                if (!insideQStringLiteral && !insideQuoteStringLiteral && (tokenType == TokenType.QUOTE_OPEN)) {
-                    insideQuoteStringLiteral = true;
-                    if (delimitingToken.singleTypeApplicable) {
-                        moreTokensApplicable = false;
-                    }
-                    continue;
-                }
-                if (insideQuoteStringLiteral && (tokenType == TokenType.QUOTE_CLOSE)) {
-                    insideQuoteStringLiteral = false;
-                    moreTokensApplicable = false;
-                    continue;
-                }
-                if (!insideQStringLiteral && !insideQuoteStringLiteral && (tokenType == TokenType.Q_OPEN)) {
-                    insideQStringLiteral = true;
-                    continue;
-                }
-                if (insideQStringLiteral && (tokenType == TokenType.Q_CLOSE)) {
-                    insideQStringLiteral = false;
-                    moreTokensApplicable = false;
-                }
-            }
+    protected String getStringLiteralOpening(String line, int pos) {
+        char c = line.charAt(pos);
+        if (((c == 'q') || (c == 'Q')) && (pos + 2 < line.length()) && (line.charAt(pos + 1) == '\'')
+                && ((pos == 0) || !Character.isLetterOrDigit(line.charAt(pos - 1)))) {
+            return line.substring(pos, pos + 3);
         }
-
-        return insideQuoteStringLiteral || insideQStringLiteral;
+        return super.getStringLiteralOpening(line, pos);
     }
 
-    /**
-     * Extract the type of all tokens that potentially delimit string literals.
-     *
-     * @param tokens The tokens to analyse.
-     * @return The list of potentially delimiting string literals token types per token. Tokens that do not have any
-     *         impact on string delimiting are discarded.
-     */
-    private List<Token> extractStringLiteralDelimitingTokens(String[] tokens) {
-        String qCloseToken = "]'";
-
-        List<Token> delimitingTokens = new ArrayList<Token>();
-        for (String token : tokens) {
-            //Remove escaped quotes as they do not form a string literal delimiter
-            String cleanToken = StringUtils.replace(token, "''", "");
-
-            List<TokenType> tokenTypes = new ArrayList<TokenType>();
-
-            if (cleanToken.startsWith("'")) {
-                tokenTypes.add(TokenType.QUOTE_OPEN);
-            }
-
-            if (cleanToken.endsWith("'")) {
-                tokenTypes.add(TokenType.QUOTE_CLOSE);
-            }
-
-            if (cleanToken.startsWith("q'") && (cleanToken.length() >= 3)) {
-                String qOpenToken = cleanToken.substring(0, 3);
-                qCloseToken = computeQCloseToken(qOpenToken);
-
-                tokenTypes.add(TokenType.Q_OPEN);
-            }
-
-            if (cleanToken.endsWith(qCloseToken)) {
-                tokenTypes.add(TokenType.Q_CLOSE);
-            }
-
-            if (!tokenTypes.isEmpty()) {
-                Token parsedToken = new Token();
-                parsedToken.tokenTypes = tokenTypes;
-                parsedToken.singleTypeApplicable = token.length() == 1;
-                delimitingTokens.add(parsedToken);
-            }
+    @Override
+    protected String getStringLiteralClosing(String opening) {
+        if (opening.length() == 3) {
+            return computeQCloseToken(opening);
         }
-
-        return delimitingTokens;
+        return super.getStringLiteralClosing(opening);
     }
 
     /**
@@ -178,44 +113,4 @@ public class OracleSqlScript extends SqlScript {
                 return specialChar + "'";
         }
     }
-
-    /**
-     * A parsed token.
-     */
-    private class Token {
-        /**
-         * TokenTypes of this token.
-         */
-        public List<TokenType> tokenTypes;
-
-        /**
-         * Flag indicating whether only a single tokenType may influence the parsing.
-         */
-        public boolean singleTypeApplicable;
-    }
-
-    /**
-     * The types of tokens relevant for string delimiter related parsing.
-     */
-    private static enum TokenType {
-        /**
-         * Token opens ' string literal
-         */
-        QUOTE_OPEN,
-
-        /**
-         * Token closes ' string literal
-         */
-        QUOTE_CLOSE,
-
-        /**
-         * Token opens q' string literal
-         */
-        Q_OPEN,
-
-        /**
-         * Token closes q' string literal
-         */
-        Q_CLOSE
-    }
 }
@@ -20,6 +20,7 @@ import com.googlecode.flyway.core.migration.sql.PlaceholderReplacer;
 import com.googlecode.flyway.core.migration.sql.SqlScript;
 import com.googlecode.flyway.core.migration.sql.SqlStatement;
 
+import java.io.Reader;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -83,6 +84,10 @@ public class PostgreSQLDbSupport extends DbSupport {
         return new PostgreSQLSqlScript(sqlScriptSource, placeholderReplacer);
     }
 
+    public SqlScript createSqlScript(Reader sqlScriptReader, PlaceholderReplacer placeholderReplacer) {
+        return new PostgreSQLSqlScript(sqlScriptReader, placeholderReplacer);
+    }
+
     public SqlScript createCleanScript(String schema) throws SQLException {
         final List<String> allDropStatements = new ArrayList<String>();
         allDropStatements.addAll(generateDropStatementsForTables(schema));
@@ -103,6 +108,36 @@ public class PostgreSQLDbSupport extends DbSupport {
         return new SqlScript(sqlStatements);
     }
 
+    @Override
+    public SqlScript createRecreateSchemaScript(String schema) throws SQLException {
+        String owner = jdbcTemplate.queryForString(
+                //Search for the owner of the schema
+                "SELECT pg_catalog.pg_get_userbyid(nspowner) FROM pg_catalog.pg_namespace WHERE nspname=?" +
+                        //whose privileges have never been granted or revoked (and are therefore restored on creation)
+                        " AND nspacl IS NULL" +
+                        //provided the current user may drop the schema and create it again for this owner.
+                        " AND pg_catalog.pg_has_role(nspowner, 'MEMBER')" +
+                        " AND pg_catalog.has_database_privilege(pg_catalog.current_database(), 'CREATE')",
+                schema);
+        if (owner == null) {
+            return null;
+        }
+
+        List<SqlStatement> sqlStatements = new ArrayList<SqlStatement>();
+        sqlStatements.add(new SqlStatement(1, "DROP SCHEMA \"" + schema + "\" CASCADE"));
+        sqlStatements.add(new SqlStatement(2, "CREATE SCHEMA \"" + schema + "\" AUTHORIZATION \"" + owner + "\""));
+
+        String comment = jdbcTemplate.queryForString(
+                "SELECT pg_catalog.obj_description(oid, 'pg_namespace') FROM pg_catalog.pg_namespace WHERE nspname=?",
+                schema);
+        if (comment != null) {
+            sqlStatements.add(new SqlStatement(3,
+                    "COMMENT ON SCHEMA \"" + schema + "\" IS '" + comment.replace("'", "''") + "'"));
+        }
+
+        return new SqlScript(sqlStatements);
+    }
+
     /**
      * Generates the statements for dropping the tables in this schema.
      *
@@ -17,23 +17,13 @@ package com.googlecode.flyway.core.dbsupport.postgresql;
 
 import com.googlecode.flyway.core.migration.sql.PlaceholderReplacer;
 import com.googlecode.flyway.core.migration.sql.SqlScript;
-import com.googlecode.flyway.core.util.StringUtils;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.io.Reader;
 
 /**
  * SqlScript supporting PostgreSQL specific syntax.
  */
 public class PostgreSQLSqlScript extends SqlScript {
-    /**
-     * Matches $$, $BODY$, $xyz123$, ...
-     */
-    /*private -> for testing*/
-    static final String DOLLAR_QUOTE_REGEX = "\\$[A-Za-z0-9_]*\\$.*";
-
     /**
      * Creates a new sql script from this source with these placeholders to replace.
      *
@@ -45,124 +35,48 @@ public class PostgreSQLSqlScript extends SqlScript {
         super(sqlScriptSource, placeholderReplacer);
     }
 
+    /**
+     * Creates a new streaming sql script reading its source from this reader, with these placeholders to replace.
+     *
+     * @param sqlScriptReader     The reader for the sql script with all placeholders still present.
+     * @param placeholderReplacer The placeholder replacer to apply to sql migration scripts.
+     */
+    public PostgreSQLSqlScript(Reader sqlScriptReader, PlaceholderReplacer placeholderReplacer) {
+        super(sqlScriptReader, placeholderReplacer);
+    }
+
     @Override
     protected String changeDelimiterIfNecessary(String statement, String line, String delimiter) {
         return DEFAULT_STATEMENT_DELIMITER;
     }
 
     /**
-     * Checks whether the statement we have assembled so far ends with an open multi-line string literal (which will be
-     * continued on the next line).
-     *
-     * @param statement The current statement, assembled from the lines we have parsed so far. May not yet be complete.
-     * @return {@code true} if the statement is unfinished and the end is currently in the middle of a multi-line string
-     *         literal. {@code false} if not.
+     * Recognizes dollar quotes ($$, $BODY$, $xyz123$, ...) in addition to the default string literals. A dollar
+     * quoted string literal is closed by the same tag that opened it.
      */
     @Override
-    protected boolean endsWithOpenMultilineStringLiteral(String statement) {
-        //Ignore all special characters that naturally occur in SQL, but are not opening or closing string literals
-        String[] tokens = StringUtils.tokenizeToStringArray(statement, " ;=|(),");
-
-        List<Set<TokenType>> delimitingTokens = extractStringLiteralDelimitingTokens(tokens);
-
-        boolean insideQuoteStringLiteral = false;
-        boolean insideDollarStringLiteral = false;
-
-        for (Set<TokenType> delimitingToken : delimitingTokens) {
-            if (!insideDollarStringLiteral && !insideQuoteStringLiteral && delimitingToken.contains(TokenType.QUOTE_OPEN)) {
-                insideQuoteStringLiteral = true;
-                continue;
-            }
-            if (insideQuoteStringLiteral && delimitingToken.contains(TokenType.QUOTE_CLOSE)) {
-                insideQuoteStringLiteral = false;
-                continue;
-            }
-            if (!insideDollarStringLiteral && !insideQuoteStringLiteral && delimitingToken.contains(TokenType.DOLLAR_OPEN)) {
-                insideDollarStringLiteral = true;
-                continue;
-            }
-            if (insideDollarStringLiteral && delimitingToken.contains(TokenType.DOLLAR_CLOSE)) {
-                insideDollarStringLiteral = false;
-            }
+    protected String getStringLiteralOpening(String line, int pos) {
+        if ((line.charAt(pos) != '$') || ((pos > 0) && isTagCharacter(line.charAt(pos - 1)))) {
+            return super.getStringLiteralOpening(line, pos);
         }
 
-        return insideQuoteStringLiteral || insideDollarStringLiteral;
-    }
-
-    /**
-     * Extract the type of all tokens that potentially delimit string literals.
-     *
-     * @param tokens The tokens to analyse.
-     * @return The list of potentially delimiting string literals token types per token. Tokens that do not have any
-     *         impact on string delimiting are discarded.
-     */
-    private List<Set<TokenType>> extractStringLiteralDelimitingTokens(String[] tokens) {
-        String dollarQuote = null;
-
-        List<Set<TokenType>> delimitingTokens = new ArrayList<Set<TokenType>>();
-        for (String token : tokens) {
-            //Remove escaped quotes as they do not form a string literal delimiter
-            String cleanToken = StringUtils.replace(token, "''", "");
-
-            Set<TokenType> tokenTypes = new HashSet<TokenType>();
-
-            if (cleanToken.startsWith("'")) {
-                if ((cleanToken.length() > 1) && cleanToken.endsWith("'")) {
-                    // Ignore. ' string literal is opened and closed inside the same token.
-                    continue;
-                }
-                tokenTypes.add(TokenType.QUOTE_OPEN);
-            }
-
-            if (cleanToken.endsWith("'")) {
-                tokenTypes.add(TokenType.QUOTE_CLOSE);
-            }
-
-            if ((dollarQuote == null) && cleanToken.matches(DOLLAR_QUOTE_REGEX)) {
-                dollarQuote = cleanToken.substring(0, cleanToken.substring(1).indexOf("$") + 2);
-                if ((cleanToken.length() > dollarQuote.length()) && cleanToken.endsWith(dollarQuote)) {
-                    // Ignore. $$ string literal is opened and closed inside the same token.
-                    dollarQuote = null;
-                    continue;
-                }
-                tokenTypes.add(TokenType.DOLLAR_OPEN);
-            }
-
-            if ((dollarQuote != null) && !cleanToken.startsWith(dollarQuote) && cleanToken.endsWith(dollarQuote)) {
-                tokenTypes.add(TokenType.DOLLAR_CLOSE);
-                dollarQuote = null;
-            }
-
-            if (!tokenTypes.isEmpty()) {
-                delimitingTokens.add(tokenTypes);
-            }
+        int tagEnd = pos + 1;
+        while ((tagEnd < line.length()) && isTagCharacter(line.charAt(tagEnd))) {
+            tagEnd++;
         }
-
-        return delimitingTokens;
+        if ((tagEnd < line.length()) && (line.charAt(tagEnd) == '$')) {
+            return line.substring(pos, tagEnd + 1);
+        }
+        return null;
     }
 
     /**
-     * The types of tokens relevant for string delimiter related parsing.
+     * Checks whether this character may be part of the tag of a dollar quote.
+     *
+     * @param c The character to check.
+     * @return {@code true} if it may, {@code false} if not.
      */
-    private static enum TokenType {
-        /**
-         * Token opens ' string literal
-         */
-        QUOTE_OPEN,
-
-        /**
-         * Token closes ' string literal
-         */
-        QUOTE_CLOSE,
-
-        /**
-         * Token opens $$ string literal
-         */
-        DOLLAR_OPEN,
-
-        /**
-         * Token closes $$ string literal
-         */
-        DOLLAR_CLOSE
+    private boolean isTagCharacter(char c) {
+        return Character.isLetterOrDigit(c) || (c == '_');
     }
 }
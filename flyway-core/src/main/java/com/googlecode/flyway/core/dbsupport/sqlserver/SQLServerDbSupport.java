@@ -16,10 +16,12 @@
 package com.googlecode.flyway.core.dbsupport.sqlserver;
 
 import com.googlecode.flyway.core.dbsupport.DbSupport;
+import com.googlecode.flyway.core.dbsupport.DropGraph;
 import com.googlecode.flyway.core.migration.sql.PlaceholderReplacer;
 import com.googlecode.flyway.core.migration.sql.SqlScript;
 import com.googlecode.flyway.core.migration.sql.SqlStatement;
 
+import java.io.Reader;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -89,6 +91,10 @@ public class SQLServerDbSupport extends DbSupport {
         return new SQLServerSqlScript(sqlScriptSource, placeholderReplacer);
     }
 
+    public SqlScript createSqlScript(Reader sqlScriptReader, PlaceholderReplacer placeholderReplacer) {
+        return new SQLServerSqlScript(sqlScriptReader, placeholderReplacer);
+    }
+
     public SqlScript createCleanScript(String schema) throws SQLException {
         List<String> statements = cleanForeignKeys(schema);
         statements.addAll(cleanRoutines(schema));
@@ -105,6 +111,66 @@ public class SQLServerDbSupport extends DbSupport {
         return new SqlScript(sqlStatements);
     }
 
+    @Override
+    public DropGraph createCleanDropGraph(String schema) throws SQLException {
+        DropGraph dropGraph = new DropGraph();
+
+        // Tables, views, routines and constraints share the same namespace within a schema, types have their own.
+        List<Map<String, String>> foreignKeys = jdbcTemplate.queryForList(
+                "SELECT OBJECT_NAME(parent_object_id) AS table_name, name AS constraint_name," +
+                        " OBJECT_NAME(referenced_object_id) AS referenced_table_name FROM sys.foreign_keys" +
+                        " WHERE OBJECT_SCHEMA_NAME(parent_object_id) = ?",
+                schema);
+        for (Map<String, String> foreignKey : foreignKeys) {
+            dropGraph.addObject(foreignKey.get("constraint_name"),
+                    generateDropStatementForForeignKey(schema, foreignKey));
+        }
+        List<Map<String, String>> routines = listRoutines(schema);
+        for (Map<String, String> routine : routines) {
+            dropGraph.addObject(routine.get("routine_name"), generateDropStatementForRoutine(schema, routine));
+        }
+        for (String viewName : listViews(schema)) {
+            dropGraph.addObject(viewName, "DROP VIEW [" + schema + "].[" + viewName + "]");
+        }
+        List<String> tableNames = listTables(schema);
+        for (String tableName : tableNames) {
+            dropGraph.addObject(tableName, "DROP TABLE [" + schema + "].[" + tableName + "]");
+        }
+        List<String> typeNames = listTypes(schema);
+        for (String typeName : typeNames) {
+            dropGraph.addObject("TYPE:" + typeName, "DROP TYPE [" + schema + "].[" + typeName + "]");
+        }
+
+        // A foreign key must be gone before both its table and the table it references are dropped.
+        for (Map<String, String> foreignKey : foreignKeys) {
+            dropGraph.dropBefore(foreignKey.get("constraint_name"), foreignKey.get("table_name"));
+            dropGraph.dropBefore(foreignKey.get("constraint_name"), foreignKey.get("referenced_table_name"));
+        }
+
+        // Views and routines must be dropped before the objects they reference, or SCHEMABINDING prevents the drop.
+        List<Map<String, String>> references = jdbcTemplate.queryForList(
+                "SELECT DISTINCT OBJECT_NAME(object_id) AS referencing_name," +
+                        " OBJECT_NAME(referenced_major_id) AS referenced_name FROM sys.sql_dependencies" +
+                        " WHERE class < 2 AND OBJECT_SCHEMA_NAME(object_id) = ?" +
+                        " AND OBJECT_SCHEMA_NAME(referenced_major_id) = ?",
+                schema, schema);
+        for (Map<String, String> reference : references) {
+            dropGraph.dropBefore(reference.get("referencing_name"), reference.get("referenced_name"));
+        }
+
+        // Types can only be dropped once no table column and no routine parameter uses them anymore.
+        for (String typeName : typeNames) {
+            for (String tableName : tableNames) {
+                dropGraph.dropBefore(tableName, "TYPE:" + typeName);
+            }
+            for (Map<String, String> routine : routines) {
+                dropGraph.dropBefore(routine.get("routine_name"), "TYPE:" + typeName);
+            }
+        }
+
+        return dropGraph;
+    }
+
     /**
      * Cleans the tables in this schema.
      *
@@ -113,17 +179,26 @@ public class SQLServerDbSupport extends DbSupport {
      * @throws SQLException when the clean statements could not be generated.
      */
     private List<String> cleanTables(String schema) throws SQLException {
-        List<String> tableNames = jdbcTemplate.queryForStringList(
-                "SELECT table_name FROM INFORMATION_SCHEMA.TABLES WHERE table_type='BASE TABLE' and table_schema=?",
-                schema);
-
         List<String> statements = new ArrayList<String>();
-        for (String tableName : tableNames) {
+        for (String tableName : listTables(schema)) {
             statements.add("DROP TABLE [" + schema + "].[" + tableName + "]");
         }
         return statements;
     }
 
+    /**
+     * Lists the tables in this schema.
+     *
+     * @param schema The schema to list the tables of.
+     * @return The names of the tables.
+     * @throws SQLException when the tables could not be listed.
+     */
+    private List<String> listTables(String schema) throws SQLException {
+        return jdbcTemplate.queryForStringList(
+                "SELECT table_name FROM INFORMATION_SCHEMA.TABLES WHERE table_type='BASE TABLE' and table_schema=?",
+                schema);
+    }
+
     /**
      * Cleans the foreign keys in this schema.
      *
@@ -141,13 +216,23 @@ public class SQLServerDbSupport extends DbSupport {
 
         List<String> statements = new ArrayList<String>();
         for (Map<String, String> row : constraintNames) {
-            String tableName = row.get("table_name");
-            String constraintName = row.get("constraint_name");
-            statements.add("ALTER TABLE [" + schema + "].[" + tableName + "] DROP CONSTRAINT [" + constraintName + "]");
+            statements.add(generateDropStatementForForeignKey(schema, row));
         }
         return statements;
     }
 
+    /**
+     * Generates the statement for dropping this foreign key.
+     *
+     * @param schema     The schema of the foreign key.
+     * @param foreignKey The foreign key, as a row with table_name and constraint_name.
+     * @return The drop statement.
+     */
+    private String generateDropStatementForForeignKey(String schema, Map<String, String> foreignKey) {
+        return "ALTER TABLE [" + schema + "].[" + foreignKey.get("table_name") + "] DROP CONSTRAINT ["
+                + foreignKey.get("constraint_name") + "]";
+    }
+
     /**
      * Cleans the routines in this schema.
      *
@@ -156,21 +241,37 @@ public class SQLServerDbSupport extends DbSupport {
      * @throws SQLException when the clean statements could not be generated.
      */
     private List<String> cleanRoutines(String schema) throws SQLException {
-        @SuppressWarnings({"unchecked"})
-        List<Map<String, String>> routineNames =
-                jdbcTemplate.queryForList("SELECT routine_name, routine_type FROM INFORMATION_SCHEMA.ROUTINES" +
-                        " WHERE routine_schema=?",
-                        schema);
-
         List<String> statements = new ArrayList<String>();
-        for (Map<String, String> row : routineNames) {
-            String routineName = row.get("routine_name");
-            String routineType = row.get("routine_type");
-            statements.add("DROP " + routineType + " [" + schema + "].[" + routineName + "]");
+        for (Map<String, String> row : listRoutines(schema)) {
+            statements.add(generateDropStatementForRoutine(schema, row));
         }
         return statements;
     }
 
+    /**
+     * Lists the routines in this schema.
+     *
+     * @param schema The schema to list the routines of.
+     * @return The routines, as rows with routine_name and routine_type.
+     * @throws SQLException when the routines could not be listed.
+     */
+    private List<Map<String, String>> listRoutines(String schema) throws SQLException {
+        return jdbcTemplate.queryForList("SELECT routine_name, routine_type FROM INFORMATION_SCHEMA.ROUTINES" +
+                " WHERE routine_schema=?",
+                schema);
+    }
+
+    /**
+     * Generates the statement for dropping this routine.
+     *
+     * @param schema  The schema of the routine.
+     * @param routine The routine, as a row with routine_name and routine_type.
+     * @return The drop statement.
+     */
+    private String generateDropStatementForRoutine(String schema, Map<String, String> routine) {
+        return "DROP " + routine.get("routine_type") + " [" + schema + "].[" + routine.get("routine_name") + "]";
+    }
+
     /**
      * Cleans the views in this schema.
      *
@@ -179,17 +280,25 @@ public class SQLServerDbSupport extends DbSupport {
      * @throws SQLException when the clean statements could not be generated.
      */
     private List<String> cleanViews(String schema) throws SQLException {
-        List<String> viewNames =
-                jdbcTemplate.queryForStringList("SELECT table_name FROM INFORMATION_SCHEMA.VIEWS WHERE table_schema=?",
-                        schema);
-
         List<String> statements = new ArrayList<String>();
-        for (String viewName : viewNames) {
+        for (String viewName : listViews(schema)) {
             statements.add("DROP VIEW [" + schema + "].[" + viewName + "]");
         }
         return statements;
     }
 
+    /**
+     * Lists the views in this schema.
+     *
+     * @param schema The schema to list the views of.
+     * @return The names of the views.
+     * @throws SQLException when the views could not be listed.
+     */
+    private List<String> listViews(String schema) throws SQLException {
+        return jdbcTemplate.queryForStringList("SELECT table_name FROM INFORMATION_SCHEMA.VIEWS WHERE table_schema=?",
+                schema);
+    }
+
     /**
      * Cleans the types in this schema.
      *
@@ -198,16 +307,24 @@ public class SQLServerDbSupport extends DbSupport {
      * @throws SQLException when the clean statements could not be generated.
      */
     private List<String> cleanTypes(String schema) throws SQLException {
-        List<String> typeNames =
-                jdbcTemplate.queryForStringList(
-                        "SELECT t.name FROM sys.types t INNER JOIN sys.schemas s ON t.schema_id = s.schema_id" +
-                                " WHERE t.is_user_defined = 1 AND s.name = ?",
-                        schema);
-
         List<String> statements = new ArrayList<String>();
-        for (String typeName : typeNames) {
+        for (String typeName : listTypes(schema)) {
             statements.add("DROP TYPE [" + schema + "].[" + typeName + "]");
         }
         return statements;
     }
+
+    /**
+     * Lists the user-defined types in this schema.
+     *
+     * @param schema The schema to list the types of.
+     * @return The names of the types.
+     * @throws SQLException when the types could not be listed.
+     */
+    private List<String> listTypes(String schema) throws SQLException {
+        return jdbcTemplate.queryForStringList(
+                "SELECT t.name FROM sys.types t INNER JOIN sys.schemas s ON t.schema_id = s.schema_id" +
+                        " WHERE t.is_user_defined = 1 AND s.name = ?",
+                schema);
+    }
 }
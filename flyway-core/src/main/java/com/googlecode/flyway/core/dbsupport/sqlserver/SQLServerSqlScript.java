@@ -18,6 +18,8 @@ package com.googlecode.flyway.core.dbsupport.sqlserver;
 import com.googlecode.flyway.core.migration.sql.PlaceholderReplacer;
 import com.googlecode.flyway.core.migration.sql.SqlScript;
 
+import java.io.Reader;
+
 /**
  * SqlScript supporting MSSQL-specific delimiter changes.
  */
@@ -36,6 +38,16 @@ public class SQLServerSqlScript extends SqlScript {
         super(sqlScriptSource, placeholderReplacer);
     }
 
+    /**
+     * Creates a new streaming sql script reading its source from this reader, with these placeholders to replace.
+     *
+     * @param sqlScriptReader     The reader for the sql script with all placeholders still present.
+     * @param placeholderReplacer The placeholder replacer to apply to sql migration scripts.
+     */
+    public SQLServerSqlScript(Reader sqlScriptReader, PlaceholderReplacer placeholderReplacer) {
+        super(sqlScriptReader, placeholderReplacer);
+    }
+
     @Override
     protected String changeDelimiterIfNecessary(String statement, String line, String delimiter) {
         return DELIMITER;
@@ -34,14 +34,20 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 /**
  * Supports reading and writing to the metadata table.
+ * <p/>
+ * The content of the metadata table is read with a single query the first time it is needed, and then kept in memory
+ * as a snapshot indexed by version. Rows inserted through this instance are added to the snapshot as well. As a new
+ * instance is created for every Flyway command, the snapshot never outlives the command. Acquiring the lock discards it,
+ * so that the state read under the lock is always fresh.
  */
 public class MetaDataTable {
     /**
@@ -74,6 +80,22 @@ public class MetaDataTable {
      */
     private final JdbcTemplate jdbcTemplate;
 
+    /**
+     * Whether the metadata table exists. {@code null} if this hasn't been checked yet.
+     */
+    private Boolean exists;
+
+    /**
+     * The snapshot of the applied migrations, indexed by version. {@code null} if it hasn't been loaded yet.
+     */
+    private SortedMap<SchemaVersion, MetaDataTableRow> appliedMigrations;
+
+    /**
+     * The latest migration applied on the schema, as read in the snapshot. {@code null} if no migration has been
+     * applied so far.
+     */
+    private MetaDataTableRow latestAppliedMigration;
+
     /**
      * Creates a new instance of the metadata table support.
      *
@@ -96,8 +118,13 @@ public class MetaDataTable {
      * @return {@code true} if the table exists, {@code false} if it doesn't.
      */
     private boolean exists() {
+        if (exists != null) {
+            return exists;
+        }
+
         try {
-            return dbSupport.tableExists(schema, table);
+            exists = dbSupport.tableExists(schema, table);
+            return exists;
         } catch (SQLException e) {
             throw new FlywayException("Error checking whether table '" + table + "' exists in schema '" + schema + "'",
                     e);
@@ -116,7 +143,7 @@ public class MetaDataTable {
         placeholders.put("table", table);
         final PlaceholderReplacer placeholderReplacer = new PlaceholderReplacer(placeholders, "${", "}");
 
-        new TransactionTemplate(connection).execute(new TransactionCallback<Void>() {
+        new TransactionTemplate(connection, jdbcTemplate).execute(new TransactionCallback<Void>() {
             public Void doInTransaction() {
                 SqlScript sqlScript = new SqlScript(createMetaDataTableScriptSource, placeholderReplacer);
                 sqlScript.execute(jdbcTemplate);
@@ -124,6 +151,10 @@ public class MetaDataTable {
             }
         });
 
+        exists = true;
+        appliedMigrations = new TreeMap<SchemaVersion, MetaDataTableRow>();
+        latestAppliedMigration = null;
+
         LOG.info("Metadata table created: " + table + " (Schema: " + schema + ")");
     }
 
@@ -138,6 +169,8 @@ public class MetaDataTable {
 
     /**
      * Acquires an exclusive read-write lock on the metadata table. This lock will be released automatically on commit.
+     * <p/>
+     * The snapshot is discarded, as others may have changed the metadata table before the lock was granted.
      */
     public void lock() {
         try {
@@ -145,6 +178,18 @@ public class MetaDataTable {
         } catch (SQLException e) {
             throw new FlywayException("Unable to lock metadata table '" + table + "' in schema '" + schema + "'", e);
         }
+        appliedMigrations = null;
+        latestAppliedMigration = null;
+    }
+
+    /**
+     * Discards everything known about the metadata table, including whether it exists. To be called after the schema
+     * has been changed outside of this class, for example after a clean.
+     */
+    public void clearCache() {
+        exists = null;
+        appliedMigrations = null;
+        latestAppliedMigration = null;
     }
 
     /**
@@ -167,6 +212,11 @@ public class MetaDataTable {
                     + " VALUES (?, ?, ?, ?, ?, " + dbSupport.getCurrentUserFunction() + ", ?, ?, "
                     + dbSupport.getBooleanTrue() + ")",
                     version, description, migrationType, scriptName, checksum, executionTime, state);
+
+            if (appliedMigrations != null) {
+                appliedMigrations.put(metaDataTableRow.getVersion(), metaDataTableRow);
+                latestAppliedMigration = metaDataTableRow;
+            }
         } catch (SQLException e) {
             throw new FlywayException(
                     "Unable to insert metadata table row for version " + metaDataTableRow.getVersion().toString(), e);
@@ -174,41 +224,40 @@ public class MetaDataTable {
     }
 
     /**
-     * Checks whether the metadata table contains at least one row.
-     *
-     * @return {@code true} if the metadata table has at least one row. {@code false} if it is empty or it doesn't exist
-     *         yet.
+     * Loads the snapshot of the metadata table, unless it has already been loaded.
      */
-    private boolean hasRows() {
-        if (!exists()) {
-            return false;
+    private void loadSnapshot() {
+        if (appliedMigrations != null) {
+            return;
         }
 
-        try {
-            return jdbcTemplate.queryForInt("SELECT COUNT(*) FROM " + schema + "." + table) > 0;
-        } catch (SQLException e) {
-            throw new FlywayException("Error checking if the metadata table has at least one row", e);
+        SortedMap<SchemaVersion, MetaDataTableRow> rows = new TreeMap<SchemaVersion, MetaDataTableRow>();
+        MetaDataTableRow currentRow = null;
+        if (exists()) {
+            SnapshotRowMapper snapshotRowMapper = new SnapshotRowMapper();
+            try {
+                for (MetaDataTableRow metaDataTableRow : jdbcTemplate.query(getSelectStatement(), snapshotRowMapper)) {
+                    rows.put(metaDataTableRow.getVersion(), metaDataTableRow);
+                }
+            } catch (SQLException e) {
+                throw new FlywayException("Error while retrieving the list of applied migrations", e);
+            }
+            currentRow = snapshotRowMapper.currentRow;
+            if (!rows.isEmpty() && (currentRow == null)) {
+                throw new FlywayException("Cannot determine latest applied migration. Was the metadata table manually modified?");
+            }
         }
+
+        appliedMigrations = rows;
+        latestAppliedMigration = currentRow;
     }
 
     /**
      * @return The latest migration applied on the schema. {@code null} if no migration has been applied so far.
      */
     public MetaDataTableRow latestAppliedMigration() {
-        if (!hasRows()) {
-            return null;
-        }
-
-        String query = getSelectStatement() + " where current_version=" + dbSupport.getBooleanTrue();
-        try {
-            final List<MetaDataTableRow> metaDataTableRows = jdbcTemplate.query(query, new MetaDataTableRowMapper());
-            if (metaDataTableRows.isEmpty()) {
-                throw new FlywayException("Cannot determine latest applied migration. Was the metadata table manually modified?");
-            }
-            return metaDataTableRows.get(0);
-        } catch (SQLException e) {
-            throw new FlywayException("Error determining latest applied migration", e);
-        }
+        loadSnapshot();
+        return latestAppliedMigration;
     }
 
     /**
@@ -216,26 +265,15 @@ public class MetaDataTable {
      *         applied so far.
      */
     public List<MetaDataTableRow> allAppliedMigrations() {
-        if (!exists()) {
-            return new ArrayList<MetaDataTableRow>();
-        }
-
-        String query = getSelectStatement();
-
-        try {
-            final List<MetaDataTableRow> metaDataTableRows = jdbcTemplate.query(query, new MetaDataTableRowMapper());
-            Collections.sort(metaDataTableRows);
-            return metaDataTableRows;
-        } catch (SQLException e) {
-            throw new FlywayException("Error while retrieving the list of applied migrations", e);
-        }
+        loadSnapshot();
+        return new ArrayList<MetaDataTableRow>(appliedMigrations.values());
     }
 
     /**
      * @return The select statement for reading the metadata table.
      */
     private String getSelectStatement() {
-        return "select version as VERSION, description as DESCRIPTION, type as TYPE, script as SCRIPT, checksum as CHECKSUM, installed_on as INSTALLED_ON, execution_time as EXECUTION_TIME, state as STATE from " + schema + "." + table;
+        return "select version as VERSION, description as DESCRIPTION, type as TYPE, script as SCRIPT, checksum as CHECKSUM, installed_on as INSTALLED_ON, execution_time as EXECUTION_TIME, state as STATE, current_version as CURRENT_VERSION from " + schema + "." + table;
     }
 
     /**
@@ -293,4 +331,23 @@ public class MetaDataTable {
             return new MetaDataTableRow(version, description, migrationType, script, checksum, installedOn, executionTime, migrationState);
         }
     }
+
+    /**
+     * Row mapper for the snapshot, which also notes the row flagged as current version while mapping.
+     */
+    private class SnapshotRowMapper extends MetaDataTableRowMapper {
+        /**
+         * The row flagged as current version. {@code null} if none has been mapped so far.
+         */
+        private MetaDataTableRow currentRow;
+
+        @Override
+        public MetaDataTableRow mapRow(final ResultSet rs) throws SQLException {
+            MetaDataTableRow metaDataTableRow = super.mapRow(rs);
+            if (rs.getBoolean("CURRENT_VERSION")) {
+                currentRow = metaDataTableRow;
+            }
+            return metaDataTableRow;
+        }
+    }
 }
@@ -22,9 +22,12 @@ import com.googlecode.flyway.core.migration.spring.SpringJdbcMigrationResolver;
 import com.googlecode.flyway.core.migration.sql.PlaceholderReplacer;
 import com.googlecode.flyway.core.migration.sql.SqlMigrationResolver;
 import com.googlecode.flyway.core.util.FeatureDetector;
+import com.googlecode.flyway.core.util.scanner.ClassPathScanner;
 import com.googlecode.flyway.core.validation.ValidationException;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Facility for retrieving and sorting the available migrations from the classpath through the various migration
@@ -52,29 +55,34 @@ public class CompositeMigrationResolver implements MigrationResolver {
     private final String encoding;
 
     /**
-     * The file name prefix for sql migrations.
+     * The maximum number of consecutive data manipulation statements to execute as a single batch. 0 for no batching.
      */
-    private final String sqlMigrationPrefix;
+    private final int batchSize;
 
     /**
-     * The file name suffix for sql migrations.
+     * The number of threads used to load and checksum the Sql migrations concurrently. 1 to resolve sequentially.
      */
-    private final String sqlMigrationSuffix;
+    private final int resolverThreads;
+
+    /**
+     * Whether to take the checksums of the Sql migrations from the up to date migration index of their classpath entry.
+     */
+    private final boolean indexedChecksums;
 
     /**
-     * A map of &lt;placeholder, replacementValue&gt; to apply to sql migration scripts.
+     * The file name prefix for sql migrations.
      */
-    private final Map<String, String> placeholders;
+    private final String sqlMigrationPrefix;
 
     /**
-     * The prefix of every placeholder.
+     * The file name suffix for sql migrations.
      */
-    private final String placeholderPrefix;
+    private final String sqlMigrationSuffix;
 
     /**
-     * The suffix of every placeholder.
+     * The placeholder replacer to apply to sql migration scripts.
      */
-    private final String placeholderSuffix;
+    private final PlaceholderReplacer placeholderReplacer;
 
     /**
      * The available migrations, sorted by version, newest first. An empty list is returned when no migrations can be
@@ -83,7 +91,8 @@ public class CompositeMigrationResolver implements MigrationResolver {
     private List<Migration> availableMigrations;
 
     /**
-     * Creates a new CompositeMigrationResolver.
+     * Creates a new CompositeMigrationResolver, whose Sql migrations execute their statements one by one and leave
+     * unknown placeholders untouched.
      *
      * @param locations          The locations where migrations are located.
      * @param basePackage        The base package where the Java migrations are located.
@@ -96,15 +105,73 @@ public class CompositeMigrationResolver implements MigrationResolver {
      * @param placeholderSuffix  The suffix of every placeholder.
      */
     public CompositeMigrationResolver(String[] locations, String basePackage, String baseDir, String encoding, String sqlMigrationPrefix, String sqlMigrationSuffix, Map<String, String> placeholders, String placeholderPrefix, String placeholderSuffix) {
+        this(locations, basePackage, baseDir, encoding, 0, sqlMigrationPrefix, sqlMigrationSuffix, new PlaceholderReplacer(placeholders, placeholderPrefix, placeholderSuffix));
+    }
+
+    /**
+     * Creates a new CompositeMigrationResolver.
+     *
+     * @param locations           The locations where migrations are located.
+     * @param basePackage         The base package where the Java migrations are located.
+     * @param baseDir             The base directory on the classpath where the Sql migrations are located.
+     * @param encoding            The encoding of Sql migrations.
+     * @param batchSize           The maximum number of consecutive data manipulation statements to execute as a single
+     *                            batch. 0 for no batching.
+     * @param sqlMigrationPrefix  The file name prefix for sql migrations.
+     * @param sqlMigrationSuffix  The file name suffix for sql migrations.
+     * @param placeholderReplacer The placeholder replacer to apply to sql migration scripts.
+     */
+    public CompositeMigrationResolver(String[] locations, String basePackage, String baseDir, String encoding, int batchSize, String sqlMigrationPrefix, String sqlMigrationSuffix, PlaceholderReplacer placeholderReplacer) {
+        this(locations, basePackage, baseDir, encoding, batchSize, 1, sqlMigrationPrefix, sqlMigrationSuffix, placeholderReplacer);
+    }
+
+    /**
+     * Creates a new CompositeMigrationResolver.
+     *
+     * @param locations           The locations where migrations are located.
+     * @param basePackage         The base package where the Java migrations are located.
+     * @param baseDir             The base directory on the classpath where the Sql migrations are located.
+     * @param encoding            The encoding of Sql migrations.
+     * @param batchSize           The maximum number of consecutive data manipulation statements to execute as a single
+     *                            batch. 0 for no batching.
+     * @param resolverThreads     The number of threads used to load and checksum the Sql migrations concurrently. 1 to
+     *                            resolve sequentially.
+     * @param sqlMigrationPrefix  The file name prefix for sql migrations.
+     * @param sqlMigrationSuffix  The file name suffix for sql migrations.
+     * @param placeholderReplacer The placeholder replacer to apply to sql migration scripts.
+     */
+    public CompositeMigrationResolver(String[] locations, String basePackage, String baseDir, String encoding, int batchSize, int resolverThreads, String sqlMigrationPrefix, String sqlMigrationSuffix, PlaceholderReplacer placeholderReplacer) {
+        this(locations, basePackage, baseDir, encoding, batchSize, resolverThreads, false, sqlMigrationPrefix, sqlMigrationSuffix, placeholderReplacer);
+    }
+
+    /**
+     * Creates a new CompositeMigrationResolver.
+     *
+     * @param locations           The locations where migrations are located.
+     * @param basePackage         The base package where the Java migrations are located.
+     * @param baseDir             The base directory on the classpath where the Sql migrations are located.
+     * @param encoding            The encoding of Sql migrations.
+     * @param batchSize           The maximum number of consecutive data manipulation statements to execute as a single
+     *                            batch. 0 for no batching.
+     * @param resolverThreads     The number of threads used to load and checksum the Sql migrations concurrently. 1 to
+     *                            resolve sequentially.
+     * @param indexedChecksums    Whether to take the checksums of the Sql migrations from the up to date migration index
+     *                            of their classpath entry.
+     * @param sqlMigrationPrefix  The file name prefix for sql migrations.
+     * @param sqlMigrationSuffix  The file name suffix for sql migrations.
+     * @param placeholderReplacer The placeholder replacer to apply to sql migration scripts.
+     */
+    public CompositeMigrationResolver(String[] locations, String basePackage, String baseDir, String encoding, int batchSize, int resolverThreads, boolean indexedChecksums, String sqlMigrationPrefix, String sqlMigrationSuffix, PlaceholderReplacer placeholderReplacer) {
         this.locations = locations;
         this.basePackage = basePackage;
         this.baseDir = baseDir;
         this.encoding = encoding;
+        this.batchSize = batchSize;
+        this.resolverThreads = resolverThreads;
+        this.indexedChecksums = indexedChecksums;
         this.sqlMigrationPrefix = sqlMigrationPrefix;
         this.sqlMigrationSuffix = sqlMigrationSuffix;
-        this.placeholders = placeholders;
-        this.placeholderPrefix = placeholderPrefix;
-        this.placeholderSuffix = placeholderSuffix;
+        this.placeholderReplacer = placeholderReplacer;
     }
 
     /**
@@ -122,6 +189,18 @@ public class CompositeMigrationResolver implements MigrationResolver {
         return availableMigrations;
     }
 
+    /**
+     * @return All the locations on the classpath scanned for migrations, including the legacy base directory and base
+     *         package.
+     */
+    public Set<String> getLocations() {
+        Set<String> allLocations = new LinkedHashSet<String>();
+        allLocations.add(baseDir);
+        allLocations.add(basePackage);
+        allLocations.addAll(Arrays.asList(locations));
+        return allLocations;
+    }
+
     /**
      * Finds all available migrations using all migration resolvers (sql, java, ...).
      *
@@ -130,30 +209,39 @@ public class CompositeMigrationResolver implements MigrationResolver {
      * @throws FlywayException when the available migrations have overlapping versions.
      */
     private List<Migration> doFindAvailableMigrations() throws FlywayException {
-        PlaceholderReplacer placeholderReplacer = new PlaceholderReplacer(placeholders, placeholderPrefix, placeholderSuffix);
-
         Collection<MigrationResolver> migrationResolvers = new ArrayList<MigrationResolver>();
 
-        //legacy locations
-        migrationResolvers.add(new SqlMigrationResolver(baseDir, placeholderReplacer, encoding, sqlMigrationPrefix, sqlMigrationSuffix));
-        migrationResolvers.add(new JdbcMigrationResolver(basePackage));
-        if (FeatureDetector.isSpringJdbcAvailable()) {
-            migrationResolvers.add(new SpringJdbcMigrationResolver(basePackage));
-            migrationResolvers.add(new JavaMigrationResolver(basePackage));
+        // A single scanner for all resolvers, so every location is scanned only once, whatever the number of resolvers
+        ClassPathScanner classPathScanner = new ClassPathScanner();
+        Set<String> sqlLocations = new HashSet<String>();
+        Set<String> javaLocations = new HashSet<String>();
+
+        // A single bounded pool for all sql locations, only alive for the duration of the resolution
+        ExecutorService executorService = null;
+        if (resolverThreads > 1) {
+            executorService = Executors.newFixedThreadPool(resolverThreads);
         }
 
-        //new locations
-        for (String location : locations) {
-            migrationResolvers.add(new SqlMigrationResolver(location, placeholderReplacer, encoding, sqlMigrationPrefix, sqlMigrationSuffix));
-            migrationResolvers.add(new JdbcMigrationResolver(location));
+        Collection<Migration> resolvedMigrations;
+        try {
+            //legacy locations
+            addSqlMigrationResolver(migrationResolvers, sqlLocations, baseDir, classPathScanner, executorService);
+            addJavaMigrationResolvers(migrationResolvers, javaLocations, basePackage, classPathScanner);
 
-            if (FeatureDetector.isSpringJdbcAvailable()) {
-                migrationResolvers.add(new SpringJdbcMigrationResolver(location));
-                migrationResolvers.add(new JavaMigrationResolver(location));
+            //new locations
+            for (String location : locations) {
+                addSqlMigrationResolver(migrationResolvers, sqlLocations, location, classPathScanner, executorService);
+                addJavaMigrationResolvers(migrationResolvers, javaLocations, location, classPathScanner);
+            }
+
+            resolvedMigrations = collectMigrations(migrationResolvers);
+        } finally {
+            if (executorService != null) {
+                executorService.shutdownNow();
             }
         }
 
-        List<Migration> migrations = new ArrayList<Migration>(collectMigrations(migrationResolvers));
+        List<Migration> migrations = new ArrayList<Migration>(resolvedMigrations);
         Collections.sort(migrations);
         Collections.reverse(migrations);
 
@@ -162,6 +250,43 @@ public class CompositeMigrationResolver implements MigrationResolver {
         return migrations;
     }
 
+    /**
+     * Adds the resolver for the sql migrations at this location, unless this location already has one.
+     *
+     * @param migrationResolvers The resolvers to add to.
+     * @param sqlLocations       The normalized locations that already have a sql migration resolver.
+     * @param location           The location on the classpath.
+     * @param classPathScanner   The scanner shared by all resolvers.
+     * @param executorService    The executor to load and checksum the sql migrations on. {@code null} to do it
+     *                           sequentially.
+     */
+    private void addSqlMigrationResolver(Collection<MigrationResolver> migrationResolvers, Set<String> sqlLocations,
+                                         String location, ClassPathScanner classPathScanner,
+                                         ExecutorService executorService) {
+        if (sqlLocations.add(ClassPathScanner.normalizeLocation(location))) {
+            migrationResolvers.add(new SqlMigrationResolver(location, placeholderReplacer, encoding, batchSize, sqlMigrationPrefix, sqlMigrationSuffix, classPathScanner, executorService, indexedChecksums));
+        }
+    }
+
+    /**
+     * Adds the resolvers for the java migrations at this location, unless this location already has them.
+     *
+     * @param migrationResolvers The resolvers to add to.
+     * @param javaLocations      The normalized locations that already have java migration resolvers.
+     * @param location           The location on the classpath.
+     * @param classPathScanner   The scanner shared by all resolvers.
+     */
+    private void addJavaMigrationResolvers(Collection<MigrationResolver> migrationResolvers, Set<String> javaLocations,
+                                           String location, ClassPathScanner classPathScanner) {
+        if (javaLocations.add(ClassPathScanner.normalizeLocation(location))) {
+            migrationResolvers.add(new JdbcMigrationResolver(location, classPathScanner));
+            if (FeatureDetector.isSpringJdbcAvailable()) {
+                migrationResolvers.add(new SpringJdbcMigrationResolver(location, classPathScanner));
+                migrationResolvers.add(new JavaMigrationResolver(location, classPathScanner));
+            }
+        }
+    }
+
     /**
      * Collects all the migrations for all migration resolvers.
      *
@@ -32,6 +32,8 @@ import org.apache.commons.logging.LogFactory;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -97,6 +99,12 @@ public class DbMigrator {
 
     /**
      * Starts the actual migration.
+     * <p/>
+     * The metadata table is locked and read once to compute the pending migrations. Each pending migration is then
+     * applied under a fresh lock, and its row is committed as soon as the migration itself has been committed. A run
+     * that fails or is interrupted therefore keeps the history of the migrations it applied before. Under each lock the
+     * latest row is read again, and the pending migrations are computed again if another run applied migrations in the
+     * meantime.
      *
      * @param migrations The available migrations.
      * @return The number of successfully applied migrations.
@@ -106,60 +114,54 @@ public class DbMigrator {
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
 
+        TransactionTemplate transactionTemplate = new TransactionTemplate(connection, dbSupport.getJdbcTemplate());
+
         int migrationSuccessCount = 0;
         try {
-            while (true) {
-                final boolean firstRun = migrationSuccessCount == 0;
-                MetaDataTableRow metaDataTableRow =
-                        new TransactionTemplate(connection).execute(new TransactionCallback<MetaDataTableRow>() {
+            boolean firstRun = true;
+            boolean planOutdated = true;
+            while (planOutdated) {
+                MetaDataTableRow latestAppliedMigration =
+                        transactionTemplate.execute(new TransactionCallback<MetaDataTableRow>() {
                             public MetaDataTableRow doInTransaction() {
                                 metaDataTable.lock();
-
-                                SchemaVersion currentSchemaVersion = metaDataTable.getCurrentSchemaVersion();
-                                if (firstRun) {
-                                    LOG.info("Current schema version: " + currentSchemaVersion);
-                                }
-
-                                SchemaVersion latestAvailableMigrationVersion = migrations.get(0).getVersion();
-                                boolean isFutureMigration = latestAvailableMigrationVersion.compareTo(currentSchemaVersion) < 0;
-                                if (isFutureMigration) {
-                                    LOG.warn("Database version (" + currentSchemaVersion + ") is newer than the latest available migration ("
-                                            + latestAvailableMigrationVersion + ") !");
-                                }
-
-                                MigrationState currentSchemaState = metaDataTable.getCurrentSchemaState();
-                                if (currentSchemaState == MigrationState.FAILED) {
-                                    if (isFutureMigration && ignoreFailedFutureMigration) {
-                                        LOG.warn("Detected failed migration to version " + currentSchemaVersion + " !");
-                                    } else {
-                                        throw new MigrationException(currentSchemaVersion, false);
-                                    }
-                                }
-
-                                if (isFutureMigration) {
-                                    return null;
-                                }
-
-                                Migration migration = getNextMigration(migrations, currentSchemaVersion);
-                                if (migration == null) {
-                                    // No further migrations available
-                                    return null;
-                                }
-
-                                return applyMigration(migration);
+                                return metaDataTable.latestAppliedMigration();
                             }
                         });
 
-                if (metaDataTableRow == null) {
-                    // No further migrations available
-                    break;
+                SchemaVersion currentSchemaVersion = SchemaVersion.EMPTY;
+                if (latestAppliedMigration != null) {
+                    currentSchemaVersion = latestAppliedMigration.getVersion();
                 }
-
-                if (MigrationState.FAILED == metaDataTableRow.getState()) {
-                    throw new MigrationException(metaDataTableRow.getVersion(), false);
+                if (firstRun) {
+                    LOG.info("Current schema version: " + currentSchemaVersion);
+                    firstRun = false;
                 }
 
-                migrationSuccessCount++;
+                planOutdated = false;
+                for (final Migration migration : planMigrations(migrations, latestAppliedMigration)) {
+                    final SchemaVersion expectedSchemaVersion = currentSchemaVersion;
+                    MetaDataTableRow metaDataTableRow = transactionTemplate.execute(new TransactionCallback<MetaDataTableRow>() {
+                        public MetaDataTableRow doInTransaction() {
+                            metaDataTable.lock();
+                            if (!isLatestAppliedMigration(metaDataTable.latestAppliedMigration(), expectedSchemaVersion)) {
+                                return null;
+                            }
+                            return applyMigration(migration);
+                        }
+                    });
+
+                    if (metaDataTableRow == null) {
+                        LOG.info("Schema has been migrated concurrently. Computing pending migrations again.");
+                        planOutdated = true;
+                        break;
+                    }
+                    if (MigrationState.FAILED == metaDataTableRow.getState()) {
+                        throw new MigrationException(metaDataTableRow.getVersion(), dbSupport.supportsDdlTransactions());
+                    }
+                    migrationSuccessCount++;
+                    currentSchemaVersion = migration.getVersion();
+                }
             }
         } catch (TransactionException e) {
             throw new FlywayException("Migration failed !", e);
@@ -171,6 +173,58 @@ public class DbMigrator {
         return migrationSuccessCount;
     }
 
+    /**
+     * Computes the migrations to apply on top of this latest applied migration.
+     *
+     * @param migrations             The available migrations.
+     * @param latestAppliedMigration The latest migration applied to the database. {@code null} if there is none.
+     * @return The pending migrations, oldest first.
+     * @throws MigrationException when the latest applied migration failed.
+     */
+    private List<Migration> planMigrations(List<Migration> migrations, MetaDataTableRow latestAppliedMigration) {
+        SchemaVersion currentSchemaVersion = SchemaVersion.EMPTY;
+        MigrationState currentSchemaState = MigrationState.SUCCESS;
+        if (latestAppliedMigration != null) {
+            currentSchemaVersion = latestAppliedMigration.getVersion();
+            currentSchemaState = latestAppliedMigration.getState();
+        }
+
+        SchemaVersion latestAvailableMigrationVersion = migrations.get(0).getVersion();
+        boolean isFutureMigration = latestAvailableMigrationVersion.compareTo(currentSchemaVersion) < 0;
+        if (isFutureMigration) {
+            LOG.warn("Database version (" + currentSchemaVersion + ") is newer than the latest available migration ("
+                    + latestAvailableMigrationVersion + ") !");
+        }
+
+        if (currentSchemaState == MigrationState.FAILED) {
+            if (isFutureMigration && ignoreFailedFutureMigration) {
+                LOG.warn("Detected failed migration to version " + currentSchemaVersion + " !");
+            } else {
+                throw new MigrationException(currentSchemaVersion, false);
+            }
+        }
+
+        if (isFutureMigration) {
+            return new ArrayList<Migration>();
+        }
+        return getPendingMigrations(migrations, currentSchemaVersion);
+    }
+
+    /**
+     * Checks whether this row read from the metadata table is still the one the pending migrations were computed for.
+     *
+     * @param latestAppliedMigration The latest migration applied to the database. {@code null} if there is none.
+     * @param expectedSchemaVersion  The schema version the pending migrations were computed for.
+     * @return {@code true} if it is, {@code false} if another run migrated the schema in the meantime.
+     */
+    private boolean isLatestAppliedMigration(MetaDataTableRow latestAppliedMigration, SchemaVersion expectedSchemaVersion) {
+        if (latestAppliedMigration == null) {
+            return SchemaVersion.EMPTY.equals(expectedSchemaVersion);
+        }
+        return latestAppliedMigration.getVersion().equals(expectedSchemaVersion)
+                && (MigrationState.SUCCESS == latestAppliedMigration.getState());
+    }
+
     /**
      * Logs the summary of this migration run.
      *
@@ -196,10 +250,10 @@ public class DbMigrator {
      * Applies this migration to the database. The migration state and the execution time are updated accordingly.
      *
      * @param migration The migration to apply.
-     * @return The row that was added to the metadata table.
-     * @throws MigrationException when the migration failed.
+     * @return The row for this migration. It has only been added to the metadata table if the migration succeeded,
+     *         or if it failed on a database that could not roll its changes back.
      */
-    private MetaDataTableRow applyMigration(final Migration migration) throws MigrationException {
+    private MetaDataTableRow applyMigration(final Migration migration) {
         MetaDataTableRow metaDataTableRow = new MetaDataTableRow(migration);
 
         LOG.info("Migrating to version " + migration.getVersion());
@@ -215,7 +269,7 @@ public class DbMigrator {
                     //No implementation needed
                 }
             };
-            new TransactionTemplate(connectionForMigrations).execute(new TransactionCallback<Void>() {
+            new TransactionTemplate(connectionForMigrations, jdbcTemplate).execute(new TransactionCallback<Void>() {
                 public Void doInTransaction() {
                     try {
                         migration.migrate(jdbcTemplate, dbSupport);
@@ -240,14 +294,15 @@ public class DbMigrator {
 
         stopWatch.stop();
         int executionTime = (int) stopWatch.getTotalTimeMillis();
+        metaDataTableRow.update(executionTime, state);
 
         if (MigrationState.FAILED.equals(state) && dbSupport.supportsDdlTransactions()) {
-            throw new MigrationException(migration.getVersion(), true);
+            // Changes rolled back. Nothing to record.
+            return metaDataTableRow;
         }
         LOG.debug(String.format("Finished migrating to version %s (execution time %s)",
                 migration.getVersion(), TimeFormat.format(executionTime)));
 
-        metaDataTableRow.update(executionTime, state);
         metaDataTable.insert(metaDataTableRow);
         LOG.debug("MetaData table successfully updated to reflect changes");
 
@@ -255,36 +310,31 @@ public class DbMigrator {
     }
 
     /**
-     * Returns the next migration to apply.
+     * Computes the list of migrations still to apply.
      *
-     * @param currentVersion The current version of the schema.
      * @param allMigrations  All available migrations, sorted by version, newest first.
-     * @return The next migration to apply.
+     * @param currentVersion The current version of the schema.
+     * @return The migrations to apply, oldest first. An empty list if there are none.
      */
-    private Migration getNextMigration(List<Migration> allMigrations, SchemaVersion currentVersion) {
+    private List<Migration> getPendingMigrations(List<Migration> allMigrations, SchemaVersion currentVersion) {
+        List<Migration> pendingMigrations = new ArrayList<Migration>();
+
         if (target.compareTo(currentVersion) < 0) {
             LOG.warn("Database version (" + currentVersion + ") is newer than the target version ("
                     + target + ") !");
-            return null;
+            return pendingMigrations;
         }
 
-        Migration nextMigration = null;
         for (Migration migration : allMigrations) {
-            if ((migration.getVersion().compareTo(currentVersion) > 0)) {
-                nextMigration = migration;
-            } else {
+            if ((migration.getVersion().compareTo(currentVersion) <= 0)) {
                 break;
             }
+            if (target.compareTo(migration.getVersion()) >= 0) {
+                pendingMigrations.add(migration);
+            }
         }
 
-        if (nextMigration == null) {
-            return null;
-        }
-
-        if (target.compareTo(nextMigration.getVersion()) < 0) {
-            return null;
-        }
-
-        return nextMigration;
+        Collections.reverse(pendingMigrations);
+        return pendingMigrations;
     }
 }
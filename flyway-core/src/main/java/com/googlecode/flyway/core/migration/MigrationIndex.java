@@ -0,0 +1,605 @@
+/**
+ * Copyright (C) 2010-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.migration;
+
+import com.googlecode.flyway.core.exception.FlywayException;
+import com.googlecode.flyway.core.metadatatable.MetaDataTableRow;
+import com.googlecode.flyway.core.migration.sql.SqlMigration;
+import com.googlecode.flyway.core.util.ClassPathResource;
+import com.googlecode.flyway.core.util.scanner.ClassPathScanner;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Index of the migrations available on the classpath, generated at build time.
+ * <p/>
+ * The index lists the classpath locations that were scanned, the names of all resources found there, and the version,
+ * type and checksum of every migration. The classpath scanner uses the resource names instead of walking directories
+ * and jar files. The fingerprint of the migrations can be compared with the fingerprint of the migrations applied to
+ * the database to find out whether the schema is up to date, without having to load any migration at all.
+ * <p/>
+ * Each classpath entry (directory or jar file) may contain its own index, covering the resources of that entry only.
+ * The resource names of an entry are only taken from its index when the index is up to date: always for jar files,
+ * and for directories as long as none of the indexed folders has been modified after the index. The migrations of the
+ * indexes of all classpath entries are merged for the fingerprint. The index is read once per classloader.
+ * <p/>
+ * The checksums of the sql migrations of an entry are also recorded by resource name. They are only trusted for the
+ * scripts of that same entry, and for directories only as long as the script has not been modified after the index.
+ */
+public class MigrationIndex {
+    /**
+     * Logger.
+     */
+    private static final Log LOG = LogFactory.getLog(MigrationIndex.class);
+
+    /**
+     * The location of the index on the classpath.
+     */
+    public static final String LOCATION = "META-INF/flyway/migrations.idx";
+
+    /**
+     * The encoding of the index.
+     */
+    private static final String ENCODING = "UTF-8";
+
+    /**
+     * The prefix of the lines of the index holding a scanned location.
+     */
+    private static final String LOCATION_PREFIX = "location:";
+
+    /**
+     * The prefix of the lines of the index holding a resource name.
+     */
+    private static final String RESOURCE_PREFIX = "resource:";
+
+    /**
+     * The prefix of the lines of the index holding a migration.
+     */
+    private static final String MIGRATION_PREFIX = "migration:";
+
+    /**
+     * The prefix of the lines of the index holding the checksum of a sql migration script.
+     */
+    private static final String CHECKSUM_PREFIX = "checksum:";
+
+    /**
+     * The separator between the fields of a migration line of the index.
+     */
+    private static final String SEPARATOR = ",";
+
+    /**
+     * The indexes loaded so far, per classloader. {@code null} values for classloaders without index.
+     */
+    private static final Map<ClassLoader, MigrationIndex> CACHE = new WeakHashMap<ClassLoader, MigrationIndex>();
+
+    /**
+     * The index files of the classpath entries.
+     */
+    private final List<IndexFile> indexFiles = new ArrayList<IndexFile>();
+
+    /**
+     * The migration lines of all index files, by version.
+     */
+    private final SortedMap<SchemaVersion, String> migrationLines = new TreeMap<SchemaVersion, String>();
+
+    /**
+     * Creates a new empty migration index.
+     */
+    /* private -> for testing */ MigrationIndex() {
+        // Nothing to do
+    }
+
+    /**
+     * Loads the migration index from the classpath of the context classloader, merging the index files of all
+     * classpath entries.
+     *
+     * @return The migration index, or {@code null} if there is none on the classpath.
+     * @throws FlywayException when the index could not be read.
+     */
+    public static MigrationIndex load() throws FlywayException {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        synchronized (CACHE) {
+            if (!CACHE.containsKey(classLoader)) {
+                CACHE.put(classLoader, doLoad(classLoader));
+            }
+            return CACHE.get(classLoader);
+        }
+    }
+
+    /**
+     * Forgets all indexes loaded so far, so they get read again on the next load.
+     */
+    public static void clearCache() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    /**
+     * Loads the migration index from the classpath of this classloader.
+     *
+     * @param classLoader The classloader to use.
+     * @return The migration index, or {@code null} if there is none on the classpath.
+     * @throws FlywayException when the index could not be read.
+     */
+    private static MigrationIndex doLoad(ClassLoader classLoader) throws FlywayException {
+        try {
+            Enumeration<URL> urls = classLoader.getResources(LOCATION);
+            if (!urls.hasMoreElements()) {
+                return null;
+            }
+
+            MigrationIndex migrationIndex = new MigrationIndex();
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                LOG.debug("Reading migration index: " + url);
+
+                String indexUrl = url.toExternalForm();
+                String rootUrl = indexUrl.substring(0, indexUrl.length() - LOCATION.length());
+                File rootDirectory = null;
+                long lastModified = 0;
+                if ("file".equals(url.getProtocol())) {
+                    File indexFile = toFile(url);
+                    rootDirectory = indexFile.getParentFile().getParentFile().getParentFile();
+                    lastModified = indexFile.lastModified();
+                }
+
+                Reader reader = new InputStreamReader(url.openStream(), ENCODING);
+                try {
+                    migrationIndex.merge(rootUrl, rootDirectory, lastModified, reader);
+                } finally {
+                    try {
+                        reader.close();
+                    } catch (IOException e) {
+                        //Ignore
+                    }
+                }
+            }
+            return migrationIndex;
+        } catch (IOException e) {
+            throw new FlywayException("Unable to read migration index: " + LOCATION, e);
+        }
+    }
+
+    /**
+     * Converts this file url to a file.
+     *
+     * @param url The file url.
+     * @return The file.
+     * @throws IOException when the url is not a valid file url.
+     */
+    private static File toFile(URL url) throws IOException {
+        try {
+            return new File(url.toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid file url: " + url);
+        }
+    }
+
+    /**
+     * Merges the index file of this classpath entry provided by this reader into this index.
+     *
+     * @param rootUrl       The url of the root of the classpath entry containing the index file, with a trailing slash.
+     * @param rootDirectory The root directory of the classpath entry on disk. {@code null} if it is not a directory.
+     * @param lastModified  The time the index file was last modified. Only relevant for directories.
+     * @param reader        The reader for the index file.
+     * @throws IOException when the index file could not be read.
+     */
+    /* private -> for testing */ void merge(String rootUrl, File rootDirectory, long lastModified, Reader reader)
+            throws IOException {
+        IndexFile indexFile = new IndexFile(rootUrl, rootDirectory, lastModified);
+
+        BufferedReader bufferedReader = new BufferedReader(reader);
+        String line;
+        while ((line = bufferedReader.readLine()) != null) {
+            line = line.trim();
+            if (line.startsWith(LOCATION_PREFIX)) {
+                indexFile.locations.add(line.substring(LOCATION_PREFIX.length()));
+            } else if (line.startsWith(RESOURCE_PREFIX)) {
+                indexFile.resourceNames.add(line.substring(RESOURCE_PREFIX.length()));
+            } else if (line.startsWith(MIGRATION_PREFIX)) {
+                String migrationLine = line.substring(MIGRATION_PREFIX.length());
+                SchemaVersion version = new SchemaVersion(migrationLine.substring(0, migrationLine.indexOf(SEPARATOR)));
+                migrationLines.put(version, migrationLine);
+            } else if (line.startsWith(CHECKSUM_PREFIX)) {
+                String checksumLine = line.substring(CHECKSUM_PREFIX.length());
+                int separator = checksumLine.lastIndexOf(SEPARATOR);
+                indexFile.checksums.put(checksumLine.substring(0, separator),
+                        Integer.valueOf(checksumLine.substring(separator + 1)));
+            }
+        }
+
+        indexFiles.add(indexFile);
+    }
+
+    /**
+     * Generates the index of the migrations of this resolver in this directory of compiled classes. Any existing index
+     * in that directory is deleted first, so the classpath gets scanned instead of being read from a stale index.
+     *
+     * @param migrationResolver The migration resolver to index the migrations of.
+     * @param outputDirectory   The directory of compiled classes in which to generate the index.
+     * @return The number of indexed migrations.
+     * @throws FlywayException when the index could not be generated.
+     */
+    public static int generate(CompositeMigrationResolver migrationResolver, File outputDirectory) throws FlywayException {
+        File file = new File(outputDirectory, LOCATION);
+        if (file.exists() && !file.delete()) {
+            throw new FlywayException("Unable to delete previous migration index: " + file);
+        }
+        clearCache();
+
+        ClassPathScanner classPathScanner = new ClassPathScanner();
+        Set<String> locations = new LinkedHashSet<String>();
+        SortedSet<String> allResourceNames = new TreeSet<String>();
+        for (String location : migrationResolver.getLocations()) {
+            String normalizedLocation = ClassPathScanner.normalizeLocation(location);
+            if (locations.add(normalizedLocation)) {
+                allResourceNames.addAll(classPathScanner.findAllResourceNames(normalizedLocation, outputDirectory));
+            }
+        }
+        List<Migration> migrations = migrationResolver.resolveMigrations();
+
+        File directory = file.getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new FlywayException("Unable to create directory for migration index: " + directory);
+        }
+
+        Writer writer = null;
+        try {
+            writer = new OutputStreamWriter(new FileOutputStream(file), ENCODING);
+            writer.write("# Flyway migration index. Generated at build time. Do not edit.\n");
+            for (String location : locations) {
+                writer.write(LOCATION_PREFIX + location + "\n");
+            }
+            for (String resourceName : allResourceNames) {
+                writer.write(RESOURCE_PREFIX + resourceName + "\n");
+            }
+            for (int i = migrations.size() - 1; i >= 0; i--) {
+                Migration migration = migrations.get(i);
+                writer.write(MIGRATION_PREFIX
+                        + toLine(migration.getVersion(), migration.getMigrationType(), migration.getChecksum()) + "\n");
+            }
+            for (Migration migration : migrations) {
+                if (migration instanceof SqlMigration) {
+                    // Only the scripts of this classpath entry, as only those are covered by this index
+                    String resourceName = ((SqlMigration) migration).getSqlScriptResource().getLocation();
+                    if (allResourceNames.contains(resourceName)) {
+                        writer.write(CHECKSUM_PREFIX + resourceName + SEPARATOR + migration.getChecksum() + "\n");
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new FlywayException("Unable to write migration index: " + file, e);
+        } finally {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    //Ignore
+                }
+            }
+        }
+        clearCache();
+
+        return migrations.size();
+    }
+
+    /**
+     * Retrieves the names of the resources at this location and below, provided every classpath entry containing this
+     * location has an up to date index covering it.
+     *
+     * @param normalizedLocation The normalized location on the classpath.
+     * @param locationUrls       The urls of the location in the various classpath entries.
+     * @return The resource names, or {@code null} if this index does not fully cover this location.
+     */
+    public Set<String> getResourceNames(String normalizedLocation, List<URL> locationUrls) {
+        SortedSet<String> resourceNames = new TreeSet<String>();
+        for (URL locationUrl : locationUrls) {
+            IndexFile indexFile = findIndexFile(locationUrl);
+            if ((indexFile == null) || !indexFile.covers(normalizedLocation, locationUrl)) {
+                return null;
+            }
+            resourceNames.addAll(indexFile.getResourceNames(normalizedLocation));
+        }
+        return Collections.unmodifiableSet(resourceNames);
+    }
+
+    /**
+     * Checks whether every classpath entry containing one of these locations has an index covering it, and none of the
+     * indexed resources has been modified since. Only then can the fingerprint of this index be trusted.
+     *
+     * @param locations The locations on the classpath where the migrations are located.
+     * @return {@code true} if this index is up to date for all these locations, {@code false} if it may be stale.
+     * @throws FlywayException when the classpath could not be searched for these locations.
+     */
+    public boolean isUpToDate(Collection<String> locations) throws FlywayException {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        for (String location : locations) {
+            String normalizedLocation = ClassPathScanner.normalizeLocation(location);
+            List<URL> locationUrls;
+            try {
+                locationUrls = Collections.list(classLoader.getResources(normalizedLocation));
+            } catch (IOException e) {
+                throw new FlywayException("Unable to search the classpath for location: " + location, e);
+            }
+
+            for (URL locationUrl : locationUrls) {
+                IndexFile indexFile = findIndexFile(locationUrl);
+                if ((indexFile == null) || !indexFile.covers(normalizedLocation, locationUrl)
+                        || indexFile.hasModifiedResources(normalizedLocation)) {
+                    LOG.debug("Migration index not up to date for location: " + locationUrl);
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the index file of the classpath entry this url belongs to.
+     *
+     * @param url The url of a resource or location.
+     * @return The index file, or {@code null} if the classpath entry has none.
+     */
+    private IndexFile findIndexFile(URL url) {
+        String externalForm = url.toExternalForm();
+        for (IndexFile indexFile : indexFiles) {
+            if (externalForm.startsWith(indexFile.rootUrl)) {
+                return indexFile;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves the checksum of this sql migration script, as computed when the index was generated. Only the index of
+     * the classpath entry containing the script is consulted.
+     *
+     * @param resource The resource of the sql migration script.
+     * @return The checksum, or {@code null} if the index of its classpath entry has no up to date checksum for it.
+     */
+    public Integer getChecksum(ClassPathResource resource) {
+        URL url = resource.getUrl();
+        if (url == null) {
+            return null;
+        }
+        IndexFile indexFile = findIndexFile(url);
+        if (indexFile == null) {
+            return null;
+        }
+        return indexFile.getChecksum(resource.getLocation());
+    }
+
+    /**
+     * Computes the fingerprint of the migrations in this index that are newer than this initial version and not newer
+     * than this target.
+     *
+     * @param initVersion The version the schema was initialized with. {@code null} if it wasn't.
+     * @param target      The target version up to which Flyway should run migrations.
+     * @return The fingerprint.
+     */
+    public long getFingerprint(SchemaVersion initVersion, SchemaVersion target) {
+        CRC32 crc32 = new CRC32();
+        for (Map.Entry<SchemaVersion, String> entry : migrationLines.entrySet()) {
+            SchemaVersion version = entry.getKey();
+            if (((initVersion == null) || (version.compareTo(initVersion) > 0)) && (target.compareTo(version) >= 0)) {
+                update(crc32, entry.getValue());
+            }
+        }
+        return crc32.getValue();
+    }
+    /**
+     * Computes the fingerprint of these migrations applied to the database, for comparison with the fingerprint of the
+     * index.
+     *
+     * @param appliedMigrations The applied migrations, oldest first, without the row of the initial version.
+     * @return The fingerprint.
+     */
+    public static long getFingerprint(List<MetaDataTableRow> appliedMigrations) {
+        CRC32 crc32 = new CRC32();
+        for (MetaDataTableRow appliedMigration : appliedMigrations) {
+            update(crc32,
+                    toLine(appliedMigration.getVersion(), appliedMigration.getMigrationType(), appliedMigration.getChecksum()));
+        }
+        return crc32.getValue();
+    }
+
+    /**
+     * Formats the line of the index for this migration.
+     *
+     * @param version       The version of the migration.
+     * @param migrationType The type of the migration.
+     * @param checksum      The checksum of the migration. {@code null} for none.
+     * @return The line.
+     */
+    private static String toLine(SchemaVersion version, MigrationType migrationType, Integer checksum) {
+        return version + SEPARATOR + migrationType.name() + SEPARATOR + ((checksum == null) ? "" : checksum.toString());
+    }
+
+    /**
+     * Adds this line to the fingerprint being computed.
+     *
+     * @param crc32 The fingerprint being computed.
+     * @param line  The line to add.
+     */
+    private static void update(CRC32 crc32, String line) {
+        try {
+            crc32.update(line.getBytes(ENCODING));
+        } catch (IOException e) {
+            throw new FlywayException("Unknown encoding: " + ENCODING, e);
+        }
+        crc32.update('\n');
+    }
+
+    /**
+     * The index file of a single classpath entry.
+     */
+    private static class IndexFile {
+        /**
+         * The url of the root of the classpath entry, with a trailing slash.
+         */
+        private final String rootUrl;
+
+        /**
+         * The root directory of the classpath entry on disk. {@code null} if it is not a directory, but a jar file.
+         */
+        private final File rootDirectory;
+
+        /**
+         * The time the index file was last modified. Only relevant for directories.
+         */
+        private final long lastModified;
+
+        /**
+         * The locations scanned when generating the index.
+         */
+        private final Set<String> locations = new LinkedHashSet<String>();
+
+        /**
+         * The names of all resources found in the scanned locations.
+         */
+        private final SortedSet<String> resourceNames = new TreeSet<String>();
+
+        /**
+         * The checksums of the sql migration scripts of this classpath entry, by resource name.
+         */
+        private final Map<String, Integer> checksums = new HashMap<String, Integer>();
+
+        /**
+         * Creates a new index file.
+         *
+         * @param rootUrl       The url of the root of the classpath entry, with a trailing slash.
+         * @param rootDirectory The root directory of the classpath entry on disk. {@code null} if it is not a
+         *                      directory.
+         * @param lastModified  The time the index file was last modified. Only relevant for directories.
+         */
+        IndexFile(String rootUrl, File rootDirectory, long lastModified) {
+            this.rootUrl = rootUrl;
+            this.rootDirectory = rootDirectory;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * Checks whether this index file covers this location of its classpath entry and is up to date for it.
+         *
+         * @param normalizedLocation The normalized location on the classpath.
+         * @param locationUrl        The url of the location in this classpath entry.
+         * @return {@code true} if its resource names can be used, {@code false} if the location must be scanned.
+         */
+        boolean covers(String normalizedLocation, URL locationUrl) {
+            String relativeUrl = locationUrl.toExternalForm().substring(rootUrl.length());
+            if (relativeUrl.endsWith("/")) {
+                relativeUrl = relativeUrl.substring(0, relativeUrl.length() - 1);
+            }
+            if (!relativeUrl.equals(normalizedLocation) || !locations.contains(normalizedLocation)) {
+                return false;
+            }
+            if (rootDirectory == null) {
+                // Jar files can not change without being rebuilt, including their index
+                return true;
+            }
+
+            // Adding or removing a file modifies its folder
+            Set<String> folders = new TreeSet<String>();
+            folders.add(normalizedLocation);
+            for (String resourceName : getResourceNames(normalizedLocation)) {
+                String folder = resourceName.substring(0, resourceName.lastIndexOf("/"));
+                while (folders.add(folder) && (folder.length() > normalizedLocation.length())) {
+                    folder = folder.substring(0, folder.lastIndexOf("/"));
+                }
+            }
+            for (String folder : folders) {
+                if (new File(rootDirectory, folder).lastModified() > lastModified) {
+                    LOG.debug("Ignoring outdated migration index for location: " + rootUrl + folder);
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Retrieves the names of the resources at this location and below.
+         *
+         * @param normalizedLocation The normalized location on the classpath.
+         * @return The resource names.
+         */
+        SortedSet<String> getResourceNames(String normalizedLocation) {
+            // '0' is the character following '/'
+            return resourceNames.subSet(normalizedLocation + "/", normalizedLocation + "0");
+        }
+
+        /**
+         * Checks whether any of the resources at this location and below has been modified after this index file.
+         *
+         * @param normalizedLocation The normalized location on the classpath.
+         * @return {@code true} if one of them has, {@code false} if none has or if this is a jar file.
+         */
+        boolean hasModifiedResources(String normalizedLocation) {
+            if (rootDirectory == null) {
+                return false;
+            }
+            for (String resourceName : getResourceNames(normalizedLocation)) {
+                if (new File(rootDirectory, resourceName).lastModified() > lastModified) {
+                    LOG.debug("Resource modified after the migration index: " + rootUrl + resourceName);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Retrieves the checksum of this sql migration script of this classpath entry.
+         *
+         * @param resourceName The name of the resource of the script.
+         * @return The checksum, or {@code null} if there is none or the script was modified after the index.
+         */
+        Integer getChecksum(String resourceName) {
+            Integer checksum = checksums.get(resourceName);
+            if ((checksum != null) && (rootDirectory != null)
+                    && (new File(rootDirectory, resourceName).lastModified() > lastModified)) {
+                LOG.debug("Ignoring outdated checksum in migration index for: " + rootUrl + resourceName);
+                return null;
+            }
+            return checksum;
+        }
+    }
+}
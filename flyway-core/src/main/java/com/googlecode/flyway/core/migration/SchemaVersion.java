@@ -19,6 +19,9 @@ import com.googlecode.flyway.core.util.StringUtils;
 
 /**
  * A version of a database schema.
+ * <p/>
+ * The version string is split into its elements once, on creation. Comparisons only work on the parsed elements and
+ * do not allocate, as versions get compared very often while sorting and selecting migrations.
  *
  * @author Axel Fontaine
  */
@@ -33,11 +36,37 @@ public final class SchemaVersion implements Comparable<SchemaVersion> {
      */
     public static final SchemaVersion LATEST = new SchemaVersion(Long.toString(Long.MAX_VALUE));
 
+    /**
+     * Marker in the numbers array for an element that is not a number.
+     */
+    private static final long NOT_NUMERIC = -1;
+
     /**
      * The printable version.
      */
     private final String version;
 
+    /**
+     * The individual elements this version string is composed of. Ex. 1.2.3.4.0 -> [1, 2, 3, 4, 0]
+     */
+    private final String[] elements;
+
+    /**
+     * The numeric value of each element. {@link #NOT_NUMERIC} for the elements that are not a number, which are then
+     * compared as strings.
+     */
+    private final long[] numbers;
+
+    /**
+     * The number of elements left after ignoring the trailing zeroes. Ex. 1.2.0.0 -> 2
+     */
+    private final int significantLength;
+
+    /**
+     * The hash code, consistent with {@link #equals(Object)}: trailing zeroes and leading zeroes are ignored.
+     */
+    private final int hashCode;
+
     /**
      * Creates a SchemaVersion using this version string.
      *
@@ -46,13 +75,54 @@ public final class SchemaVersion implements Comparable<SchemaVersion> {
      */
     public SchemaVersion(String version) {
         this.version = version;
+
+        if (version == null) {
+            elements = new String[0];
+        } else {
+            elements = StringUtils.tokenizeToStringArray(version, ".-");
+        }
+
+        numbers = new long[elements.length];
+        for (int i = 0; i < elements.length; i++) {
+            numbers[i] = parseNumber(elements[i]);
+        }
+
+        int length = elements.length;
+        while ((length > 0) && (numbers[length - 1] == 0)) {
+            length--;
+        }
+        significantLength = length;
+
+        int hash = 0;
+        for (int i = 0; i < significantLength; i++) {
+            long number = numbers[i];
+            int elementHash = (number == NOT_NUMERIC) ? elements[i].hashCode() : (int) (number ^ (number >>> 32));
+            hash = 31 * hash + elementHash;
+        }
+        hashCode = hash;
     }
 
     /**
-     * @return The individual elements this version string is composed of. Ex. 1.2.3.4.0 -> [1, 2, 3, 4, 0]
+     * Parses this version element as a number.
+     *
+     * @param element The element to parse.
+     * @return The numeric value, or {@link #NOT_NUMERIC} if the element is not a number.
      */
-    private String[] getElements() {
-        return StringUtils.tokenizeToStringArray(version, ".-");
+    private static long parseNumber(String element) {
+        int length = element.length();
+        if (length == 0) {
+            return NOT_NUMERIC;
+        }
+
+        long number = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = element.charAt(i) - '0';
+            if ((digit < 0) || (digit > 9) || (number > (Long.MAX_VALUE - digit) / 10)) {
+                return NOT_NUMERIC;
+            }
+            number = number * 10 + digit;
+        }
+        return number;
     }
 
     /**
@@ -74,7 +144,7 @@ public final class SchemaVersion implements Comparable<SchemaVersion> {
 
     @Override
     public int hashCode() {
-        return version.hashCode();
+        return hashCode;
     }
 
     public int compareTo(SchemaVersion o) {
@@ -97,48 +167,26 @@ public final class SchemaVersion implements Comparable<SchemaVersion> {
         if (o == LATEST) {
             return Integer.MIN_VALUE;
         }
-        final String[] elements1 = getElements();
-        final String[] elements2 = o.getElements();
-        int smallestNumberOfElements = Math.min(elements1.length, elements2.length);
+
+        int smallestNumberOfElements = Math.min(elements.length, o.elements.length);
         for (int i = 0; i < smallestNumberOfElements; i++) {
-            String element1 = elements1[i];
-            String element2 = elements2[i];
+            long number1 = numbers[i];
+            long number2 = o.numbers[i];
             final int compared;
-            if (StringUtils.isNumeric(element1) && StringUtils.isNumeric(element2)) {
-                compared = Long.valueOf(element1).compareTo(Long.valueOf(element2));
+            if ((number1 != NOT_NUMERIC) && (number2 != NOT_NUMERIC)) {
+                compared = (number1 < number2) ? -1 : ((number1 == number2) ? 0 : 1);
             } else {
-                compared = element1.compareTo(element2);
+                compared = elements[i].compareTo(o.elements[i]);
             }
             if (compared != 0) {
                 return compared;
             }
         }
 
-        final int lengthDifference = elements1.length - elements2.length;
-        if (lengthDifference > 0 && onlyTrailingZeroes(elements1, smallestNumberOfElements)) {
+        if (Math.max(significantLength, o.significantLength) <= smallestNumberOfElements) {
+            // Only trailing zeroes left in the longer version
             return 0;
         }
-        if (lengthDifference < 0 && onlyTrailingZeroes(elements2, smallestNumberOfElements)) {
-            return 0;
-        }
-        return lengthDifference;
-    }
-
-    /**
-     * Checks whether the elements at this position and beyond are only zeroes or not.
-     *
-     * @param elements The elements to check.
-     * @param position The position where to start checking.
-     *
-     * @return {@code true} if they are all zeroes, {@code false} if not.
-     */
-    private boolean onlyTrailingZeroes(String[] elements, int position) {
-        for (int i = position; i < elements.length; i++) {
-            String element = elements[i];
-            if (!StringUtils.isNumeric(element) || !Long.valueOf(element).equals(0L)) {
-                return false;
-            }
-        }
-        return true;
+        return elements.length - o.elements.length;
     }
 }
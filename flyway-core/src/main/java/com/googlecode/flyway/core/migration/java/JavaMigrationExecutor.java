@@ -20,6 +20,7 @@ import com.googlecode.flyway.core.exception.FlywayException;
 import com.googlecode.flyway.core.migration.Migration;
 import com.googlecode.flyway.core.migration.MigrationInfoHelper;
 import com.googlecode.flyway.core.migration.MigrationType;
+import com.googlecode.flyway.core.util.ClassUtils;
 import com.googlecode.flyway.core.util.jdbc.JdbcTemplate;
 import org.springframework.jdbc.datasource.SingleConnectionDataSource;
 
@@ -28,9 +29,9 @@ import org.springframework.jdbc.datasource.SingleConnectionDataSource;
  */
 public class JavaMigrationExecutor extends Migration {
     /**
-     * The JavaMigration to execute.
+     * The JavaMigration to execute. {@code null} until it is needed when only its class name is known.
      */
-    private final JavaMigration javaMigration;
+    private JavaMigration javaMigration;
 
     /**
      * Creates a new JavaMigrationExecutor.
@@ -60,6 +61,22 @@ public class JavaMigrationExecutor extends Migration {
         script = javaMigration.getClass().getName();
     }
 
+    /**
+     * Creates a new JavaMigrationExecutor for the JavaMigration with this class name. The version and description are
+     * taken from the class name. The class is only loaded and instantiated when the migration is executed.
+     *
+     * @param className The fully qualified name of the JavaMigration class. Must not implement the info or checksum
+     *                  provider interfaces.
+     */
+    public JavaMigrationExecutor(String className) {
+        String classShortName = className.substring(className.lastIndexOf(".") + 1);
+        String nameWithoutV = classShortName.substring(1);
+        schemaVersion = MigrationInfoHelper.extractSchemaVersion(nameWithoutV);
+        description = MigrationInfoHelper.extractDescription(nameWithoutV);
+
+        script = className;
+    }
+
     @Override
     public String getLocation() {
         return script;
@@ -73,6 +90,9 @@ public class JavaMigrationExecutor extends Migration {
     @Override
     public void migrate(JdbcTemplate jdbcTemplate, DbSupport dbSupport) {
         try {
+            if (javaMigration == null) {
+                javaMigration = ClassUtils.instantiate(script);
+            }
             javaMigration.migrate(new org.springframework.jdbc.core.JdbcTemplate(
                     new SingleConnectionDataSource(jdbcTemplate.getConnection(), true)));
         } catch (Exception e) {
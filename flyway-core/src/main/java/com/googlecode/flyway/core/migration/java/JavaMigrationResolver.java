@@ -34,23 +34,46 @@ public class JavaMigrationResolver implements MigrationResolver {
      */
     private final String basePackage;
 
+    /**
+     * The scanner to use to find the migration classes.
+     */
+    private final ClassPathScanner classPathScanner;
+
     /**
      * Creates a new instance.
      *
      * @param basePackage The base package on the classpath where to migrations are located.
      */
     public JavaMigrationResolver(String basePackage) {
+        this(basePackage, new ClassPathScanner());
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param basePackage      The base package on the classpath where to migrations are located.
+     * @param classPathScanner The scanner to use to find the migration classes. Shared with other resolvers to scan
+     *                         each location only once.
+     */
+    public JavaMigrationResolver(String basePackage, ClassPathScanner classPathScanner) {
         this.basePackage = basePackage;
+        this.classPathScanner = classPathScanner;
     }
 
     public List<Migration> resolveMigrations() {
         List<Migration> migrations = new ArrayList<Migration>();
 
         try {
-            Class<?>[] classes = new ClassPathScanner().scanForClasses(basePackage, JavaMigration.class);
-            for (Class<?> clazz : classes) {
-                JavaMigration javaMigration = (JavaMigration) ClassUtils.instantiate(clazz.getName());
-                migrations.add(new JavaMigrationExecutor(javaMigration));
+            String[] classNames = classPathScanner.scanForClassNames(basePackage, JavaMigration.class);
+            for (String className : classNames) {
+                if (classPathScanner.implementsInterface(className, JavaMigrationInfoProvider.class)
+                        || classPathScanner.implementsInterface(className, JavaMigrationChecksumProvider.class)) {
+                    // Only the migration itself knows its version and checksum
+                    JavaMigration javaMigration = (JavaMigration) ClassUtils.instantiate(className);
+                    migrations.add(new JavaMigrationExecutor(javaMigration));
+                } else {
+                    migrations.add(new JavaMigrationExecutor(className));
+                }
             }
         } catch (Exception e) {
             throw new FlywayException("Unable to resolve Java migrations in location: " + basePackage, e);
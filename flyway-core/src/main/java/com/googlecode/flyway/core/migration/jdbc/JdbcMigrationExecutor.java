@@ -24,6 +24,7 @@ import com.googlecode.flyway.core.migration.Migration;
 import com.googlecode.flyway.core.migration.MigrationInfoHelper;
 import com.googlecode.flyway.core.migration.MigrationType;
 import com.googlecode.flyway.core.migration.SchemaVersion;
+import com.googlecode.flyway.core.util.ClassUtils;
 import com.googlecode.flyway.core.util.jdbc.JdbcTemplate;
 
 /**
@@ -31,9 +32,9 @@ import com.googlecode.flyway.core.util.jdbc.JdbcTemplate;
  */
 public class JdbcMigrationExecutor extends Migration {
     /**
-     * The JdbcMigration to execute.
+     * The JdbcMigration to execute. {@code null} until it is needed when only its class name is known.
      */
-    private final JdbcMigration jdbcMigration;
+    private JdbcMigration jdbcMigration;
 
     /**
      * Creates a new JdbcMigrationExecutor.
@@ -63,6 +64,22 @@ public class JdbcMigrationExecutor extends Migration {
         script = jdbcMigration.getClass().getName();
     }
 
+    /**
+     * Creates a new JdbcMigrationExecutor for the JdbcMigration with this class name. The version and description are
+     * taken from the class name. The class is only loaded and instantiated when the migration is executed.
+     *
+     * @param className The fully qualified name of the JdbcMigration class. Must not implement the info or checksum
+     *                  provider interfaces.
+     */
+    public JdbcMigrationExecutor(String className) {
+        String classShortName = className.substring(className.lastIndexOf(".") + 1);
+        String nameWithoutV = classShortName.substring(1);
+        schemaVersion = MigrationInfoHelper.extractSchemaVersion(nameWithoutV);
+        description = MigrationInfoHelper.extractDescription(nameWithoutV);
+
+        script = className;
+    }
+
     @Override
     public String getLocation() {
         return script;
@@ -76,6 +93,9 @@ public class JdbcMigrationExecutor extends Migration {
     @Override
     public void migrate(JdbcTemplate jdbcTemplate, DbSupport dbSupport) {
         try {
+            if (jdbcMigration == null) {
+                jdbcMigration = ClassUtils.instantiate(script);
+            }
             jdbcMigration.migrate(jdbcTemplate.getConnection());
         } catch (Exception e) {
             throw new FlywayException("Migration failed !", e);
@@ -15,6 +15,8 @@
  */
 package com.googlecode.flyway.core.migration.jdbc;
 
+import com.googlecode.flyway.core.api.migration.MigrationChecksumProvider;
+import com.googlecode.flyway.core.api.migration.MigrationInfoProvider;
 import com.googlecode.flyway.core.api.migration.jdbc.JdbcMigration;
 import com.googlecode.flyway.core.exception.FlywayException;
 import com.googlecode.flyway.core.migration.Migration;
@@ -35,23 +37,46 @@ public class JdbcMigrationResolver implements MigrationResolver {
      */
     private final String basePackage;
 
+    /**
+     * The scanner to use to find the migration classes.
+     */
+    private final ClassPathScanner classPathScanner;
+
     /**
      * Creates a new instance.
      *
      * @param basePackage The base package on the classpath where to migrations are located.
      */
     public JdbcMigrationResolver(String basePackage) {
+        this(basePackage, new ClassPathScanner());
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param basePackage      The base package on the classpath where to migrations are located.
+     * @param classPathScanner The scanner to use to find the migration classes. Shared with other resolvers to scan
+     *                         each location only once.
+     */
+    public JdbcMigrationResolver(String basePackage, ClassPathScanner classPathScanner) {
         this.basePackage = basePackage;
+        this.classPathScanner = classPathScanner;
     }
 
     public List<Migration> resolveMigrations() {
         List<Migration> migrations = new ArrayList<Migration>();
 
         try {
-            Class<?>[] classes = new ClassPathScanner().scanForClasses(basePackage, JdbcMigration.class);
-            for (Class<?> clazz : classes) {
-                JdbcMigration jdbcMigration = (JdbcMigration) ClassUtils.instantiate(clazz.getName());
-                migrations.add(new JdbcMigrationExecutor(jdbcMigration));
+            String[] classNames = classPathScanner.scanForClassNames(basePackage, JdbcMigration.class);
+            for (String className : classNames) {
+                if (classPathScanner.implementsInterface(className, MigrationInfoProvider.class)
+                        || classPathScanner.implementsInterface(className, MigrationChecksumProvider.class)) {
+                    // Only the migration itself knows its version and checksum
+                    JdbcMigration jdbcMigration = (JdbcMigration) ClassUtils.instantiate(className);
+                    migrations.add(new JdbcMigrationExecutor(jdbcMigration));
+                } else {
+                    migrations.add(new JdbcMigrationExecutor(className));
+                }
             }
         } catch (Exception e) {
             throw new FlywayException("Unable to resolve Jdbc Java migrations in location: " + basePackage, e);
@@ -24,6 +24,7 @@ import com.googlecode.flyway.core.migration.Migration;
 import com.googlecode.flyway.core.migration.MigrationInfoHelper;
 import com.googlecode.flyway.core.migration.MigrationType;
 import com.googlecode.flyway.core.migration.SchemaVersion;
+import com.googlecode.flyway.core.util.ClassUtils;
 import com.googlecode.flyway.core.util.jdbc.JdbcTemplate;
 import org.springframework.jdbc.datasource.SingleConnectionDataSource;
 
@@ -32,9 +33,9 @@ import org.springframework.jdbc.datasource.SingleConnectionDataSource;
  */
 public class SpringJdbcMigrationExecutor extends Migration {
     /**
-     * The SpringJdbcMigration to execute.
+     * The SpringJdbcMigration to execute. {@code null} until it is needed when only its class name is known.
      */
-    private final SpringJdbcMigration springJdbcMigration;
+    private SpringJdbcMigration springJdbcMigration;
 
     /**
      * Creates a new SpringJdbcMigrationExecutor.
@@ -64,6 +65,22 @@ public class SpringJdbcMigrationExecutor extends Migration {
         script = springJdbcMigration.getClass().getName();
     }
 
+    /**
+     * Creates a new SpringJdbcMigrationExecutor for the SpringJdbcMigration with this class name. The version and description are
+     * taken from the class name. The class is only loaded and instantiated when the migration is executed.
+     *
+     * @param className The fully qualified name of the SpringJdbcMigration class. Must not implement the info or checksum
+     *                  provider interfaces.
+     */
+    public SpringJdbcMigrationExecutor(String className) {
+        String classShortName = className.substring(className.lastIndexOf(".") + 1);
+        String nameWithoutV = classShortName.substring(1);
+        schemaVersion = MigrationInfoHelper.extractSchemaVersion(nameWithoutV);
+        description = MigrationInfoHelper.extractDescription(nameWithoutV);
+
+        script = className;
+    }
+
     @Override
     public String getLocation() {
         return script;
@@ -77,6 +94,9 @@ public class SpringJdbcMigrationExecutor extends Migration {
     @Override
     public void migrate(JdbcTemplate jdbcTemplate, DbSupport dbSupport) {
         try {
+            if (springJdbcMigration == null) {
+                springJdbcMigration = ClassUtils.instantiate(script);
+            }
             springJdbcMigration.migrate(new org.springframework.jdbc.core.JdbcTemplate(
                     new SingleConnectionDataSource(jdbcTemplate.getConnection(), true)));
         } catch (Exception e) {
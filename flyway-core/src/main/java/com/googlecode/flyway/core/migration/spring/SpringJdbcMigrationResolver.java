@@ -15,6 +15,8 @@
  */
 package com.googlecode.flyway.core.migration.spring;
 
+import com.googlecode.flyway.core.api.migration.MigrationChecksumProvider;
+import com.googlecode.flyway.core.api.migration.MigrationInfoProvider;
 import com.googlecode.flyway.core.api.migration.spring.SpringJdbcMigration;
 import com.googlecode.flyway.core.exception.FlywayException;
 import com.googlecode.flyway.core.migration.Migration;
@@ -35,23 +37,46 @@ public class SpringJdbcMigrationResolver implements MigrationResolver {
      */
     private final String basePackage;
 
+    /**
+     * The scanner to use to find the migration classes.
+     */
+    private final ClassPathScanner classPathScanner;
+
     /**
      * Creates a new instance.
      *
      * @param basePackage The base package on the classpath where to migrations are located.
      */
     public SpringJdbcMigrationResolver(String basePackage) {
+        this(basePackage, new ClassPathScanner());
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param basePackage      The base package on the classpath where to migrations are located.
+     * @param classPathScanner The scanner to use to find the migration classes. Shared with other resolvers to scan
+     *                         each location only once.
+     */
+    public SpringJdbcMigrationResolver(String basePackage, ClassPathScanner classPathScanner) {
         this.basePackage = basePackage;
+        this.classPathScanner = classPathScanner;
     }
 
     public List<Migration> resolveMigrations() {
         List<Migration> migrations = new ArrayList<Migration>();
 
         try {
-            Class<?>[] classes = new ClassPathScanner().scanForClasses(basePackage, SpringJdbcMigration.class);
-            for (Class<?> clazz : classes) {
-                SpringJdbcMigration springJdbcMigration = (SpringJdbcMigration) ClassUtils.instantiate(clazz.getName());
-                migrations.add(new SpringJdbcMigrationExecutor(springJdbcMigration));
+            String[] classNames = classPathScanner.scanForClassNames(basePackage, SpringJdbcMigration.class);
+            for (String className : classNames) {
+                if (classPathScanner.implementsInterface(className, MigrationInfoProvider.class)
+                        || classPathScanner.implementsInterface(className, MigrationChecksumProvider.class)) {
+                    // Only the migration itself knows its version and checksum
+                    SpringJdbcMigration springJdbcMigration = (SpringJdbcMigration) ClassUtils.instantiate(className);
+                    migrations.add(new SpringJdbcMigrationExecutor(springJdbcMigration));
+                } else {
+                    migrations.add(new SpringJdbcMigrationExecutor(className));
+                }
             }
         } catch (Exception e) {
             throw new FlywayException("Unable to resolve Spring Jdbc Java migrations in location: " + basePackage, e);
@@ -15,15 +15,16 @@
  */
 package com.googlecode.flyway.core.migration.sql;
 
-import com.googlecode.flyway.core.util.StringUtils;
+import com.googlecode.flyway.core.exception.FlywayException;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Tool for replacing placeholders.
+ * <p/>
+ * Every input is scanned only once: each occurrence of prefix...suffix is looked up in the placeholder map, regardless
+ * of the number of placeholders configured.
  */
 public class PlaceholderReplacer {
     /**
@@ -47,16 +48,36 @@ public class PlaceholderReplacer {
     private final String placeholderSuffix;
 
     /**
-     * Creates a new PlaceholderReplacer.
+     * Whether to fail when a placeholder without a value is encountered, instead of leaving it untouched.
+     */
+    private final boolean strict;
+
+    /**
+     * Creates a new PlaceholderReplacer. Placeholders without a value are left untouched.
      *
      * @param placeholders      A map of <placeholder, replacementValue> to apply to sql migration scripts.
      * @param placeholderPrefix The prefix of every placeholder. Usually ${
      * @param placeholderSuffix The suffix of every placeholder. Usually }
      */
     public PlaceholderReplacer(Map<String, String> placeholders, String placeholderPrefix, String placeholderSuffix) {
+        this(placeholders, placeholderPrefix, placeholderSuffix, false);
+    }
+
+    /**
+     * Creates a new PlaceholderReplacer.
+     *
+     * @param placeholders      A map of <placeholder, replacementValue> to apply to sql migration scripts.
+     * @param placeholderPrefix The prefix of every placeholder. Usually ${
+     * @param placeholderSuffix The suffix of every placeholder. Usually }
+     * @param strict            {@code true} to fail when a placeholder without a value is encountered, {@code false} to
+     *                          leave it untouched.
+     */
+    public PlaceholderReplacer(Map<String, String> placeholders, String placeholderPrefix, String placeholderSuffix,
+                               boolean strict) {
         this.placeholders = placeholders;
         this.placeholderPrefix = placeholderPrefix;
         this.placeholderSuffix = placeholderSuffix;
+        this.strict = strict;
     }
 
     /**
@@ -65,15 +86,51 @@ public class PlaceholderReplacer {
      * @param input The input to process.
      *
      * @return The input string with all placeholders replaced.
+     * @throws FlywayException when a placeholder without a value is encountered in strict mode.
      */
     public String replacePlaceholders(String input) {
-        String noPlaceholders = input;
+        if (placeholderPrefix.length() == 0 || placeholderSuffix.length() == 0 || (placeholders.isEmpty() && !strict)) {
+            return input;
+        }
 
-        for (String placeholder : placeholders.keySet()) {
-            String searchTerm = placeholderPrefix + placeholder + placeholderSuffix;
-            noPlaceholders = StringUtils.replaceAll(noPlaceholders, searchTerm, placeholders.get(placeholder));
+        int start = input.indexOf(placeholderPrefix);
+        if (start < 0) {
+            return input;
         }
 
-        return noPlaceholders;
+        StringBuilder result = null;
+        int copiedUpTo = 0;
+        while (start >= 0) {
+            int keyStart = start + placeholderPrefix.length();
+            int keyEnd = input.indexOf(placeholderSuffix, keyStart);
+            if (keyEnd < 0) {
+                break;
+            }
+
+            String placeholder = input.substring(keyStart, keyEnd);
+            String value = placeholders.get(placeholder);
+            if (value == null) {
+                if (strict && (placeholder.indexOf(placeholderPrefix) < 0)) {
+                    throw new FlywayException("No value provided for placeholder: "
+                            + placeholderPrefix + placeholder + placeholderSuffix);
+                }
+                // Not a known placeholder. Try the next prefix, which may start inside this one.
+                start = input.indexOf(placeholderPrefix, start + 1);
+                continue;
+            }
+
+            if (result == null) {
+                result = new StringBuilder(input.length() + 16);
+            }
+            result.append(input, copiedUpTo, start).append(value);
+            copiedUpTo = keyEnd + placeholderSuffix.length();
+            start = input.indexOf(placeholderPrefix, copiedUpTo);
+        }
+
+        if (result == null) {
+            return input;
+        }
+        result.append(input, copiedUpTo, input.length());
+        return result.toString();
     }
 }
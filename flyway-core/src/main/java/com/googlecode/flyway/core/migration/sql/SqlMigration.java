@@ -16,18 +16,40 @@
 package com.googlecode.flyway.core.migration.sql;
 
 import com.googlecode.flyway.core.dbsupport.DbSupport;
+import com.googlecode.flyway.core.exception.FlywayException;
 import com.googlecode.flyway.core.migration.Migration;
 import com.googlecode.flyway.core.migration.MigrationInfoHelper;
 import com.googlecode.flyway.core.migration.MigrationType;
 import com.googlecode.flyway.core.util.ClassPathResource;
 import com.googlecode.flyway.core.util.jdbc.JdbcTemplate;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 import java.util.zip.CRC32;
 
 /**
  * Database migration based on a sql file.
  */
 public class SqlMigration extends Migration {
+    /**
+     * The number of bytes of the encoded sql script to checksum at a time.
+     */
+    private static final int CHECKSUM_BUFFER_SIZE = 8192;
+
+    /**
+     * The maximum number of characters of a sql script kept around after calculating its checksum, for reuse by
+     * migrate. Larger scripts are streamed again instead, so they are never held in memory as a whole.
+     */
+    private static final int CACHED_SCRIPT_MAX_LENGTH = 65536;
+
     /**
      * The placeholder replacer to apply to sql migration scripts.
      */
@@ -35,18 +57,29 @@ public class SqlMigration extends Migration {
 
     /**
      * The Resource pointing to the sql script.
-     * The complete sql script is not held as a member field here because this would use the total size of all
-     * sql migrations files in heap space during db migration, see issue 184.
      */
     private final ClassPathResource sqlScriptResource;
 
+    /**
+     * The contents of the sql script, if it is small enough to be kept after calculating its checksum. {@code null} if
+     * it isn't.
+     * The complete sql script is only softly referenced here because a hard reference would use the total size of all
+     * sql migrations files in heap space during db migration, see issue 184.
+     */
+    private SoftReference<String> sqlScriptSource;
+
     /**
      * The encoding of the sql script.
      */
     private final String encoding;
 
     /**
-     * Creates a new sql script migration based on this sql script.
+     * The maximum number of consecutive data manipulation statements to execute as a single batch. 0 for no batching.
+     */
+    private final int batchSize;
+
+    /**
+     * Creates a new sql script migration based on this sql script, executing its statements one by one.
      *
      * @param sqlScriptResource   The resource containing the sql script.
      * @param placeholderReplacer The placeholder replacer to apply to sql migration scripts.
@@ -58,17 +91,66 @@ public class SqlMigration extends Migration {
      */
     public SqlMigration(ClassPathResource sqlScriptResource, PlaceholderReplacer placeholderReplacer, String encoding,
                         String versionString, String scriptName) {
+        this(sqlScriptResource, placeholderReplacer, encoding, 0, versionString, scriptName);
+    }
+
+    /**
+     * Creates a new sql script migration based on this sql script.
+     *
+     * @param sqlScriptResource   The resource containing the sql script.
+     * @param placeholderReplacer The placeholder replacer to apply to sql migration scripts.
+     * @param encoding            The encoding of this Sql migration.
+     * @param batchSize           The maximum number of consecutive data manipulation statements to execute as a single
+     *                            batch. 0 for no batching.
+     * @param versionString       The migration name in standard Flyway format '<VERSION>__<DESCRIPTION>, e.g.
+     *                            1_2__Description
+     * @param scriptName          The filename of this sql script, including the relative path from the root of
+     *                            the classpath location it was found.
+     */
+    public SqlMigration(ClassPathResource sqlScriptResource, PlaceholderReplacer placeholderReplacer, String encoding,
+                        int batchSize, String versionString, String scriptName) {
+        this(sqlScriptResource, placeholderReplacer, encoding, batchSize, versionString, scriptName, null);
+    }
+
+    /**
+     * Creates a new sql script migration based on this sql script.
+     *
+     * @param sqlScriptResource   The resource containing the sql script.
+     * @param placeholderReplacer The placeholder replacer to apply to sql migration scripts.
+     * @param encoding            The encoding of this Sql migration.
+     * @param batchSize           The maximum number of consecutive data manipulation statements to execute as a single
+     *                            batch. 0 for no batching.
+     * @param versionString       The migration name in standard Flyway format '<VERSION>__<DESCRIPTION>, e.g.
+     *                            1_2__Description
+     * @param scriptName          The filename of this sql script, including the relative path from the root of
+     *                            the classpath location it was found.
+     * @param checksum            The checksum of this sql script, as precomputed in the migration index. {@code null}
+     *                            to calculate it from the script.
+     */
+    public SqlMigration(ClassPathResource sqlScriptResource, PlaceholderReplacer placeholderReplacer, String encoding,
+                        int batchSize, String versionString, String scriptName, Integer checksum) {
         this.sqlScriptResource = sqlScriptResource;
         this.encoding = encoding;
+        this.batchSize = batchSize;
 
         schemaVersion = MigrationInfoHelper.extractSchemaVersion(versionString);
         description = MigrationInfoHelper.extractDescription(versionString);
 
-        String sqlScriptSource = sqlScriptResource.loadAsString(encoding);
-        checksum = calculateChecksum(sqlScriptSource);
-
         this.script = scriptName;
         this.placeholderReplacer = placeholderReplacer;
+
+        if (checksum != null) {
+            this.checksum = checksum;
+        } else {
+            this.checksum = calculateChecksum();
+        }
+    }
+
+    /**
+     * @return The resource containing the sql script.
+     */
+    public ClassPathResource getSqlScriptResource() {
+        return sqlScriptResource;
     }
 
     @Override
@@ -78,21 +160,109 @@ public class SqlMigration extends Migration {
 
     @Override
     public void migrate(JdbcTemplate jdbcTemplate, DbSupport dbSupport) {
-        String sqlScriptSource = sqlScriptResource.loadAsString(encoding);
-        SqlScript sqlScript = dbSupport.createSqlScript(sqlScriptSource, placeholderReplacer);
-        sqlScript.execute(jdbcTemplate);
+        // Reuse the script kept from the checksum calculation if it is still around, stream it from the resource otherwise
+        String source = (sqlScriptSource == null) ? null : sqlScriptSource.get();
+        Reader reader = (source == null) ? sqlScriptResource.openReader(encoding) : new StringReader(source);
+        try {
+            SqlScript sqlScript = dbSupport.createSqlScript(reader, placeholderReplacer);
+            sqlScript.execute(jdbcTemplate, batchSize);
+        } finally {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                //Ignore
+            }
+        }
     }
 
     /**
-     * Calculates the checksum of this sql script.
+     * Calculates the checksum of this sql script, streaming it chunk by chunk instead of loading it into memory. Scripts
+     * shorter than {@link #CACHED_SCRIPT_MAX_LENGTH} characters are kept on the way, so migrate does not have to read
+     * them again.
+     * <p/>
+     * The checksum is the crc-32 of the script without its UTF-8 BOM, encoded with the platform default charset. This
+     * is the exact value Flyway has always stored in the metadata table, so existing installations continue to
+     * validate.
      *
-     * @param sql The sql to calculate the checksum for.
      * @return The crc-32 checksum of the script.
+     * @throws FlywayException when the script could not be read.
+     */
+    private int calculateChecksum() {
+        Reader reader = sqlScriptResource.openReader(encoding);
+        try {
+            CRC32 crc32 = new CRC32();
+            CharsetEncoder encoder = Charset.defaultCharset().newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            CharBuffer chars = CharBuffer.allocate(CHECKSUM_BUFFER_SIZE);
+            ByteBuffer bytes = ByteBuffer.allocate((int) Math.ceil(CHECKSUM_BUFFER_SIZE * encoder.maxBytesPerChar()));
+            StringBuilder source = new StringBuilder();
+
+            boolean start = true;
+            while (reader.read(chars) >= 0) {
+                chars.flip();
+                if (start && chars.hasRemaining()) {
+                    //Strip UTF-8 BOM if necessary
+                    if (chars.get(chars.position()) == '\ufeff') {
+                        chars.get();
+                    }
+                    start = false;
+                }
+                if (source != null) {
+                    if (source.length() + chars.remaining() <= CACHED_SCRIPT_MAX_LENGTH) {
+                        source.append(chars.array(), chars.position(), chars.remaining());
+                    } else {
+                        source = null;
+                    }
+                }
+                updateChecksum(crc32, encoder, chars, bytes, false);
+                // Keeps the high half of a surrogate pair split across two chunks for the next round
+                chars.compact();
+                if ((source != null) && (chars.position() > 0)) {
+                    // Appended already, it will be appended again with the next chunk
+                    source.setLength(source.length() - chars.position());
+                }
+            }
+            chars.flip();
+            if (source != null) {
+                source.append(chars.array(), chars.position(), chars.remaining());
+            }
+            updateChecksum(crc32, encoder, chars, bytes, true);
+            encoder.flush(bytes);
+            crc32.update(bytes.array(), 0, bytes.position());
+
+            if (source != null) {
+                sqlScriptSource = new SoftReference<String>(source.toString());
+            }
+            return (int) crc32.getValue();
+        } catch (IOException e) {
+            throw new FlywayException("Unable to calculate checksum for " + script + " (encoding: " + encoding + ")", e);
+        } finally {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                //Ignore
+            }
+        }
+    }
+
+    /**
+     * Encodes these characters and adds the resulting bytes to the checksum.
+     *
+     * @param crc32      The checksum to update.
+     * @param encoder    The encoder to use.
+     * @param chars      The characters to encode.
+     * @param bytes      The buffer to encode into.
+     * @param endOfInput Whether these are the last characters of the script.
      */
-    private int calculateChecksum(String sql) {
-        final CRC32 crc32 = new CRC32();
-        crc32.update(sql.getBytes());
-        return (int) crc32.getValue();
+    private static void updateChecksum(CRC32 crc32, CharsetEncoder encoder, CharBuffer chars, ByteBuffer bytes,
+                                       boolean endOfInput) {
+        CoderResult result;
+        do {
+            result = encoder.encode(chars, bytes, endOfInput);
+            crc32.update(bytes.array(), 0, bytes.position());
+            bytes.clear();
+        } while (result.isOverflow());
     }
 
     @Override
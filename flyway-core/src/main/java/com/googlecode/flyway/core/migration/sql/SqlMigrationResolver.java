@@ -17,6 +17,7 @@ package com.googlecode.flyway.core.migration.sql;
 
 import com.googlecode.flyway.core.exception.FlywayException;
 import com.googlecode.flyway.core.migration.Migration;
+import com.googlecode.flyway.core.migration.MigrationIndex;
 import com.googlecode.flyway.core.migration.MigrationResolver;
 import com.googlecode.flyway.core.util.ClassPathResource;
 import com.googlecode.flyway.core.util.StringUtils;
@@ -27,6 +28,10 @@ import org.apache.commons.logging.LogFactory;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * Migration resolver for sql files on the classpath. The sql files must have names like V1.sql or V1_1.sql or
@@ -53,6 +58,11 @@ public class SqlMigrationResolver implements MigrationResolver {
      */
     private final String encoding;
 
+    /**
+     * The maximum number of consecutive data manipulation statements to execute as a single batch. 0 for no batching.
+     */
+    private final int batchSize;
+
     /**
      * The prefix for sql migrations
      */
@@ -64,7 +74,23 @@ public class SqlMigrationResolver implements MigrationResolver {
     private final String sqlMigrationSuffix;
 
     /**
-     * Creates a new instance.
+     * The scanner to use to find the sql migrations.
+     */
+    private final ClassPathScanner classPathScanner;
+
+    /**
+     * The executor to load and checksum the sql migrations on. {@code null} to do it sequentially.
+     */
+    private final ExecutorService executorService;
+
+    /**
+     * Whether to take the checksums of the sql migrations from the migration index of their classpath entry instead of
+     * reading the scripts, when that index is up to date.
+     */
+    private final boolean indexedChecksums;
+
+    /**
+     * Creates a new instance, whose migrations execute their statements one by one.
      *
      * @param location            The location on the classpath where to migrations are located.
      * @param placeholderReplacer The placeholder replacer to apply to sql migration scripts.
@@ -73,11 +99,70 @@ public class SqlMigrationResolver implements MigrationResolver {
      * @param sqlMigrationSuffix  The suffix for sql migrations
      */
     public SqlMigrationResolver(String location, PlaceholderReplacer placeholderReplacer, String encoding, String sqlMigrationPrefix, String sqlMigrationSuffix) {
+        this(location, placeholderReplacer, encoding, 0, sqlMigrationPrefix, sqlMigrationSuffix);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param location            The location on the classpath where to migrations are located.
+     * @param placeholderReplacer The placeholder replacer to apply to sql migration scripts.
+     * @param encoding            The encoding of Sql migrations.
+     * @param batchSize           The maximum number of consecutive data manipulation statements to execute as a single
+     *                            batch. 0 for no batching.
+     * @param sqlMigrationPrefix  The prefix for sql migrations
+     * @param sqlMigrationSuffix  The suffix for sql migrations
+     */
+    public SqlMigrationResolver(String location, PlaceholderReplacer placeholderReplacer, String encoding, int batchSize, String sqlMigrationPrefix, String sqlMigrationSuffix) {
+        this(location, placeholderReplacer, encoding, batchSize, sqlMigrationPrefix, sqlMigrationSuffix, new ClassPathScanner(), null);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param location            The location on the classpath where to migrations are located.
+     * @param placeholderReplacer The placeholder replacer to apply to sql migration scripts.
+     * @param encoding            The encoding of Sql migrations.
+     * @param batchSize           The maximum number of consecutive data manipulation statements to execute as a single
+     *                            batch. 0 for no batching.
+     * @param sqlMigrationPrefix  The prefix for sql migrations
+     * @param sqlMigrationSuffix  The suffix for sql migrations
+     * @param classPathScanner    The scanner to use to find the sql migrations. Shared with other resolvers to scan each
+     *                            location only once.
+     * @param executorService     The executor to load and checksum the sql migrations on. {@code null} to do it
+     *                            sequentially.
+     */
+    public SqlMigrationResolver(String location, PlaceholderReplacer placeholderReplacer, String encoding, int batchSize, String sqlMigrationPrefix, String sqlMigrationSuffix, ClassPathScanner classPathScanner, ExecutorService executorService) {
+        this(location, placeholderReplacer, encoding, batchSize, sqlMigrationPrefix, sqlMigrationSuffix, classPathScanner, executorService, false);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param location            The location on the classpath where to migrations are located.
+     * @param placeholderReplacer The placeholder replacer to apply to sql migration scripts.
+     * @param encoding            The encoding of Sql migrations.
+     * @param batchSize           The maximum number of consecutive data manipulation statements to execute as a single
+     *                            batch. 0 for no batching.
+     * @param sqlMigrationPrefix  The prefix for sql migrations
+     * @param sqlMigrationSuffix  The suffix for sql migrations
+     * @param classPathScanner    The scanner to use to find the sql migrations. Shared with other resolvers to scan each
+     *                            location only once.
+     * @param executorService     The executor to load and checksum the sql migrations on. {@code null} to do it
+     *                            sequentially.
+     * @param indexedChecksums    Whether to take the checksums of the sql migrations from the migration index of their
+     *                            classpath entry instead of reading the scripts, when that index is up to date.
+     */
+    public SqlMigrationResolver(String location, PlaceholderReplacer placeholderReplacer, String encoding, int batchSize, String sqlMigrationPrefix, String sqlMigrationSuffix, ClassPathScanner classPathScanner, ExecutorService executorService, boolean indexedChecksums) {
         this.location = location;
         this.placeholderReplacer = placeholderReplacer;
         this.encoding = encoding;
+        this.batchSize = batchSize;
         this.sqlMigrationPrefix = sqlMigrationPrefix;
         this.sqlMigrationSuffix = sqlMigrationSuffix;
+        this.classPathScanner = classPathScanner;
+        this.executorService = executorService;
+        this.indexedChecksums = indexedChecksums;
     }
 
 
@@ -96,16 +181,26 @@ public class SqlMigrationResolver implements MigrationResolver {
 
         try {
             ClassPathResource[] resources =
-                    new ClassPathScanner().scanForResources(normalizedBaseDir, sqlMigrationPrefix, sqlMigrationSuffix);
+                    classPathScanner.scanForResources(normalizedBaseDir, sqlMigrationPrefix, sqlMigrationSuffix);
+
+            // Checksums precomputed at build time spare reading the scripts until they are actually migrated
+            MigrationIndex migrationIndex = indexedChecksums ? MigrationIndex.load() : null;
 
             String searchRoot = normalizedBaseDir + "/";
-            for (ClassPathResource resource : resources) {
+            List<Callable<Migration>> migrationLoaders = new ArrayList<Callable<Migration>>(resources.length);
+            for (final ClassPathResource resource : resources) {
                 final String versionString =
                         extractVersionStringFromFileName(resource.getFilename(), sqlMigrationPrefix, sqlMigrationSuffix);
                 String location = resource.getLocation();
-                String scriptName = location.substring(location.indexOf(searchRoot) + searchRoot.length());
-                migrations.add(new SqlMigration(resource, placeholderReplacer, encoding, versionString, scriptName));
+                final String scriptName = location.substring(location.indexOf(searchRoot) + searchRoot.length());
+                final Integer checksum = (migrationIndex == null) ? null : migrationIndex.getChecksum(resource);
+                migrationLoaders.add(new Callable<Migration>() {
+                    public Migration call() {
+                        return new SqlMigration(resource, placeholderReplacer, encoding, batchSize, versionString, scriptName, checksum);
+                    }
+                });
             }
+            migrations.addAll(loadMigrations(migrationLoaders));
         } catch (IOException e) {
             throw new FlywayException("Unable to scan for SQL migrations in location: " + location);
         }
@@ -113,6 +208,59 @@ public class SqlMigrationResolver implements MigrationResolver {
         return migrations;
     }
 
+    /**
+     * Loads the sql migrations, concurrently if an executor is available. The migrations are returned in the order of
+     * their loaders, no matter in which order they finished loading.
+     *
+     * @param migrationLoaders The loaders creating each one sql migration.
+     * @return The loaded migrations.
+     * @throws FlywayException when a migration could not be loaded.
+     */
+    private List<Migration> loadMigrations(List<Callable<Migration>> migrationLoaders) {
+        List<Migration> migrations = new ArrayList<Migration>(migrationLoaders.size());
+
+        if (executorService == null) {
+            for (Callable<Migration> migrationLoader : migrationLoaders) {
+                try {
+                    migrations.add(migrationLoader.call());
+                } catch (Exception e) {
+                    throw unwrap(e);
+                }
+            }
+            return migrations;
+        }
+
+        try {
+            for (Future<Migration> future : executorService.invokeAll(migrationLoaders)) {
+                try {
+                    migrations.add(future.get());
+                } catch (ExecutionException e) {
+                    throw unwrap(e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlywayException("Interrupted while loading SQL migrations in location: " + location, e);
+        }
+        return migrations;
+    }
+
+    /**
+     * Turns this failure of a migration loader into an unchecked exception to rethrow.
+     *
+     * @param failure The failure.
+     * @return The exception to throw.
+     */
+    private RuntimeException unwrap(Throwable failure) {
+        if (failure instanceof RuntimeException) {
+            return (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        return new FlywayException("Unable to load SQL migrations in location: " + location, failure);
+    }
+
     /**
      * Extracts the sql file version string from this file name.
      *
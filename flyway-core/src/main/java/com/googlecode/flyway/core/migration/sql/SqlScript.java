@@ -15,22 +15,27 @@
  */
 package com.googlecode.flyway.core.migration.sql;
 
-import com.googlecode.flyway.core.util.ObjectUtils;
-import com.googlecode.flyway.core.util.StringUtils;
+import com.googlecode.flyway.core.exception.FlywayException;
 import com.googlecode.flyway.core.util.jdbc.JdbcTemplate;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import java.io.BufferedReader;
-import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * Sql script containing a series of statements terminated by semi-columns (;). Single-line (--) and multi-line (/* * /)
  * comments are stripped and ignored.
+ * <p/>
+ * A script created from a reader is streamed: its statements are parsed and executed one at a time, so only the
+ * current statement is held in memory, regardless of the size of the script.
  */
 public class SqlScript {
     /**
@@ -46,7 +51,12 @@ public class SqlScript {
     /**
      * The sql statements contained in this script.
      */
-    private final List<SqlStatement> sqlStatements;
+    private List<SqlStatement> sqlStatements;
+
+    /**
+     * The tokenizer streaming the statements of this script. {@code null} if the statements are already parsed.
+     */
+    private SqlTokenizer sqlTokenizer;
 
     /**
      * Creates a new sql script from this source with these placeholders to replace.
@@ -58,6 +68,17 @@ public class SqlScript {
         this.sqlStatements = parse(sqlScriptSource, placeholderReplacer);
     }
 
+    /**
+     * Creates a new streaming sql script reading its source from this reader, with these placeholders to replace. The
+     * statements are only parsed as they are being executed. The reader is not closed by this script.
+     *
+     * @param sqlScriptReader     The reader for the sql script with all placeholders still present.
+     * @param placeholderReplacer The placeholder replacer to apply to sql migration scripts.
+     */
+    public SqlScript(Reader sqlScriptReader, PlaceholderReplacer placeholderReplacer) {
+        this.sqlTokenizer = new SqlTokenizer(sqlScriptReader, placeholderReplacer, this);
+    }
+
     /**
      * Creates a new SqlScript with these statements and this name.
      *
@@ -75,103 +96,222 @@ public class SqlScript {
     }
 
     /**
+     * Retrieves the sql statements contained in this script. For a streaming script this reads the remainder of the
+     * script into memory.
+     *
      * @return The sql statements contained in this script.
+     * @throws IllegalStateException Thrown when the statements of this streaming script have already been consumed
+     *                               through {@link #statementIterator()}.
      */
     public List<SqlStatement> getSqlStatements() {
+        if ((sqlTokenizer == null) && (sqlStatements == null)) {
+            throw new IllegalStateException("The statements of this sql script have already been consumed");
+        }
+        if (sqlTokenizer != null) {
+            List<SqlStatement> statements = new ArrayList<SqlStatement>();
+            Iterator<SqlStatement> iterator = statementIterator();
+            while (iterator.hasNext()) {
+                statements.add(iterator.next());
+            }
+            sqlStatements = statements;
+        }
         return sqlStatements;
     }
 
+    /**
+     * Retrieves an iterator over the sql statements contained in this script. For a streaming script the statements
+     * are parsed lazily, one at a time, and can only be iterated over once.
+     *
+     * @return The iterator over the statements.
+     * @throws IllegalStateException Thrown when the statements of this streaming script have already been consumed.
+     */
+    public Iterator<SqlStatement> statementIterator() {
+        if (sqlTokenizer == null) {
+            if (sqlStatements == null) {
+                throw new IllegalStateException("The statements of this sql script have already been consumed");
+            }
+            return sqlStatements.iterator();
+        }
+
+        final SqlTokenizer tokenizer = sqlTokenizer;
+        sqlTokenizer = null;
+        return new Iterator<SqlStatement>() {
+            /**
+             * The statement to return next. {@code null} if it still needs to be parsed.
+             */
+            private SqlStatement next;
+
+            /**
+             * Flag indicating whether the end of the script has been reached.
+             */
+            private boolean done;
+
+            public boolean hasNext() {
+                if ((next == null) && !done) {
+                    next = tokenizer.nextStatement();
+                    done = next == null;
+                }
+                return next != null;
+            }
+
+            public SqlStatement next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                SqlStatement sqlStatement = next;
+                next = null;
+                return sqlStatement;
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
     /**
      * Executes this script against the database.
      *
      * @param jdbcTemplate The jdbc template to use to execute this script.
      */
     public void execute(final JdbcTemplate jdbcTemplate) {
-        for (SqlStatement sqlStatement : sqlStatements) {
-            sqlStatement.execute(jdbcTemplate);
+        Iterator<SqlStatement> iterator = statementIterator();
+        while (iterator.hasNext()) {
+            iterator.next().execute(jdbcTemplate);
         }
     }
 
     /**
-     * Parses this script source into statements.
+     * Executes this script against the database, sending consecutive data manipulation statements to the database in
+     * batches of up to this size. All other statements are executed on their own, in their original order.
      *
-     * @param sqlScriptSource The script source to parse.
-     * @param placeholderReplacer The placeholder replacer to use.
-     * @return The parsed statements.
+     * @param jdbcTemplate The jdbc template to use to execute this script.
+     * @param batchSize    The maximum number of statements per batch. 0 or 1 to disable batching.
      */
-    /* private -> for testing */
-    List<SqlStatement> parse(String sqlScriptSource, PlaceholderReplacer placeholderReplacer) {
-        Reader reader = new StringReader(sqlScriptSource);
-        List<String> rawLines = readLines(reader);
-        List<String> noPlaceholderLines = replacePlaceholders(rawLines, placeholderReplacer);
+    public void execute(final JdbcTemplate jdbcTemplate, int batchSize) {
+        if ((batchSize < 2) || !supportsBatchUpdates(jdbcTemplate)) {
+            execute(jdbcTemplate);
+            return;
+        }
 
-        List<String> trimmedLines = trimLines(noPlaceholderLines);
-        List<String> noCommentLines = stripSqlComments(trimmedLines);
-        return linesToStatements(noCommentLines);
+        List<SqlStatement> batch = new ArrayList<SqlStatement>(batchSize);
+        Iterator<SqlStatement> iterator = statementIterator();
+        while (iterator.hasNext()) {
+            SqlStatement sqlStatement = iterator.next();
+            if (sqlStatement.isBatchable()) {
+                batch.add(sqlStatement);
+                if (batch.size() == batchSize) {
+                    executeBatch(jdbcTemplate, batch);
+                }
+            } else {
+                executeBatch(jdbcTemplate, batch);
+                sqlStatement.execute(jdbcTemplate);
+            }
+        }
+        executeBatch(jdbcTemplate, batch);
     }
 
-
     /**
-     * Turns these lines in a series of statements.
-     *
-     * @param lines The lines to analyse.
+     * Checks whether the database supports batch execution.
      *
-     * @return The statements contained in these lines (in order).
+     * @param jdbcTemplate The jdbc template to use to query the database.
+     * @return {@code true} if it does, {@code false} if not.
      */
-    /* private -> for testing */
-    List<SqlStatement> linesToStatements(List<String> lines) {
-        List<SqlStatement> statements = new ArrayList<SqlStatement>();
-
-        int statementLineNumber = 0;
-        String statementSql = "";
-
-        String delimiter = DEFAULT_STATEMENT_DELIMITER;
-
-        for (int lineNumber = 1; lineNumber <= lines.size(); lineNumber++) {
-            String line = lines.get(lineNumber - 1);
-
-            if (!StringUtils.hasText(line)) {
-                continue;
-            }
-
-            if (!StringUtils.hasText(statementSql)) {
-                statementLineNumber = lineNumber;
-            } else {
-                statementSql += "\n";
+    private boolean supportsBatchUpdates(JdbcTemplate jdbcTemplate) {
+        try {
+            if (jdbcTemplate.supportsBatchUpdates()) {
+                return true;
             }
-            statementSql += line;
+        } catch (SQLException e) {
+            LOG.debug("Unable to determine whether batch updates are supported: " + e.getMessage());
+        }
+        LOG.debug("Batch updates not supported. Executing statements one by one.");
+        return false;
+    }
 
-            String statementSqlWithoutLineBreaks = statementSql.replaceAll("\n", " ").replaceAll("\r", " ");
-            if (endsWithOpenMultilineStringLiteral(statementSqlWithoutLineBreaks)) {
-                continue;
+    /**
+     * Executes these statements as a single batch and clears the list afterwards.
+     *
+     * @param jdbcTemplate The jdbc template to use to execute the statements.
+     * @param batch        The statements to execute. Nothing happens if it is empty.
+     * @throws FlywayException when the batch failed. The message contains the line of the failing statement.
+     */
+    private void executeBatch(JdbcTemplate jdbcTemplate, List<SqlStatement> batch) {
+        if (batch.size() == 1) {
+            batch.get(0).execute(jdbcTemplate);
+        } else if (!batch.isEmpty()) {
+            List<String> sqls = new ArrayList<String>(batch.size());
+            for (SqlStatement sqlStatement : batch) {
+                sqls.add(sqlStatement.getSql());
             }
 
-            String oldDelimiter = delimiter;
-            delimiter = changeDelimiterIfNecessary(statementSqlWithoutLineBreaks, line, delimiter);
-            if (!ObjectUtils.nullSafeEquals(delimiter, oldDelimiter)) {
-                if (isDelimiterChangeExplicit()) {
-                    statementSql = "";
-                    continue;
+            LOG.debug("Executing batch of " + batch.size() + " statements starting at line "
+                    + batch.get(0).getLineNumber());
+            try {
+                jdbcTemplate.executeBatch(sqls);
+            } catch (SQLException e) {
+                int failedStatementIndex = -1;
+                if (e instanceof BatchUpdateException) {
+                    failedStatementIndex = getFailedStatementIndex((BatchUpdateException) e, batch.size());
                 }
+                if (failedStatementIndex < 0) {
+                    throw new FlywayException("Error executing batch of statements between line "
+                            + batch.get(0).getLineNumber() + " and line "
+                            + batch.get(batch.size() - 1).getLineNumber(), e);
+                }
+
+                SqlStatement failedStatement = batch.get(failedStatementIndex);
+                throw new FlywayException("Error executing statement at line " + failedStatement.getLineNumber()
+                        + ": " + failedStatement.getSql(), e);
             }
+        }
+        batch.clear();
+    }
 
-            if ((delimiter != null) && line.toUpperCase().endsWith(delimiter.toUpperCase())) {
-                String noDelimiterStatementSql = stripDelimiter(statementSql, delimiter);
-                statements.add(new SqlStatement(statementLineNumber, noDelimiterStatementSql));
-                LOG.debug("Found statement at line " + statementLineNumber + ": " + statementSql);
+    /**
+     * Determines which statement of a batch caused it to fail.
+     *
+     * @param e         The exception thrown by the batch.
+     * @param batchSize The number of statements in the batch.
+     * @return The index of the failing statement in the batch. -1 if it could not be determined.
+     */
+    /* private -> for testing */
+    static int getFailedStatementIndex(BatchUpdateException e, int batchSize) {
+        int[] updateCounts = e.getUpdateCounts();
+        if ((updateCounts == null) || (updateCounts.length > batchSize)) {
+            return -1;
+        }
 
-                if (!isDelimiterChangeExplicit()) {
-                    delimiter = DEFAULT_STATEMENT_DELIMITER;
-                }
-                statementSql = "";
+        // Drivers that continue after a failure mark the failed statements
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+                return i;
             }
         }
 
-        // Catch any statements not followed by delimiter.
-        if (StringUtils.hasText(statementSql)) {
-            statements.add(new SqlStatement(statementLineNumber, statementSql));
+        // Drivers that stop at the first failure only report the statements that succeeded
+        if (updateCounts.length < batchSize) {
+            return updateCounts.length;
         }
+        return -1;
+    }
+
+    /**
+     * Parses this script source into statements.
+     *
+     * @param sqlScriptSource The script source to parse.
+     * @param placeholderReplacer The placeholder replacer to use.
+     * @return The parsed statements.
+     */
+    /* private -> for testing */
+    List<SqlStatement> parse(String sqlScriptSource, PlaceholderReplacer placeholderReplacer) {
+        SqlTokenizer sqlTokenizer = new SqlTokenizer(new StringReader(sqlScriptSource), placeholderReplacer, this);
 
+        List<SqlStatement> statements = new ArrayList<SqlStatement>();
+        SqlStatement sqlStatement;
+        while ((sqlStatement = sqlTokenizer.nextStatement()) != null) {
+            statements.add(sqlStatement);
+        }
         return statements;
     }
 
@@ -179,9 +319,9 @@ public class SqlScript {
      * Checks whether this line in the sql script indicates that the statement delimiter will be different from the
      * current one. Useful for database-specific stored procedures and block constructs.
      *
-     * @param statement The statement assembled so far, reduced to a single line with all linebreaks replaced by
-     *                  spaces.
-     * @param line      The line to analyse.
+     * @param statement The start of the statement assembled so far, including this line, reduced to a single line
+     *                  with all linebreaks replaced by spaces. Only the first few words of long statements are included.
+     * @param line      The line to analyse, trimmed and without leading comments.
      * @param delimiter The current delimiter.
      *
      * @return The new delimiter to use (can be the same as the current one) or {@code null} for no delimiter.
@@ -199,58 +339,6 @@ public class SqlScript {
         return false;
     }
 
-    /**
-     * Strips this delimiter from this sql statement.
-     *
-     * @param sql       The statement to parse.
-     * @param delimiter The delimiter to strip.
-     *
-     * @return The sql statement without delimiter.
-     */
-    private static String stripDelimiter(String sql, String delimiter) {
-        return sql.substring(0, sql.length() - delimiter.length());
-    }
-
-    /**
-     * Strip single line (--) and multi-line (/* * /) comments from these lines.
-     *
-     * @param lines The input lines.
-     *
-     * @return The input lines, trimmed of leading and trailing whitespace, with the comments lines left blank.
-     */
-    /* private -> for testing */
-    List<String> stripSqlComments(List<String> lines) {
-        List<String> noCommentLines = new ArrayList<String>(lines.size());
-
-        boolean inMultilineComment = false;
-        for (String line : lines) {
-            String trimmedLine = line.trim();
-
-            if (!isCommentDirective(trimmedLine)) {
-                if (trimmedLine.startsWith("--")) {
-                    noCommentLines.add("");
-                    continue;
-                }
-
-                if (trimmedLine.startsWith("/*")) {
-                    inMultilineComment = true;
-                }
-
-                if (inMultilineComment) {
-                    if (trimmedLine.endsWith("*/")) {
-                        inMultilineComment = false;
-                    }
-                    noCommentLines.add("");
-                    continue;
-                }
-            }
-
-            noCommentLines.add(trimmedLine);
-        }
-
-        return noCommentLines;
-    }
-
     /**
      * Checks whether this line is in fact a directive disguised as a comment.
      *
@@ -263,77 +351,42 @@ public class SqlScript {
     }
 
     /**
-     * Trims these lines of leading and trailing whitespace.
+     * Checks whether a string literal (or quoted identifier) starts at this position of the line. Single (') and
+     * double (") quotes are recognized by default.
      *
-     * @param lines The input lines.
+     * @param line The line being tokenized.
+     * @param pos  The position in the line to examine. This position is never inside a string literal or a comment.
      *
-     * @return The input lines, trimmed of leading and trailing whitespace.
+     * @return The characters opening the string literal or {@code null} if no string literal starts at this position.
      */
-    private List<String> trimLines(List<String> lines) {
-        List<String> trimmedLines = new ArrayList<String>(lines.size());
-
-        for (String line : lines) {
-            String trimmedLine = line.trim();
-            trimmedLines.add(trimmedLine);
+    protected String getStringLiteralOpening(String line, int pos) {
+        char c = line.charAt(pos);
+        if (c == '\'') {
+            return "'";
         }
-
-        return trimmedLines;
-    }
-
-    /**
-     * Parses the textual data provided by this reader into a list of lines.
-     *
-     * @param reader The reader for the textual data.
-     *
-     * @return The list of lines (in order).
-     *
-     * @throws IllegalStateException Thrown when the textual data parsing failed.
-     */
-    private List<String> readLines(Reader reader) {
-        List<String> lines = new ArrayList<String>();
-
-        BufferedReader bufferedReader = new BufferedReader(reader);
-        String line;
-
-        try {
-            while ((line = bufferedReader.readLine()) != null) {
-                lines.add(line);
-            }
-        } catch (IOException e) {
-            throw new IllegalStateException("Cannot parse lines", e);
+        if (c == '"') {
+            return "\"";
         }
-
-        return lines;
+        return null;
     }
 
     /**
-     * Replaces the placeholders in these lines with their values.
+     * Retrieves the characters closing a string literal that was opened with these characters. Escaped delimiters
+     * such as '' are handled implicitly, as they close the string literal and immediately open a new one.
      *
-     * @param lines               The input lines.
-     * @param placeholderReplacer The placeholder replacer to apply to sql migration scripts.
+     * @param opening The characters that opened the string literal.
      *
-     * @return The lines with placeholders replaced.
+     * @return The characters closing the string literal.
      */
-    private List<String> replacePlaceholders(List<String> lines, PlaceholderReplacer placeholderReplacer) {
-        List<String> noPlaceholderLines = new ArrayList<String>(lines.size());
-
-        for (String line : lines) {
-            noPlaceholderLines.add(placeholderReplacer.replacePlaceholders(line));
-        }
-
-        return noPlaceholderLines;
+    protected String getStringLiteralClosing(String opening) {
+        return opening;
     }
 
     /**
-     * Checks whether the statement we have assembled so far ends with an open multi-line string literal (which will be
-     * continued on the next line).
-     *
-     * @param statement The current statement, assembled from the lines we have parsed so far. May not yet be complete.
-     *
-     * @return {@code true} if the statement is unfinished and the end is currently in the middle of a multi-line string
-     *         literal. {@code false} if not.
+     * @return {@code true} if a backslash inside a string literal escapes the character following it. {@code false}
+     *         if it has no special meaning.
      */
-    protected boolean endsWithOpenMultilineStringLiteral(String statement) {
+    protected boolean supportsBackslashEscapes() {
         return false;
     }
 }
@@ -21,6 +21,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import java.sql.SQLException;
+import java.util.regex.Pattern;
 
 /**
  * A sql statement from a script that can be executed at once against a database.
@@ -31,6 +32,17 @@ public class SqlStatement {
      */
     private static final Log LOG = LogFactory.getLog(SqlStatement.class);
 
+    /**
+     * The keywords starting data manipulation statements, which can safely be sent to the database as part of a batch.
+     */
+    private static final String[] BATCHABLE_KEYWORDS = {"INSERT", "UPDATE", "DELETE", "MERGE", "REPLACE"};
+
+    /**
+     * The clauses with which a data manipulation statement returns a result set (PostgreSQL, Oracle and SQL Server),
+     * which is not allowed as part of a batch.
+     */
+    private static final Pattern RESULT_SET_CLAUSE = Pattern.compile("\\b(RETURNING|OUTPUT)\\b", Pattern.CASE_INSENSITIVE);
+
     /**
      * The original line number where the statement was located in the script it came from.
      */
@@ -66,6 +78,31 @@ public class SqlStatement {
         return sql;
     }
 
+    /**
+     * Checks whether this statement only manipulates data and can therefore be executed as part of a batch. Ddl,
+     * statements returning a result set and all other statements must be executed on their own.
+     *
+     * @return {@code true} if it can be batched, {@code false} if not.
+     */
+    public boolean isBatchable() {
+        int start = 0;
+        while ((start < sql.length()) && Character.isWhitespace(sql.charAt(start))) {
+            start++;
+        }
+        int end = start;
+        while ((end < sql.length()) && Character.isLetter(sql.charAt(end))) {
+            end++;
+        }
+
+        String keyword = sql.substring(start, end);
+        for (String batchableKeyword : BATCHABLE_KEYWORDS) {
+            if (batchableKeyword.equalsIgnoreCase(keyword)) {
+                return !RESULT_SET_CLAUSE.matcher(sql).find();
+            }
+        }
+        return false;
+    }
+
     /**
      * Executes this statement against the database.
      *
@@ -0,0 +1,340 @@
+/**
+ * Copyright (C) 2010-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.migration.sql;
+
+import com.googlecode.flyway.core.util.ObjectUtils;
+import com.googlecode.flyway.core.util.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Streaming tokenizer that splits the sql script provided by a reader into statements, one at a time.
+ * <p/>
+ * Every character of the script is examined exactly once. String literals and comments are tracked as tokenizer state
+ * across lines, which keeps both parse time and memory linear in the size of the script. The database-specific rules
+ * (string literal delimiters, statement delimiter changes and comment directives) are supplied by the SqlScript this
+ * tokenizer works for.
+ */
+class SqlTokenizer {
+    /**
+     * Logger.
+     */
+    private static final Log LOG = LogFactory.getLog(SqlTokenizer.class);
+
+    /**
+     * The maximum number of characters of the start of a statement passed on to the delimiter change detection.
+     */
+    private static final int STATEMENT_START_MAX_LENGTH = 100;
+
+    /**
+     * The reader for the sql script.
+     */
+    private final BufferedReader reader;
+
+    /**
+     * The placeholder replacer to apply to every line of the script.
+     */
+    private final PlaceholderReplacer placeholderReplacer;
+
+    /**
+     * The sql script supplying the database-specific parsing rules.
+     */
+    private final SqlScript sqlScript;
+
+    /**
+     * The number of the line that was read last.
+     */
+    private int lineNumber;
+
+    /**
+     * The current statement delimiter. {@code null} for no delimiter.
+     */
+    private String delimiter = SqlScript.DEFAULT_STATEMENT_DELIMITER;
+
+    /**
+     * The characters that will close the string literal we are currently in. {@code null} if we are not in a string
+     * literal.
+     */
+    private String stringLiteralClosing;
+
+    /**
+     * Flag indicating whether we are currently inside a multi-line (/* * /) comment.
+     */
+    private boolean inBlockComment;
+
+    /**
+     * Flag indicating whether the multi-line comment we are currently in is being stripped, as opposed to being kept
+     * because it follows sql on the same line.
+     */
+    private boolean blockCommentStripped;
+
+    /**
+     * The sql of the statement assembled so far.
+     */
+    private final StringBuilder statementSql = new StringBuilder();
+
+    /**
+     * The start of the statement assembled so far, reduced to a single line.
+     */
+    private final StringBuilder statementStart = new StringBuilder();
+
+    /**
+     * The line number where the statement assembled so far starts.
+     */
+    private int statementLineNumber;
+
+    /**
+     * Creates a new tokenizer for the script provided by this reader.
+     *
+     * @param reader              The reader for the sql script.
+     * @param placeholderReplacer The placeholder replacer to apply to every line of the script.
+     * @param sqlScript           The sql script supplying the database-specific parsing rules.
+     */
+    SqlTokenizer(Reader reader, PlaceholderReplacer placeholderReplacer, SqlScript sqlScript) {
+        this.reader = new BufferedReader(reader);
+        this.placeholderReplacer = placeholderReplacer;
+        this.sqlScript = sqlScript;
+    }
+
+    /**
+     * Reads the script up to the end of the next statement.
+     *
+     * @return The next statement, or {@code null} if the end of the script has been reached.
+     * @throws IllegalStateException Thrown when the script could not be read.
+     */
+    SqlStatement nextStatement() {
+        String line;
+        while ((line = readLine()) != null) {
+            lineNumber++;
+            if ((lineNumber == 1) && line.startsWith("\ufeff")) {
+                // Strip UTF-8 BOM
+                line = line.substring(1);
+            }
+            SqlStatement sqlStatement = tokenizeLine(placeholderReplacer.replacePlaceholders(line));
+            if (sqlStatement != null) {
+                return sqlStatement;
+            }
+        }
+
+        // Catch any statement not followed by delimiter.
+        String sql = statementSql.toString();
+        resetStatement();
+        if (StringUtils.hasText(sql)) {
+            return new SqlStatement(statementLineNumber, sql);
+        }
+
+        return null;
+    }
+
+    /**
+     * Reads the next line of the script.
+     *
+     * @return The line, or {@code null} if the end of the script has been reached.
+     * @throws IllegalStateException Thrown when the script could not be read.
+     */
+    private String readLine() {
+        try {
+            return reader.readLine();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot parse lines", e);
+        }
+    }
+
+    /**
+     * Runs through the characters of this line, updates the tokenizer state accordingly and adds the sql it contains
+     * to the current statement.
+     *
+     * @param line The line to tokenize, with placeholders already replaced.
+     * @return The statement this line completes, or {@code null} if the statement continues on the next lines.
+     */
+    private SqlStatement tokenizeLine(String line) {
+        boolean commentDirective = (stringLiteralClosing == null) && !inBlockComment
+                && sqlScript.isCommentDirective(line.trim());
+        boolean backslashEscapes = sqlScript.supportsBackslashEscapes();
+
+        // Index of the first character of the line that belongs to the statement. -1 if none.
+        int contentStart = (stringLiteralClosing == null) ? -1 : 0;
+        // Index after the last character of the line that is neither whitespace, nor comment, nor inside a literal.
+        int significantEnd = -1;
+
+        int length = line.length();
+        int pos = 0;
+        while (pos < length) {
+            char c = line.charAt(pos);
+
+            if (stringLiteralClosing != null) {
+                if (backslashEscapes && (c == '\\')) {
+                    pos += 2;
+                } else if (line.startsWith(stringLiteralClosing, pos)) {
+                    pos += stringLiteralClosing.length();
+                    stringLiteralClosing = null;
+                    significantEnd = pos;
+                } else {
+                    pos++;
+                }
+                continue;
+            }
+
+            if (inBlockComment) {
+                if ((contentStart < 0) && !blockCommentStripped && !Character.isWhitespace(c)) {
+                    contentStart = pos;
+                }
+                if (line.startsWith("*/", pos)) {
+                    inBlockComment = false;
+                    pos += 2;
+                } else {
+                    pos++;
+                }
+                continue;
+            }
+
+            if (!commentDirective) {
+                if (line.startsWith("--", pos)) {
+                    break;
+                }
+                if (line.startsWith("/*", pos)) {
+                    inBlockComment = true;
+                    blockCommentStripped = contentStart < 0;
+                    pos += 2;
+                    continue;
+                }
+            }
+
+            if (Character.isWhitespace(c)) {
+                pos++;
+                continue;
+            }
+
+            if (contentStart < 0) {
+                contentStart = pos;
+            }
+
+            String stringLiteralOpening = sqlScript.getStringLiteralOpening(line, pos);
+            if (stringLiteralOpening != null) {
+                stringLiteralClosing = sqlScript.getStringLiteralClosing(stringLiteralOpening);
+                pos += stringLiteralOpening.length();
+                continue;
+            }
+
+            pos++;
+            significantEnd = pos;
+        }
+
+        if (contentStart < 0) {
+            // Nothing but whitespace and comments on this line
+            return null;
+        }
+
+        if ((stringLiteralClosing != null) || (inBlockComment && !blockCommentStripped)) {
+            // The statement continues on the next line, and so does the literal or comment we are in
+            appendToStatement(line.substring(contentStart));
+            return null;
+        }
+
+        String content = line.substring(contentStart, trailingWhitespaceStart(line));
+        int lineStart = appendToStatement(content);
+
+        String oldDelimiter = delimiter;
+        delimiter = sqlScript.changeDelimiterIfNecessary(statementStart.toString(), content, delimiter);
+        if (!ObjectUtils.nullSafeEquals(delimiter, oldDelimiter) && sqlScript.isDelimiterChangeExplicit()) {
+            resetStatement();
+            return null;
+        }
+
+        if ((delimiter == null) || !endsWithDelimiter(line, contentStart, significantEnd)) {
+            return null;
+        }
+
+        statementSql.setLength(lineStart + significantEnd - delimiter.length() - contentStart);
+        if (!sqlScript.isDelimiterChangeExplicit()) {
+            delimiter = SqlScript.DEFAULT_STATEMENT_DELIMITER;
+        }
+
+        SqlStatement sqlStatement = null;
+        String sql = statementSql.toString();
+        if (StringUtils.hasText(sql)) {
+            sqlStatement = new SqlStatement(statementLineNumber, sql);
+            LOG.debug("Found statement at line " + statementLineNumber + ": " + sql);
+        }
+        resetStatement();
+        return sqlStatement;
+    }
+
+    /**
+     * Checks whether the significant part of this line ends with the current delimiter.
+     *
+     * @param line           The line to check.
+     * @param contentStart   The index of the first character of the line that belongs to the statement.
+     * @param significantEnd The index after the last significant character of the line.
+     * @return {@code true} if it does, {@code false} if it doesn't.
+     */
+    private boolean endsWithDelimiter(String line, int contentStart, int significantEnd) {
+        int delimiterStart = significantEnd - delimiter.length();
+        return (delimiterStart >= contentStart)
+                && line.regionMatches(true, delimiterStart, delimiter, 0, delimiter.length());
+    }
+
+    /**
+     * Appends this sql from a new line to the current statement.
+     *
+     * @param sql The sql to append.
+     * @return The position in the statement where the sql of this line starts.
+     */
+    private int appendToStatement(String sql) {
+        if (statementSql.length() == 0) {
+            statementLineNumber = lineNumber;
+        } else {
+            statementSql.append("\n");
+        }
+        int lineStart = statementSql.length();
+        statementSql.append(sql);
+
+        if (statementStart.length() < STATEMENT_START_MAX_LENGTH) {
+            if (statementStart.length() > 0) {
+                statementStart.append(" ");
+            }
+            statementStart.append(sql, 0, Math.min(sql.length(), STATEMENT_START_MAX_LENGTH - statementStart.length()));
+        }
+
+        return lineStart;
+    }
+
+    /**
+     * Discards the statement assembled so far.
+     */
+    private void resetStatement() {
+        statementSql.setLength(0);
+        statementStart.setLength(0);
+    }
+
+    /**
+     * Finds where the trailing whitespace of this line starts.
+     *
+     * @param line The line to analyse.
+     * @return The index of the first character of the trailing whitespace.
+     */
+    private static int trailingWhitespaceStart(String line) {
+        int end = line.length();
+        while ((end > 0) && Character.isWhitespace(line.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+}
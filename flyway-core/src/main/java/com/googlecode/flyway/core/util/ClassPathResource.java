@@ -17,14 +17,23 @@ package com.googlecode.flyway.core.util;
 
 import com.googlecode.flyway.core.exception.FlywayException;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
 
 /**
  * A resource on the classpath.
@@ -69,9 +78,9 @@ public class ClassPathResource implements Comparable<ClassPathResource> {
     }
 
     /**
-     * @return The url of this resource.
+     * @return The url of this resource. {@code null} if it can not be found.
      */
-    private URL getUrl() {
+    public URL getUrl() {
         return getClassLoader().getResource(location);
     }
 
@@ -83,19 +92,22 @@ public class ClassPathResource implements Comparable<ClassPathResource> {
     }
 
     /**
-     * Loads this resource as a string.
+     * Loads this resource as a string. Resources in directories on the file system are read in one go through their
+     * file channel, others through the stream of the classloader.
      *
      * @param encoding The encoding to use.
      * @return The string contents of the resource.
      */
     public String loadAsString(String encoding) {
         try {
-            InputStream inputStream = getClassLoader().getResourceAsStream(location);
-            if (inputStream == null) {
-                throw new FlywayException("Unable to obtain inputstream for resource: " + location);
+            String result;
+            File file = toFile(getUrl());
+            if (file != null) {
+                result = loadFileAsString(file, encoding);
+            } else {
+                Reader reader = openReader(encoding);
+                result = FileCopyUtils.copyToString(reader);
             }
-            Reader reader = new InputStreamReader(inputStream, Charset.forName(encoding));
-            String result = FileCopyUtils.copyToString(reader);
 
             //Strip UTF-8 BOM if necessary
             if (result.startsWith("\ufeff")) {
@@ -108,6 +120,98 @@ public class ClassPathResource implements Comparable<ClassPathResource> {
         }
     }
 
+    /**
+     * Converts this url to the file it points to.
+     *
+     * @param url The url of this resource. {@code null} if it can not be found.
+     * @return The file, or {@code null} if the url doesn't point to a file on the file system.
+     */
+    private static File toFile(URL url) {
+        if ((url == null) || !"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return new File(url.toURI());
+        } catch (URISyntaxException e) {
+            return null;
+        } catch (IllegalArgumentException e) {
+            // Not a hierarchical file uri, like one with an authority component
+            return null;
+        }
+    }
+
+    /**
+     * Loads the contents of this file as a string, reading all its bytes at once into a buffer of the exact size of the
+     * file and decoding them in a single pass.
+     *
+     * @param file     The file containing this resource.
+     * @param encoding The encoding to use.
+     * @return The string contents of the file, including a possible BOM.
+     * @throws IOException when the file could not be read.
+     */
+    private String loadFileAsString(File file, String encoding) throws IOException {
+        FileInputStream inputStream = new FileInputStream(file);
+        try {
+            FileChannel channel = inputStream.getChannel();
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new FlywayException("Resource too large to load: " + location + " (" + size + " bytes)");
+            }
+
+            ByteBuffer bytes = ByteBuffer.allocate((int) size);
+            while (bytes.hasRemaining() && (channel.read(bytes) >= 0)) {
+                // Keep reading until the buffer is full or the file ends
+            }
+            bytes.flip();
+
+            return newDecoder(encoding).decode(bytes).toString();
+        } finally {
+            try {
+                inputStream.close();
+            } catch (IOException e) {
+                //Ignore
+            }
+        }
+    }
+
+    /**
+     * Creates a decoder for this encoding.
+     *
+     * @param encoding The encoding to use.
+     * @return The decoder, with the same handling of invalid input as the InputStreamReader used for other resources.
+     */
+    private static CharsetDecoder newDecoder(String encoding) {
+        return Charset.forName(encoding).newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Opens a reader for the contents of this resource, for consuming it as a stream instead of loading it into
+     * memory at once. Resources on the file system are read through a file channel. The caller is responsible for
+     * closing the reader.
+     *
+     * @param encoding The encoding to use.
+     * @return The reader for the contents of the resource.
+     */
+    public Reader openReader(String encoding) {
+        File file = toFile(getUrl());
+        if (file != null) {
+            try {
+                FileChannel channel = new FileInputStream(file).getChannel();
+                return Channels.newReader(channel, newDecoder(encoding), -1);
+            } catch (FileNotFoundException e) {
+                throw new FlywayException("Unable to open resource: " + location, e);
+            }
+        }
+
+        InputStream inputStream = getClassLoader().getResourceAsStream(location);
+        if (inputStream == null) {
+            throw new FlywayException("Unable to obtain inputstream for resource: " + location);
+        }
+        return new InputStreamReader(inputStream, Charset.forName(encoding));
+    }
+
     /**
      * @return The filename of this resource.
      */
@@ -18,6 +18,7 @@ package com.googlecode.flyway.core.util.jdbc;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -25,11 +26,43 @@ import java.util.Map;
  * Collection of utility methods for querying the DB. Inspired by Spring's JdbcTemplate.
  */
 public abstract class JdbcTemplate {
+    /**
+     * The maximum number of prepared statements kept open while statements are being reused.
+     */
+    private static final int PREPARED_STATEMENT_CACHE_SIZE = 32;
+
     /**
      * The DB connection to use.
      */
     private Connection connection;
 
+    /**
+     * The number of nested scopes in which statements are being reused. 0 if every statement is closed right after it
+     * has been executed.
+     */
+    private int statementReuseDepth;
+
+    /**
+     * The ordinary statement reused for all sql executed without parameters. {@code null} if it hasn't been created
+     * yet or if statements are not being reused.
+     */
+    private Statement reusableStatement;
+
+    /**
+     * The prepared statements being reused, keyed by sql, least recently used first.
+     */
+    private final Map<String, PreparedStatement> preparedStatementCache =
+            new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                    if (size() > PREPARED_STATEMENT_CACHE_SIZE) {
+                        JdbcUtils.closeStatement(eldest.getValue());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+
     /**
      * Creates a new JdbcTemplate.
      *
@@ -46,6 +79,87 @@ public abstract class JdbcTemplate {
         return connection;
     }
 
+    /**
+     * Starts reusing statements. Until the matching call to {@link #endStatementReuse()}, a single ordinary statement
+     * is used for all sql without parameters and prepared statements are cached by sql, instead of creating and
+     * closing a new statement for every call. Calls may be nested.
+     */
+    public void beginStatementReuse() {
+        statementReuseDepth++;
+    }
+
+    /**
+     * Ends the scope started by the matching call to {@link #beginStatementReuse()}. When the outermost scope ends, all
+     * reused statements are closed.
+     */
+    public void endStatementReuse() {
+        if (statementReuseDepth == 0) {
+            return;
+        }
+
+        statementReuseDepth--;
+        if (statementReuseDepth == 0) {
+            JdbcUtils.closeStatement(reusableStatement);
+            reusableStatement = null;
+
+            for (PreparedStatement preparedStatement : preparedStatementCache.values()) {
+                JdbcUtils.closeStatement(preparedStatement);
+            }
+            preparedStatementCache.clear();
+        }
+    }
+
+    /**
+     * Creates an ordinary statement, or returns the reused one if statements are being reused.
+     *
+     * @return The statement. It must be released with {@link #releaseStatement(java.sql.Statement)} after use.
+     * @throws SQLException when the statement could not be created.
+     */
+    private Statement createStatement() throws SQLException {
+        if (statementReuseDepth == 0) {
+            return connection.createStatement();
+        }
+
+        if (reusableStatement == null) {
+            reusableStatement = connection.createStatement();
+        }
+        return reusableStatement;
+    }
+
+    /**
+     * Creates a prepared statement for this sql, or returns the cached one if statements are being reused.
+     *
+     * @param sql The sql to prepare.
+     * @return The prepared statement, without any parameters set. It must be released with
+     *         {@link #releaseStatement(java.sql.Statement)} after use.
+     * @throws SQLException when the statement could not be prepared.
+     */
+    private PreparedStatement prepareStatement(String sql) throws SQLException {
+        if (statementReuseDepth == 0) {
+            return connection.prepareStatement(sql);
+        }
+
+        PreparedStatement preparedStatement = preparedStatementCache.get(sql);
+        if (preparedStatement == null) {
+            preparedStatement = connection.prepareStatement(sql);
+            preparedStatementCache.put(sql, preparedStatement);
+        } else {
+            preparedStatement.clearParameters();
+        }
+        return preparedStatement;
+    }
+
+    /**
+     * Releases this statement after use. It is closed, unless statements are being reused.
+     *
+     * @param statement The statement to release. May be {@code null}.
+     */
+    private void releaseStatement(Statement statement) {
+        if (statementReuseDepth == 0) {
+            JdbcUtils.closeStatement(statement);
+        }
+    }
+
     /**
      * Executes this query with these parameters against this connection.
      *
@@ -60,7 +174,7 @@ public abstract class JdbcTemplate {
 
         List<Map<String, String>> result;
         try {
-            statement = connection.prepareStatement(query);
+            statement = prepareStatement(query);
             for (int i = 0; i < params.length; i++) {
                 statement.setString(i + 1, params[i]);
             }
@@ -76,7 +190,7 @@ public abstract class JdbcTemplate {
             }
         } finally {
             JdbcUtils.closeResultSet(resultSet);
-            JdbcUtils.closeStatement(statement);
+            releaseStatement(statement);
         }
 
 
@@ -97,7 +211,7 @@ public abstract class JdbcTemplate {
 
         List<String> result;
         try {
-            statement = connection.prepareStatement(query);
+            statement = prepareStatement(query);
             for (int i = 0; i < params.length; i++) {
                 statement.setString(i + 1, params[i]);
             }
@@ -109,7 +223,7 @@ public abstract class JdbcTemplate {
             }
         } finally {
             JdbcUtils.closeResultSet(resultSet);
-            JdbcUtils.closeStatement(statement);
+            releaseStatement(statement);
         }
 
         return result;
@@ -129,7 +243,7 @@ public abstract class JdbcTemplate {
 
         int result;
         try {
-            statement = connection.prepareStatement(query);
+            statement = prepareStatement(query);
             for (int i = 0; i < params.length; i++) {
                 statement.setString(i + 1, params[i]);
             }
@@ -138,7 +252,7 @@ public abstract class JdbcTemplate {
             result = resultSet.getInt(1);
         } finally {
             JdbcUtils.closeResultSet(resultSet);
-            JdbcUtils.closeStatement(statement);
+            releaseStatement(statement);
         }
 
         return result;
@@ -158,7 +272,7 @@ public abstract class JdbcTemplate {
 
         String result;
         try {
-            statement = connection.prepareStatement(query);
+            statement = prepareStatement(query);
             for (int i = 0; i < params.length; i++) {
                 statement.setString(i + 1, params[i]);
             }
@@ -169,7 +283,7 @@ public abstract class JdbcTemplate {
             }
         } finally {
             JdbcUtils.closeResultSet(resultSet);
-            JdbcUtils.closeStatement(statement);
+            releaseStatement(statement);
         }
 
         return result;
@@ -226,7 +340,7 @@ public abstract class JdbcTemplate {
             statement = prepareStatement(sql, params);
             statement.execute();
         } finally {
-            JdbcUtils.closeStatement(statement);
+            releaseStatement(statement);
         }
     }
 
@@ -239,13 +353,45 @@ public abstract class JdbcTemplate {
     public void executeStatement(String sql) throws SQLException {
         Statement statement = null;
         try {
-            statement = connection.createStatement();
+            statement = createStatement();
             statement.execute(sql);
+        } finally {
+            releaseStatement(statement);
+        }
+    }
+
+    /**
+     * Executes these sql statements as a single batch using an ordinary Statement. A new statement is always used, so no
+     * half-executed batch can linger on a reused one.
+     *
+     * @param sqls The statements to execute.
+     * @return The update counts of the statements, in the order they were added to the batch.
+     * @throws SQLException when the execution failed. A {@link BatchUpdateException} indicates which statements of the
+     *                      batch were executed successfully.
+     */
+    public int[] executeBatch(List<String> sqls) throws SQLException {
+        Statement statement = null;
+        try {
+            statement = connection.createStatement();
+            for (String sql : sqls) {
+                statement.addBatch(sql);
+            }
+            return statement.executeBatch();
         } finally {
             JdbcUtils.closeStatement(statement);
         }
     }
 
+    /**
+     * Checks whether the database and its driver support executing statements as a batch.
+     *
+     * @return {@code true} if batches are supported, {@code false} if not.
+     * @throws SQLException when the database metadata could not be read.
+     */
+    public boolean supportsBatchUpdates() throws SQLException {
+        return connection.getMetaData().supportsBatchUpdates();
+    }
+
     /**
      * Executes this update sql statement.
      *
@@ -259,7 +405,7 @@ public abstract class JdbcTemplate {
             statement = prepareStatement(sql, params);
             statement.executeUpdate();
         } finally {
-            JdbcUtils.closeStatement(statement);
+            releaseStatement(statement);
         }
     }
 
@@ -268,11 +414,12 @@ public abstract class JdbcTemplate {
      *
      * @param sql    The sql to execute.
      * @param params The params.
-     * @return The new prepared statement.
+     * @return The prepared statement. It must be released with {@link #releaseStatement(java.sql.Statement)} after
+     *         use.
      * @throws SQLException when the statement could not be prepared.
      */
     private PreparedStatement prepareStatement(String sql, Object[] params) throws SQLException {
-        PreparedStatement statement = connection.prepareStatement(sql);
+        PreparedStatement statement = prepareStatement(sql);
         for (int i = 0; i < params.length; i++) {
             if (params[i] == null) {
                 setNull(statement, i + 1);
@@ -309,7 +456,7 @@ public abstract class JdbcTemplate {
 
         List<T> results;
         try {
-            statement = connection.createStatement();
+            statement = createStatement();
             resultSet = statement.executeQuery(query);
 
             results = new ArrayList<T>();
@@ -318,7 +465,7 @@ public abstract class JdbcTemplate {
             }
         } finally {
             JdbcUtils.closeResultSet(resultSet);
-            JdbcUtils.closeStatement(statement);
+            releaseStatement(statement);
         }
 
         return results;
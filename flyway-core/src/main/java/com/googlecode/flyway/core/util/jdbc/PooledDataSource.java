@@ -0,0 +1,475 @@
+/**
+ * Copyright (C) 2010-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.util.jdbc;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Lightweight DataSource keeping the connections of another DataSource (typically a {@link DriverDataSource}) open for
+ * reuse, instead of opening a new physical connection every time one is requested.
+ * <p/>
+ * Closing a connection obtained from this DataSource hands it back to the pool. Connections idle for longer than the
+ * max idle time are closed the next time the pool is used. {@link #close()} closes all idle connections.
+ */
+public class PooledDataSource implements DataSource {
+    /**
+     * Logger.
+     */
+    private static final Log LOG = LogFactory.getLog(PooledDataSource.class);
+
+    /**
+     * The DataSource providing the physical connections.
+     */
+    private final DataSource targetDataSource;
+
+    /**
+     * The maximum number of connections open at the same time. (default: 10)
+     */
+    private int maxSize = 10;
+
+    /**
+     * The time in milliseconds after which an idle connection is closed. (default: 60000)
+     */
+    private long maxIdleTime = 60000;
+
+    /**
+     * The maximum time in milliseconds to wait for a connection when all of them are in use. (default: 30000)
+     */
+    private long maxWait = 30000;
+
+    /**
+     * The query to execute to check that an idle connection still works before handing it out again. {@code null} to
+     * only check that it has not been closed. (default: {@code null})
+     */
+    private String validationQuery;
+
+    /**
+     * The idle connections, the most recently returned one first.
+     */
+    private final LinkedList<IdleConnection> idleConnections = new LinkedList<IdleConnection>();
+
+    /**
+     * The number of connections currently handed out, or being opened.
+     */
+    private int activeCount;
+
+    /**
+     * Flag indicating whether this pool has been closed.
+     */
+    private boolean closed;
+
+    /**
+     * Creates a new pool for the connections of this DataSource.
+     *
+     * @param targetDataSource The DataSource providing the physical connections.
+     */
+    public PooledDataSource(DataSource targetDataSource) {
+        this.targetDataSource = targetDataSource;
+    }
+
+    /**
+     * @return The DataSource providing the physical connections.
+     */
+    public DataSource getTargetDataSource() {
+        return targetDataSource;
+    }
+
+    /**
+     * @return The maximum number of connections open at the same time. (default: 10)
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @param maxSize The maximum number of connections open at the same time. (default: 10)
+     */
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return The time in milliseconds after which an idle connection is closed. (default: 60000)
+     */
+    public long getMaxIdleTime() {
+        return maxIdleTime;
+    }
+
+    /**
+     * @param maxIdleTime The time in milliseconds after which an idle connection is closed. (default: 60000)
+     */
+    public void setMaxIdleTime(long maxIdleTime) {
+        this.maxIdleTime = maxIdleTime;
+    }
+
+    /**
+     * @return The maximum time in milliseconds to wait for a connection when all of them are in use. (default: 30000)
+     */
+    public long getMaxWait() {
+        return maxWait;
+    }
+
+    /**
+     * @param maxWait The maximum time in milliseconds to wait for a connection when all of them are in use.
+     *                (default: 30000)
+     */
+    public void setMaxWait(long maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * @return The query to execute to check that an idle connection still works before handing it out again.
+     *         {@code null} to only check that it has not been closed. (default: {@code null})
+     */
+    public String getValidationQuery() {
+        return validationQuery;
+    }
+
+    /**
+     * @param validationQuery The query to execute to check that an idle connection still works before handing it out
+     *                        again. {@code null} to only check that it has not been closed. (default: {@code null})
+     */
+    public void setValidationQuery(String validationQuery) {
+        this.validationQuery = validationQuery;
+    }
+
+    /**
+     * Hands out an idle connection of the pool if there is a valid one, or opens a new one otherwise.
+     *
+     * @return The connection. Closing it hands it back to the pool.
+     * @throws SQLException when no connection could be obtained.
+     */
+    public Connection getConnection() throws SQLException {
+        Connection connection = borrowConnection();
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                new PooledConnectionHandler(connection));
+    }
+
+    /**
+     * Connections for other credentials are not pooled. This opens a new connection from the target DataSource.
+     *
+     * @param username The user to connect with.
+     * @param password The password to connect with.
+     * @return The new connection.
+     * @throws SQLException when no connection could be obtained.
+     */
+    public Connection getConnection(String username, String password) throws SQLException {
+        return targetDataSource.getConnection(username, password);
+    }
+
+    /**
+     * Closes all idle connections and stops handing out connections. Connections still in use are closed as soon as
+     * they are handed back.
+     */
+    public void close() {
+        List<Connection> connectionsToClose = new ArrayList<Connection>();
+        synchronized (this) {
+            closed = true;
+            for (IdleConnection idleConnection : idleConnections) {
+                connectionsToClose.add(idleConnection.connection);
+            }
+            idleConnections.clear();
+            notifyAll();
+        }
+        closeConnections(connectionsToClose);
+    }
+
+    /**
+     * @return The number of idle connections currently kept open by the pool.
+     */
+    public synchronized int getIdleCount() {
+        return idleConnections.size();
+    }
+
+    /**
+     * Obtains a physical connection, either idle in the pool or newly opened.
+     *
+     * @return The physical connection.
+     * @throws SQLException when no connection could be obtained.
+     */
+    private Connection borrowConnection() throws SQLException {
+        long deadline = System.currentTimeMillis() + maxWait;
+        while (true) {
+            Connection idleConnection = null;
+            List<Connection> evictedConnections;
+            synchronized (this) {
+                while (true) {
+                    if (closed) {
+                        throw new SQLException("Connection pool has been closed");
+                    }
+                    evictedConnections = evictIdleConnections();
+                    if (!idleConnections.isEmpty()) {
+                        idleConnection = idleConnections.removeFirst().connection;
+                        break;
+                    }
+                    if (activeCount < maxSize) {
+                        break;
+                    }
+
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        throw new SQLException("Timeout waiting for a connection: all " + maxSize
+                                + " connections of the pool are in use");
+                    }
+                    try {
+                        wait(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a connection");
+                    }
+                }
+                activeCount++;
+            }
+            closeConnections(evictedConnections);
+
+            if (idleConnection == null) {
+                try {
+                    return targetDataSource.getConnection();
+                } catch (SQLException e) {
+                    releaseSlot();
+                    throw e;
+                } catch (RuntimeException e) {
+                    releaseSlot();
+                    throw e;
+                }
+            }
+
+            if (isValid(idleConnection)) {
+                return idleConnection;
+            }
+            LOG.debug("Discarding invalid pooled connection");
+            JdbcUtils.closeConnection(idleConnection);
+            releaseSlot();
+        }
+    }
+
+    /**
+     * Hands this physical connection back to the pool, or closes it if it can not be reused.
+     *
+     * @param connection The physical connection.
+     */
+    private void returnConnection(Connection connection) {
+        boolean reusable;
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            reusable = !connection.isClosed();
+        } catch (SQLException e) {
+            LOG.debug("Discarding pooled connection which could not be reset: " + e.getMessage());
+            reusable = false;
+        }
+
+        synchronized (this) {
+            activeCount--;
+            if (reusable && !closed) {
+                idleConnections.addFirst(new IdleConnection(connection, System.currentTimeMillis()));
+                connection = null;
+            }
+            notifyAll();
+        }
+        if (connection != null) {
+            JdbcUtils.closeConnection(connection);
+        }
+    }
+
+    /**
+     * Frees the slot reserved for a connection that could not be handed out.
+     */
+    private synchronized void releaseSlot() {
+        activeCount--;
+        notifyAll();
+    }
+
+    /**
+     * Removes the connections which have been idle for too long from the pool. Must be called while holding the lock
+     * on this pool.
+     *
+     * @return The removed connections, to close once the lock has been released.
+     */
+    private List<Connection> evictIdleConnections() {
+        List<Connection> evictedConnections = new ArrayList<Connection>();
+        long oldestAllowed = System.currentTimeMillis() - maxIdleTime;
+        Iterator<IdleConnection> iterator = idleConnections.iterator();
+        while (iterator.hasNext()) {
+            IdleConnection idleConnection = iterator.next();
+            if (idleConnection.idleSince < oldestAllowed) {
+                evictedConnections.add(idleConnection.connection);
+                iterator.remove();
+            }
+        }
+        return evictedConnections;
+    }
+
+    /**
+     * Checks whether this idle connection can still be used.
+     *
+     * @param connection The connection to check.
+     * @return {@code true} if it can, {@code false} if it can't.
+     */
+    private boolean isValid(Connection connection) {
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (validationQuery != null) {
+                Statement statement = connection.createStatement();
+                try {
+                    statement.execute(validationQuery);
+                } finally {
+                    JdbcUtils.closeStatement(statement);
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Closes these physical connections.
+     *
+     * @param connections The connections to close.
+     */
+    private void closeConnections(List<Connection> connections) {
+        for (Connection connection : connections) {
+            JdbcUtils.closeConnection(connection);
+        }
+    }
+
+    public int getLoginTimeout() throws SQLException {
+        return targetDataSource.getLoginTimeout();
+    }
+
+    public void setLoginTimeout(int timeout) throws SQLException {
+        targetDataSource.setLoginTimeout(timeout);
+    }
+
+    public PrintWriter getLogWriter() throws SQLException {
+        return targetDataSource.getLogWriter();
+    }
+
+    public void setLogWriter(PrintWriter pw) throws SQLException {
+        targetDataSource.setLogWriter(pw);
+    }
+
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        throw new UnsupportedOperationException("unwrap");
+    }
+
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return DataSource.class.equals(iface);
+    }
+
+    /**
+     * A physical connection idle in the pool.
+     */
+    private static class IdleConnection {
+        /**
+         * The physical connection.
+         */
+        private final Connection connection;
+
+        /**
+         * The time in milliseconds at which the connection was handed back to the pool.
+         */
+        private final long idleSince;
+
+        /**
+         * Creates a new idle connection.
+         *
+         * @param connection The physical connection.
+         * @param idleSince  The time in milliseconds at which the connection was handed back to the pool.
+         */
+        IdleConnection(Connection connection, long idleSince) {
+            this.connection = connection;
+            this.idleSince = idleSince;
+        }
+    }
+
+    /**
+     * Handler for the connections handed out by the pool, which hands the physical connection back to the pool when
+     * closed.
+     */
+    private class PooledConnectionHandler implements InvocationHandler {
+        /**
+         * The physical connection.
+         */
+        private final Connection connection;
+
+        /**
+         * Flag indicating whether the physical connection has been handed back to the pool.
+         */
+        private boolean returned;
+
+        /**
+         * Creates a new handler for this physical connection.
+         *
+         * @param connection The physical connection.
+         */
+        PooledConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String methodName = method.getName();
+            if ("close".equals(methodName)) {
+                if (!returned) {
+                    returned = true;
+                    returnConnection(connection);
+                }
+                return null;
+            }
+            if ("isClosed".equals(methodName)) {
+                return returned || connection.isClosed();
+            }
+            if ("equals".equals(methodName)) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(methodName)) {
+                return System.identityHashCode(proxy);
+            }
+            if ("toString".equals(methodName)) {
+                return "Pooled connection: " + connection;
+            }
+            if (returned) {
+                throw new SQLException("Connection has already been closed");
+            }
+
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -32,13 +32,30 @@ public class TransactionTemplate {
      */
     private final Connection connection;
 
+    /**
+     * The jdbc template whose statements are reused for the duration of each transaction. {@code null} for none.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
     /**
      * Creates a new transaction template for this connection.
      *
      * @param connection The connection for the transaction.
      */
     public TransactionTemplate(Connection connection) {
+        this(connection, null);
+    }
+
+    /**
+     * Creates a new transaction template for this connection. The statements executed through this jdbc template are
+     * reused for the duration of each transaction, instead of being created and closed for every single sql.
+     *
+     * @param connection   The connection for the transaction.
+     * @param jdbcTemplate The jdbc template whose statements to reuse. {@code null} for none.
+     */
+    public TransactionTemplate(Connection connection, JdbcTemplate jdbcTemplate) {
         this.connection = connection;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     /**
@@ -49,6 +66,26 @@ public class TransactionTemplate {
      * @throws TransactionException when the transaction execution failed.
      */
     public <T> T execute(TransactionCallback<T> transactionCallback) throws TransactionException {
+        if (jdbcTemplate != null) {
+            jdbcTemplate.beginStatementReuse();
+        }
+        try {
+            return doExecute(transactionCallback);
+        } finally {
+            if (jdbcTemplate != null) {
+                jdbcTemplate.endStatementReuse();
+            }
+        }
+    }
+
+    /**
+     * Executes this callback within a transaction.
+     *
+     * @param transactionCallback The callback to execute.
+     * @return The result of the transaction code.
+     * @throws TransactionException when the transaction execution failed.
+     */
+    private <T> T doExecute(TransactionCallback<T> transactionCallback) throws TransactionException {
         try {
             connection.setAutoCommit(false);
             T result = transactionCallback.doInTransaction();
@@ -0,0 +1,174 @@
+/**
+ * Copyright (C) 2010-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.util.scanner;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The header of a class file: its name, its super class and the interfaces it directly implements. Read from the
+ * bytecode, without loading (and thereby initializing) the class.
+ */
+class ClassFileHeader {
+    /**
+     * The magic number every class file starts with.
+     */
+    private static final int MAGIC = 0xCAFEBABE;
+
+    /**
+     * Access flag of interfaces.
+     */
+    private static final int ACC_INTERFACE = 0x0200;
+
+    /**
+     * Access flag of abstract classes and interfaces.
+     */
+    private static final int ACC_ABSTRACT = 0x0400;
+
+    /**
+     * The access flags of the class.
+     */
+    private final int accessFlags;
+
+    /**
+     * The fully qualified name of the super class. {@code null} for java.lang.Object.
+     */
+    private final String superClassName;
+
+    /**
+     * The fully qualified names of the interfaces directly implemented by the class.
+     */
+    private final String[] interfaceNames;
+
+    /**
+     * Reads the header of the class file provided by this stream.
+     *
+     * @param inputStream The stream of the class file. Left open.
+     * @throws IOException when the class file could not be read or has an unknown format.
+     */
+    ClassFileHeader(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        in.readUnsignedShort(); // minor version
+        in.readUnsignedShort(); // major version
+
+        int constantPoolCount = in.readUnsignedShort();
+        String[] utf8Constants = new String[constantPoolCount];
+        int[] classNameIndexes = new int[constantPoolCount];
+        for (int i = 1; i < constantPoolCount; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1: // Utf8
+                    utf8Constants[i] = in.readUTF();
+                    break;
+                case 7: // Class
+                    classNameIndexes[i] = in.readUnsignedShort();
+                    break;
+                case 8: // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    skip(in, 2);
+                    break;
+                case 15: // MethodHandle
+                    skip(in, 3);
+                    break;
+                case 3: // Integer
+                case 4: // Float
+                case 9: // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    skip(in, 4);
+                    break;
+                case 5: // Long
+                case 6: // Double
+                    skip(in, 8);
+                    // These take up two entries in the constant pool
+                    i++;
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag: " + tag);
+            }
+        }
+
+        accessFlags = in.readUnsignedShort();
+        in.readUnsignedShort(); // this class
+        int superClassIndex = in.readUnsignedShort();
+        superClassName = (superClassIndex == 0) ? null : toClassName(utf8Constants, classNameIndexes, superClassIndex);
+
+        interfaceNames = new String[in.readUnsignedShort()];
+        for (int i = 0; i < interfaceNames.length; i++) {
+            interfaceNames[i] = toClassName(utf8Constants, classNameIndexes, in.readUnsignedShort());
+        }
+    }
+
+    /**
+     * Skips this number of bytes of the class file.
+     *
+     * @param in    The class file.
+     * @param count The number of bytes to skip.
+     * @throws IOException when the class file could not be read.
+     */
+    private static void skip(DataInputStream in, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            in.readUnsignedByte();
+        }
+    }
+
+    /**
+     * Resolves the class constant at this index of the constant pool to a fully qualified class name.
+     *
+     * @param utf8Constants    The Utf8 constants of the constant pool, by index.
+     * @param classNameIndexes The indexes of the names of the class constants of the constant pool, by index.
+     * @param index            The index of the class constant.
+     * @return The fully qualified class name.
+     * @throws IOException when the index does not point to a class constant.
+     */
+    private static String toClassName(String[] utf8Constants, int[] classNameIndexes, int index) throws IOException {
+        if ((index >= classNameIndexes.length) || (classNameIndexes[index] == 0)
+                || (utf8Constants[classNameIndexes[index]] == null)) {
+            throw new IOException("Invalid class constant: " + index);
+        }
+        return utf8Constants[classNameIndexes[index]].replace('/', '.');
+    }
+
+    /**
+     * @return The fully qualified name of the super class. {@code null} for java.lang.Object.
+     */
+    String getSuperClassName() {
+        return superClassName;
+    }
+
+    /**
+     * @return The fully qualified names of the interfaces directly implemented by the class.
+     */
+    String[] getInterfaceNames() {
+        return interfaceNames;
+    }
+
+    /**
+     * @return {@code true} if this is a concrete class, {@code false} if it is an interface or an abstract class.
+     */
+    boolean isConcrete() {
+        return (accessFlags & (ACC_INTERFACE | ACC_ABSTRACT)) == 0;
+    }
+}
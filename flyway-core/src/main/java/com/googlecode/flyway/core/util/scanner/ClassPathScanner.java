@@ -15,21 +15,44 @@
  */
 package com.googlecode.flyway.core.util.scanner;
 
+import com.googlecode.flyway.core.migration.MigrationIndex;
 import com.googlecode.flyway.core.util.ClassPathResource;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import java.io.BufferedInputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 import java.net.URLDecoder;
 import java.util.*;
 
 /**
  * ClassPath scanner.
+ * <p/>
+ * A scanner remembers the resources found at every location it scanned and the classes it inspected. Sharing one
+ * scanner between several lookups of the same location, for example with different suffixes, scans that location only
+ * once.
  */
 public class ClassPathScanner {
     private static final Log LOG = LogFactory.getLog(ClassPathScanner.class);
 
+    /**
+     * The names of all resources found so far, by normalized location.
+     */
+    private final Map<String, Set<String>> resourceNamesByLocation = new HashMap<String, Set<String>>();
+
+    /**
+     * The classes loaded so far, by name.
+     */
+    private final Map<String, Class<?>> classesByName = new HashMap<String, Class<?>>();
+
+    /**
+     * The class file headers read so far, by class name. {@code null} for classes whose header could not be read.
+     */
+    private final Map<String, ClassFileHeader> classFileHeadersByName = new HashMap<String, ClassFileHeader>();
+
     /**
      * Scans the classpath for resources under the specified location, starting with the specified prefix and ending with
      * the specified suffix.
@@ -67,7 +90,7 @@ public class ClassPathScanner {
         Set<String> resourceNames = findResourceNames(location, "", ".class");
         for (String resourceName : resourceNames) {
             String className = toClassName(resourceName);
-            Class<?> clazz = getClassLoader().loadClass(className);
+            Class<?> clazz = loadClass(className);
             if (implementedInterfaces.length == 0) {
                 classes.add(clazz);
                 LOG.debug("Found class: " + className);
@@ -85,6 +108,117 @@ public class ClassPathScanner {
         return classes.toArray(new Class<?>[classes.size()]);
     }
 
+    /**
+     * Scans the classpath for concrete classes under the specified package implementing any of these interfaces. The
+     * interfaces are looked up in the headers of the class files, so the classes are neither loaded nor initialized.
+     *
+     * @param location              The location (package) in the classpath to start scanning.
+     *                              Subpackages are also scanned.
+     * @param implementedInterfaces The interfaces the matching classes should implement.
+     * @return The fully qualified names of the classes that were found.
+     * @throws Exception when the location could not be scanned.
+     */
+    public String[] scanForClassNames(String location, Class<?>... implementedInterfaces) throws Exception {
+        List<String> classNames = new ArrayList<String>();
+
+        Set<String> resourceNames = findResourceNames(location, "", ".class");
+        for (String resourceName : resourceNames) {
+            String className = toClassName(resourceName);
+            ClassFileHeader classFileHeader = getClassFileHeader(className);
+            if ((classFileHeader != null) && !classFileHeader.isConcrete()) {
+                continue;
+            }
+            for (Class<?> implementedInterface : implementedInterfaces) {
+                if (implementsInterface(className, implementedInterface)) {
+                    classNames.add(className);
+                    LOG.debug("Found class: " + className);
+                    break;
+                }
+            }
+        }
+
+        return classNames.toArray(new String[classNames.size()]);
+    }
+
+    /**
+     * Checks whether the class with this name implements this interface, directly or through its super classes or
+     * super interfaces. The class is only loaded when the header of its class file can not be read.
+     *
+     * @param className            The fully qualified name of the class to check.
+     * @param implementedInterface The interface.
+     * @return {@code true} if it does, {@code false} if it doesn't.
+     * @throws ClassNotFoundException when the class could not be loaded.
+     */
+    public boolean implementsInterface(String className, Class<?> implementedInterface) throws ClassNotFoundException {
+        if (className.equals(implementedInterface.getName())) {
+            return true;
+        }
+        if (className.startsWith("java.")) {
+            // Platform classes never implement our interfaces
+            return false;
+        }
+
+        ClassFileHeader classFileHeader = getClassFileHeader(className);
+        if (classFileHeader == null) {
+            return implementedInterface.isAssignableFrom(loadClass(className));
+        }
+
+        for (String interfaceName : classFileHeader.getInterfaceNames()) {
+            if (implementsInterface(interfaceName, implementedInterface)) {
+                return true;
+            }
+        }
+        String superClassName = classFileHeader.getSuperClassName();
+        return (superClassName != null) && implementsInterface(superClassName, implementedInterface);
+    }
+
+    /**
+     * Reads the header of the class file of the class with this name, unless it has already been read by this scanner.
+     *
+     * @param className The fully qualified name of the class.
+     * @return The header of the class file, or {@code null} if it could not be read.
+     */
+    private ClassFileHeader getClassFileHeader(String className) {
+        if (classFileHeadersByName.containsKey(className)) {
+            return classFileHeadersByName.get(className);
+        }
+
+        ClassFileHeader classFileHeader = null;
+        String resourceName = className.replace(".", "/") + ".class";
+        InputStream inputStream = getClassLoader().getResourceAsStream(resourceName);
+        if (inputStream != null) {
+            try {
+                classFileHeader = new ClassFileHeader(new BufferedInputStream(inputStream));
+            } catch (IOException e) {
+                LOG.debug("Unable to read class file header of " + className + ": " + e.getMessage());
+            } finally {
+                try {
+                    inputStream.close();
+                } catch (IOException e) {
+                    //Ignore
+                }
+            }
+        }
+        classFileHeadersByName.put(className, classFileHeader);
+        return classFileHeader;
+    }
+
+    /**
+     * Loads the class with this name, unless it has already been loaded by this scanner.
+     *
+     * @param className The fully qualified name of the class.
+     * @return The class.
+     * @throws ClassNotFoundException when the class could not be loaded.
+     */
+    private Class<?> loadClass(String className) throws ClassNotFoundException {
+        Class<?> clazz = classesByName.get(className);
+        if (clazz == null) {
+            clazz = getClassLoader().loadClass(className);
+            classesByName.put(className, clazz);
+        }
+        return clazz;
+    }
+
     /**
      * Converts this resource name to a fully qualified class name.
      *
@@ -98,7 +232,7 @@ public class ClassPathScanner {
 
     /**
      * Finds the resources names present at this location and below on the classpath starting with this prefix and
-     * ending with this suffix.
+     * ending with this suffix. Each location is only scanned the first time.
      *
      * @param location The location on the classpath to scan.
      * @param prefix   The filename prefix to match.
@@ -107,16 +241,122 @@ public class ClassPathScanner {
      * @throws IOException when scanning this location failed.
      */
     private Set<String> findResourceNames(String location, String prefix, String suffix) throws IOException {
-        Set<String> resourceNames = new TreeSet<String>();
+        String normalizedLocation = normalizeLocation(location);
+
+        Set<String> resourceNames = resourceNamesByLocation.get(normalizedLocation);
+        if (resourceNames == null) {
+            resourceNames = findResourceNames(normalizedLocation);
+            resourceNamesByLocation.put(normalizedLocation, resourceNames);
+        }
+
+        return filterResourceNames(resourceNames, prefix, suffix);
+    }
+
+    /**
+     * Finds the names of all resources present at this location and below on the classpath. The names are taken from
+     * the migration index generated at build time instead when it covers every classpath entry containing this
+     * location.
+     *
+     * @param normalizedLocation The normalized location on the classpath to scan.
+     * @return The resource names.
+     * @throws IOException when scanning this location failed.
+     */
+    private Set<String> findResourceNames(String normalizedLocation) throws IOException {
+        List<URL> locationUrls = Collections.list(getClassLoader().getResources(normalizedLocation));
+
+        Set<String> resourceNames = null;
+        MigrationIndex migrationIndex = MigrationIndex.load();
+        if ((migrationIndex != null) && !locationUrls.isEmpty()) {
+            resourceNames = migrationIndex.getResourceNames(normalizedLocation, locationUrls);
+        }
+        if (resourceNames == null) {
+            resourceNames = scanResourceNames(normalizedLocation, locationUrls);
+        } else {
+            LOG.debug("Using migration index for location: " + normalizedLocation);
+        }
+
+        return resourceNames;
+    }
 
+    /**
+     * Finds the names of all resources present at this location and below in this directory of the classpath. The
+     * directory is always scanned, as this is meant for generating its migration index.
+     *
+     * @param location      The location on the classpath to scan.
+     * @param classPathRoot The directory on the classpath to scan the location in.
+     * @return The resource names. An empty set if the location does not exist in this directory.
+     */
+    public Set<String> findAllResourceNames(String location, File classPathRoot) {
         String normalizedLocation = normalizeLocation(location);
+        File folder = new File(classPathRoot, normalizedLocation);
+        if (!folder.isDirectory()) {
+            return new TreeSet<String>();
+        }
+        return new FileSystemLocationScanner().findResourceNamesFromFileSystem(normalizedLocation, folder);
+    }
 
-        Enumeration<URL> locationsUrls = getClassLoader().getResources(normalizedLocation);
-        if (!locationsUrls.hasMoreElements()) {
+    /**
+     * Determines when the files at this location and below on the file system were last modified, without reading
+     * them. Locations inside jar files use the modification time of the jar file.
+     *
+     * @param location The location on the classpath to check.
+     * @return The time of the last modification, in milliseconds since the epoch. 0 if it could not be determined.
+     * @throws IOException when the location could not be looked up.
+     */
+    public long getLastModified(String location) throws IOException {
+        String normalizedLocation = normalizeLocation(location);
+
+        long lastModified = 0;
+        for (URL locationUrl : Collections.list(getClassLoader().getResources(normalizedLocation))) {
+            String path = URLDecoder.decode(locationUrl.getFile(), "UTF-8");
+            String protocol = locationUrl.getProtocol();
+            if ("file".equals(protocol)) {
+                lastModified = Math.max(lastModified, getLastModified(new File(path)));
+            } else if ("jar".equals(protocol) || "zip".equals(protocol)) {
+                int separatorIndex = path.indexOf("!/");
+                String archivePath = (separatorIndex < 0) ? path : path.substring(0, separatorIndex);
+                if (archivePath.startsWith("file:")) {
+                    archivePath = archivePath.substring("file:".length());
+                }
+                lastModified = Math.max(lastModified, new File(archivePath).lastModified());
+            }
+        }
+        return lastModified;
+    }
+
+    /**
+     * Determines when this file, or any file or folder below it, was last modified. Adding or removing a file updates
+     * the modification time of its folder.
+     *
+     * @param file The file or folder on disk.
+     * @return The time of the last modification, in milliseconds since the epoch.
+     */
+    private long getLastModified(File file) {
+        long lastModified = file.lastModified();
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files) {
+                lastModified = Math.max(lastModified, getLastModified(child));
+            }
+        }
+        return lastModified;
+    }
+
+    /**
+     * Scans these urls of this location for the names of the resources they contain.
+     *
+     * @param normalizedLocation The normalized location on the classpath to scan.
+     * @param locationUrls       The urls of the location in the various classpath entries.
+     * @return The resource names.
+     * @throws IOException when scanning this location failed.
+     */
+    private Set<String> scanResourceNames(String normalizedLocation, List<URL> locationUrls) throws IOException {
+        Set<String> resourceNames = new TreeSet<String>();
+
+        if (locationUrls.isEmpty()) {
             LOG.debug("Unable to determine URL for classpath location: " + normalizedLocation + " (ClassLoader: " + getClassLoader() + ")");
         }
-        while (locationsUrls.hasMoreElements()) {
-            URL locationUrl = locationsUrls.nextElement();
+        for (URL locationUrl : locationUrls) {
             LOG.debug("Scanning URL: " + locationUrl.toExternalForm());
 
             String scanRoot = URLDecoder.decode(locationUrl.getFile(), "UTF-8");
@@ -133,7 +373,7 @@ public class ClassPathScanner {
             }
         }
 
-        return filterResourceNames(resourceNames, prefix, suffix);
+        return resourceNames;
     }
 
     /**
@@ -162,7 +402,7 @@ public class ClassPathScanner {
      * @param location The location to normalize.
      * @return The normalized location.
      */
-    private String normalizeLocation(String location) {
+    public static String normalizeLocation(String location) {
         String directory = location.replace(".", "/").replace("\\", "/");
         if (directory.startsWith("/")) {
             directory = directory.substring(1);
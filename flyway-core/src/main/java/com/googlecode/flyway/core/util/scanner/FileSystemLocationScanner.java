@@ -20,7 +20,6 @@ import org.apache.commons.logging.LogFactory;
 
 import java.io.File;
 import java.io.IOException;
-import java.net.URLDecoder;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -36,52 +35,51 @@ public class FileSystemLocationScanner implements LocationScanner {
             classPathRootOnDisk = classPathRootOnDisk + "/";
         }
         LOG.debug("Scanning starting at classpath root in filesystem: " + classPathRootOnDisk);
-        return findResourceNamesFromFileSystem(classPathRootOnDisk, location, new File(locationUrl));
+        return findResourceNamesFromFileSystem(location, new File(locationUrl));
     }
 
     /**
      * Finds all the resource names contained in this file system folder.
      *
-     * @param classPathRootOnDisk The location of the classpath root on disk, with a trailing slash.
-     * @param scanRootLocation    The root location of the scan on the classpath, without leading or trailing slashes.
-     * @param folder              The folder to look for resources under on disk.
+     * @param scanRootLocation The root location of the scan on the classpath, without leading or trailing slashes.
+     * @param folder           The folder to look for resources under on disk.
      * @return The resource names;
-     * @throws IOException when the folder could not be read.
      */
     /*private -> for testing*/
-    @SuppressWarnings("ConstantConditions")
-    Set<String> findResourceNamesFromFileSystem(String classPathRootOnDisk, String scanRootLocation, File folder) throws IOException {
+    Set<String> findResourceNamesFromFileSystem(String scanRootLocation, File folder) {
         LOG.debug("Scanning for resources in path: " + folder.getPath() + " (classpath location: " + scanRootLocation + ")");
 
         Set<String> resourceNames = new TreeSet<String>();
+        String folderLocation = (scanRootLocation.length() == 0) ? "" : scanRootLocation + "/";
+        addResourceNames(resourceNames, folderLocation, folder);
+        return resourceNames;
+    }
 
+    /**
+     * Adds the resource names of all files contained in this folder and its subfolders to these resource names.
+     * <p/>
+     * The names are assembled from the file names on the way down, as the location of every folder on the classpath
+     * is known from its parent.
+     *
+     * @param resourceNames  The resource names to add to.
+     * @param folderLocation The location of the folder on the classpath, with a trailing slash unless it is the root.
+     * @param folder         The folder on disk.
+     */
+    private void addResourceNames(Set<String> resourceNames, String folderLocation, File folder) {
         File[] files = folder.listFiles();
+        if (files == null) {
+            LOG.debug("Unable to list files in path: " + folder.getPath());
+            return;
+        }
+
         for (File file : files) {
             if (file.canRead()) {
                 if (file.isDirectory()) {
-                    resourceNames.addAll(findResourceNamesFromFileSystem(classPathRootOnDisk, scanRootLocation, file));
+                    addResourceNames(resourceNames, folderLocation + file.getName() + "/", file);
                 } else {
-                    resourceNames.add(toResourceNameOnClasspath(classPathRootOnDisk, file));
+                    resourceNames.add(folderLocation + file.getName());
                 }
             }
         }
-
-        return resourceNames;
-    }
-
-    /**
-     * Converts this file into a resource name on the classpath.
-     * @param classPathRootOnDisk The location of the classpath root on disk, with a trailing slash.
-     * @param file The file.
-     * @return The resource name on the classpath.
-     * @throws IOException when the file could not be read.
-     */
-    private String toResourceNameOnClasspath(String classPathRootOnDisk, File file) throws IOException {
-        String fileName = URLDecoder.decode(file.toURI().toURL().getFile(), "UTF-8");
-
-        //Cut off the part on disk leading to the root of the classpath
-        //This leaves a resource name starting with the scanRootLocation,
-        //   with no leading slash, containing subDirs and the fileName.
-        return fileName.substring(classPathRootOnDisk.length());
     }
 }
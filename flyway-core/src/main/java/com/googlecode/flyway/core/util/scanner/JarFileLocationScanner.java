@@ -15,8 +15,14 @@
  */
 package com.googlecode.flyway.core.util.scanner;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.jar.JarEntry;
@@ -24,8 +30,16 @@ import java.util.jar.JarFile;
 
 /**
  * LocationScanner for jar files.
+ * <p/>
+ * The entry names of every jar file are read only once per process, into a sorted index shared by all scans. The jar
+ * file itself is closed again as soon as its index has been built.
  */
 public class JarFileLocationScanner implements LocationScanner {
+    /**
+     * The entry indexes of the jar files scanned so far, by jar file name.
+     */
+    private static final Map<String, JarFileIndex> JAR_FILE_INDEXES = new HashMap<String, JarFileIndex>();
+
     /**
      * The protocol used in the resource URL. Could be jar or zip when used from WebLogic.
      */
@@ -55,15 +69,94 @@ public class JarFileLocationScanner implements LocationScanner {
     private Set<String> findResourceNamesFromJarFile(String jarFileName, String directory) throws IOException {
         Set<String> resourceNames = new TreeSet<String>();
 
-        JarFile jarFile = new JarFile(jarFileName);
-        Enumeration<JarEntry> entries = jarFile.entries();
-        while (entries.hasMoreElements()) {
-            String entryName = entries.nextElement().getName();
-            if (entryName.startsWith(directory)) {
-                resourceNames.add(entryName);
-            }
+        String[] entryNames = getJarFileIndex(jarFileName).entryNames;
+        int index = Arrays.binarySearch(entryNames, directory);
+        if (index < 0) {
+            index = -(index + 1);
+        }
+        // All names starting with the directory follow each other from here on in the sorted index
+        while ((index < entryNames.length) && entryNames[index].startsWith(directory)) {
+            resourceNames.add(entryNames[index]);
+            index++;
         }
 
         return resourceNames;
     }
+
+    /**
+     * Retrieves the index of this jar file, building it if the jar file hasn't been indexed yet or has changed since.
+     *
+     * @param jarFileName The name of the jar file.
+     * @return The index of the jar file.
+     * @throws IOException when reading the jar file failed.
+     */
+    private static JarFileIndex getJarFileIndex(String jarFileName) throws IOException {
+        File file = new File(jarFileName);
+        synchronized (JAR_FILE_INDEXES) {
+            JarFileIndex jarFileIndex = JAR_FILE_INDEXES.get(jarFileName);
+            if ((jarFileIndex == null) || !jarFileIndex.isUpToDate(file)) {
+                jarFileIndex = new JarFileIndex(file);
+                JAR_FILE_INDEXES.put(jarFileName, jarFileIndex);
+            }
+            return jarFileIndex;
+        }
+    }
+
+    /**
+     * The sorted entry names of a jar file.
+     */
+    private static class JarFileIndex {
+        /**
+         * The last modification time of the jar file when it was indexed.
+         */
+        private final long lastModified;
+
+        /**
+         * The length of the jar file when it was indexed.
+         */
+        private final long length;
+
+        /**
+         * The names of all entries of the jar file, sorted.
+         */
+        private final String[] entryNames;
+
+        /**
+         * Reads the entry names of this jar file.
+         *
+         * @param file The jar file.
+         * @throws IOException when reading the jar file failed.
+         */
+        JarFileIndex(File file) throws IOException {
+            lastModified = file.lastModified();
+            length = file.length();
+
+            JarFile jarFile = new JarFile(file);
+            try {
+                List<String> names = new ArrayList<String>(jarFile.size());
+                Enumeration<JarEntry> entries = jarFile.entries();
+                while (entries.hasMoreElements()) {
+                    names.add(entries.nextElement().getName());
+                }
+                entryNames = names.toArray(new String[names.size()]);
+                Arrays.sort(entryNames);
+            } finally {
+                try {
+                    jarFile.close();
+                } catch (IOException e) {
+                    //Ignore
+                }
+            }
+        }
+
+        /**
+         * Checks whether this index still reflects the contents of this jar file.
+         *
+         * @param file The jar file.
+         * @return {@code true} if it does, {@code false} if the jar file has changed since it was indexed.
+         */
+        boolean isUpToDate(File file) {
+            return (file.lastModified() == lastModified) && (file.length() == length);
+        }
+    }
 }
@@ -17,15 +17,24 @@ package com.googlecode.flyway.core;
 
 import com.googlecode.flyway.core.dbsupport.h2.H2DbSupport;
 import com.googlecode.flyway.core.exception.FlywayException;
+import com.googlecode.flyway.core.migration.CompositeMigrationResolver;
+import com.googlecode.flyway.core.migration.MigrationIndex;
 import com.googlecode.flyway.core.util.jdbc.DriverDataSource;
 import org.h2.Driver;
 import org.junit.Test;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.HashMap;
 
 import static org.junit.Assert.*;
 
@@ -98,6 +107,111 @@ public class FlywayMediumTest {
         assertEquals(0, dataSource.getOpenConnectionCount());
     }
 
+    @Test
+    public void session() {
+        OpenConnectionCountDriverDataSource dataSource = createDataSource();
+
+        Flyway flyway = new Flyway();
+        flyway.setDataSource(dataSource);
+        flyway.setLocations("migration/sql");
+        flyway.clean();
+        int createdConnectionCount = dataSource.getCreatedConnectionCount();
+
+        flyway.openSession();
+        try {
+            assertEquals(2, dataSource.getOpenConnectionCount());
+            flyway.validate();
+            assertEquals(4, flyway.migrate());
+            assertEquals("2.0", flyway.status().getVersion().toString());
+
+            // The connections of the session are reused by every command
+            assertEquals(2, dataSource.getOpenConnectionCount());
+            assertEquals(createdConnectionCount + 2, dataSource.getCreatedConnectionCount());
+        } finally {
+            flyway.closeSession();
+        }
+        assertEquals(0, dataSource.getOpenConnectionCount());
+    }
+
+    @Test
+    public void fingerprintCheckWithMigrationAddedAfterIndex() throws Exception {
+        File rootDirectory = File.createTempFile("flyway", "index");
+        rootDirectory.delete();
+        File locationDirectory = new File(rootDirectory, "db/indexed");
+        locationDirectory.mkdirs();
+        ClassLoader oldClassLoader = Thread.currentThread().getContextClassLoader();
+        try {
+            write(new File(locationDirectory, "V1__First.sql"), "CREATE TABLE first (id INT);");
+            Thread.currentThread().setContextClassLoader(
+                    new URLClassLoader(new URL[]{rootDirectory.toURI().toURL()}, oldClassLoader));
+            String[] locations = new String[]{"db/indexed"};
+            assertEquals(1, MigrationIndex.generate(new CompositeMigrationResolver(locations, "db/indexed", "db/indexed",
+                    "UTF-8", "V", ".sql", new HashMap<String, String>(), "${", "}"), rootDirectory));
+            long indexTime = new File(rootDirectory, MigrationIndex.LOCATION).lastModified();
+
+            assertEquals(1, createIndexedFlyway().migrate());
+            assertEquals(0, createIndexedFlyway().migrate());
+
+            // A migration added after the index was generated, without regenerating it
+            File script = new File(locationDirectory, "V2__Second.sql");
+            write(script, "CREATE TABLE second (id INT);");
+            script.setLastModified(indexTime + 2000);
+            locationDirectory.setLastModified(indexTime + 2000);
+
+            Flyway flyway = createIndexedFlyway();
+            assertEquals(1, flyway.migrate());
+            assertEquals("2", flyway.status().getVersion().toString());
+        } finally {
+            Thread.currentThread().setContextClassLoader(oldClassLoader);
+            MigrationIndex.clearCache();
+            delete(rootDirectory);
+        }
+    }
+
+    /**
+     * @return A new Flyway instance with the fingerprint check active for the migrations of the
+     *         fingerprintCheckWithMigrationAddedAfterIndex test.
+     */
+    private Flyway createIndexedFlyway() {
+        Flyway flyway = new Flyway();
+        flyway.setDataSource(new DriverDataSource(new Driver(), "jdbc:h2:mem:flyway_db_index;DB_CLOSE_DELAY=-1", "sa", ""));
+        flyway.setLocations("db/indexed");
+        flyway.setBasePackage("db/indexed");
+        flyway.setBaseDir("db/indexed");
+        flyway.setFingerprintCheck(true);
+        return flyway;
+    }
+
+    /**
+     * Writes this content to this file.
+     *
+     * @param file    The file to write.
+     * @param content The content to write.
+     */
+    private void write(File file, String content) throws IOException {
+        OutputStream outputStream = new FileOutputStream(file);
+        try {
+            outputStream.write(content.getBytes("UTF-8"));
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    /**
+     * Deletes this file or directory, including its content.
+     *
+     * @param file The file or directory to delete.
+     */
+    private void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
     /**
      * Tests the functionality of the OpenConnectionCountDriverDataSource.
      */
@@ -134,6 +248,11 @@ public class FlywayMediumTest {
          */
         private int openConnectionCount = 0;
 
+        /**
+         * The number of connections created so far.
+         */
+        private int createdConnectionCount = 0;
+
         public OpenConnectionCountDriverDataSource(Driver driver, String url, String user, String password) throws FlywayException {
             super(driver, url, user, password);
         }
@@ -145,11 +264,19 @@ public class FlywayMediumTest {
             return openConnectionCount;
         }
 
+        /**
+         * @return The number of connections created so far.
+         */
+        public int getCreatedConnectionCount() {
+            return createdConnectionCount;
+        }
+
         @Override
         protected Connection getConnectionFromDriver(String username, String password) throws SQLException {
             final Connection connection = super.getConnectionFromDriver(username, password);
 
             openConnectionCount++;
+            createdConnectionCount++;
 
             return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Connection.class}, new InvocationHandler() {
                 public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
@@ -0,0 +1,107 @@
+/**
+ * Copyright (C) 2010-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.clean;
+
+import com.googlecode.flyway.core.exception.FlywayException;
+import com.googlecode.flyway.core.util.jdbc.DriverDataSource;
+import org.h2.Driver;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test for ParallelDbCleaner.
+ */
+public class ParallelDbCleanerMediumTest {
+    @Test
+    public void failureOfOneSchema() throws Exception {
+        DataSource dataSource = new DriverDataSource(new Driver(), "jdbc:h2:mem:flyway_db_parallel_clean;DB_CLOSE_DELAY=-1",
+                "sa", "", "SET LOCK_TIMEOUT 100");
+
+        Connection connection = dataSource.getConnection();
+        try {
+            execute(connection, "CREATE SCHEMA LOCKED");
+            execute(connection, "CREATE TABLE LOCKED.TEST_USER (NAME VARCHAR(25) NOT NULL)");
+            execute(connection, "CREATE SCHEMA FREE");
+            execute(connection, "CREATE TABLE FREE.TEST_USER (NAME VARCHAR(25) NOT NULL)");
+
+            // Keeps the table locked, so it can't be dropped
+            connection.setAutoCommit(false);
+            execute(connection, "INSERT INTO LOCKED.TEST_USER (NAME) VALUES ('Mr. T')");
+
+            try {
+                new ParallelDbCleaner(dataSource, new String[]{"LOCKED", "FREE"}, 2, false).clean();
+                fail();
+            } catch (FlywayException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("LOCKED"));
+                assertFalse(e.getMessage(), e.getMessage().contains("FREE"));
+            }
+
+            connection.rollback();
+            connection.setAutoCommit(true);
+            assertEquals(1, countTables(connection, "LOCKED"));
+            assertEquals(0, countTables(connection, "FREE"));
+        } finally {
+            execute(connection, "DROP ALL OBJECTS");
+            connection.close();
+        }
+    }
+
+    /**
+     * Executes this statement on this connection.
+     *
+     * @param connection The connection to use.
+     * @param sql        The statement to execute.
+     * @throws SQLException when the statement failed.
+     */
+    private void execute(Connection connection, String sql) throws SQLException {
+        Statement statement = connection.createStatement();
+        try {
+            statement.execute(sql);
+        } finally {
+            statement.close();
+        }
+    }
+
+    /**
+     * Counts the tables in this schema.
+     *
+     * @param connection The connection to use.
+     * @param schema     The schema whose tables to count.
+     * @return The number of tables.
+     * @throws SQLException when the tables could not be counted.
+     */
+    private int countTables(Connection connection, String schema) throws SQLException {
+        Statement statement = connection.createStatement();
+        try {
+            ResultSet resultSet = statement.executeQuery(
+                    "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = '" + schema + "'");
+            resultSet.next();
+            return resultSet.getInt(1);
+        } finally {
+            statement.close();
+        }
+    }
+}
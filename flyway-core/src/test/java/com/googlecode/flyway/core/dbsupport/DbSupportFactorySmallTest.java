@@ -0,0 +1,123 @@
+/**
+ * Copyright (C) 2010-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.dbsupport;
+
+import com.googlecode.flyway.core.dbsupport.h2.H2DbSupport;
+import com.googlecode.flyway.core.util.jdbc.DriverDataSource;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Driver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for DbSupportFactory.
+ */
+@SuppressWarnings({"JavaDoc"})
+public class DbSupportFactorySmallTest {
+    /**
+     * The number of times the database metadata has been read.
+     */
+    private int metaDataReads;
+
+    /**
+     * Connection to an H2 database, counting the reads of its metadata.
+     */
+    private final Connection connection = createH2Connection();
+
+    @After
+    public void tearDown() {
+        DbSupportFactory.invalidate(null);
+    }
+
+    @Test
+    public void uncached() {
+        assertTrue(DbSupportFactory.createDbSupport(connection) instanceof H2DbSupport);
+        DbSupportFactory.createDbSupport(connection);
+        assertEquals(2, metaDataReads);
+    }
+
+    @Test
+    public void cachedPerDataSource() {
+        DataSource dataSource = new DriverDataSource(createDriver(), "jdbc:h2:mem:flyway_db", "sa", "");
+
+        assertTrue(DbSupportFactory.createDbSupport(dataSource, connection) instanceof H2DbSupport);
+        DbSupportFactory.createDbSupport(dataSource, connection);
+        assertEquals(1, metaDataReads);
+
+        DbSupportFactory.invalidate(dataSource);
+        DbSupportFactory.createDbSupport(dataSource, connection);
+        assertEquals(2, metaDataReads);
+    }
+
+    @Test
+    public void notSharedBetweenDataSources() {
+        DbSupportFactory.createDbSupport(
+                new DriverDataSource(createDriver(), "jdbc:h2:mem:flyway_db", "sa", ""), connection);
+        DbSupportFactory.createDbSupport(
+                new DriverDataSource(createDriver(), "jdbc:h2:mem:flyway_db", "sa", ""), connection);
+        assertEquals(2, metaDataReads);
+    }
+
+    /**
+     * @return A driver that is never used to connect.
+     */
+    private Driver createDriver() {
+        return (Driver) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Driver.class},
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        return null;
+                    }
+                });
+    }
+
+    /**
+     * @return A connection to an H2 database, counting the reads of its metadata.
+     */
+    private Connection createH2Connection() {
+        final DatabaseMetaData databaseMetaData = (DatabaseMetaData) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class[]{DatabaseMetaData.class},
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if ("getDatabaseProductName".equals(method.getName())) {
+                            return "H2";
+                        }
+                        if ("getDatabaseProductVersion".equals(method.getName())) {
+                            return "1.2.137";
+                        }
+                        return null;
+                    }
+                });
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Connection.class},
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if ("getMetaData".equals(method.getName())) {
+                            metaDataReads++;
+                            return databaseMetaData;
+                        }
+                        return null;
+                    }
+                });
+    }
+}
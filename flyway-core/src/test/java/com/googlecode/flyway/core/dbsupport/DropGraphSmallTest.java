@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2010-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.dbsupport;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Small Test for DropGraph.
+ */
+@SuppressWarnings({"JavaDoc"})
+public class DropGraphSmallTest {
+    @Test
+    public void empty() {
+        assertEquals(0, new DropGraph().getWaves().size());
+    }
+
+    @Test
+    public void independentObjects() {
+        DropGraph dropGraph = new DropGraph();
+        dropGraph.addObject("a", "DROP a");
+        dropGraph.addObject("b", "DROP b");
+        dropGraph.addObject("c", "DROP c");
+
+        List<List<String>> waves = dropGraph.getWaves();
+        assertEquals(1, waves.size());
+        assertEquals(Arrays.asList("DROP a", "DROP b", "DROP c"), waves.get(0));
+    }
+
+    @Test
+    public void dependencies() {
+        DropGraph dropGraph = new DropGraph();
+        dropGraph.addObject("fk", "DROP fk");
+        dropGraph.addObject("view", "DROP view");
+        dropGraph.addObject("child", "DROP child");
+        dropGraph.addObject("parent", "DROP parent");
+        dropGraph.addObject("type", "DROP type");
+        dropGraph.dropBefore("fk", "child");
+        dropGraph.dropBefore("fk", "parent");
+        dropGraph.dropBefore("view", "parent");
+        dropGraph.dropBefore("parent", "type");
+        dropGraph.dropBefore("child", "type");
+
+        List<List<String>> waves = dropGraph.getWaves();
+        assertEquals(3, waves.size());
+        assertEquals(Arrays.asList("DROP fk", "DROP view"), waves.get(0));
+        assertEquals(Arrays.asList("DROP child", "DROP parent"), waves.get(1));
+        assertEquals(Arrays.asList("DROP type"), waves.get(2));
+    }
+
+    @Test
+    public void unknownAndSelfReferencesIgnored() {
+        DropGraph dropGraph = new DropGraph();
+        dropGraph.addObject("a", "DROP a");
+        dropGraph.dropBefore("a", "a");
+        dropGraph.dropBefore("a", "other_schema_table");
+        dropGraph.dropBefore(null, "a");
+
+        List<List<String>> waves = dropGraph.getWaves();
+        assertEquals(1, waves.size());
+        assertEquals(Arrays.asList("DROP a"), waves.get(0));
+    }
+
+    @Test
+    public void cycle() {
+        DropGraph dropGraph = new DropGraph();
+        dropGraph.addObject("a", "DROP a");
+        dropGraph.addObject("b", "DROP b");
+        dropGraph.addObject("c", "DROP c");
+        dropGraph.addObject("d", "DROP d");
+        dropGraph.dropBefore("a", "b");
+        dropGraph.dropBefore("b", "a");
+        dropGraph.dropBefore("c", "d");
+
+        List<List<String>> waves = dropGraph.getWaves();
+        assertEquals(4, waves.size());
+        assertEquals(Arrays.asList("DROP c"), waves.get(0));
+        assertEquals(Arrays.asList("DROP d"), waves.get(1));
+        assertEquals(Arrays.asList("DROP a"), waves.get(2));
+        assertEquals(Arrays.asList("DROP b"), waves.get(3));
+    }
+}
@@ -15,8 +15,12 @@
  */
 package com.googlecode.flyway.core.dbsupport.h2;
 
+import com.googlecode.flyway.core.migration.sql.PlaceholderReplacer;
+import com.googlecode.flyway.core.migration.sql.SqlStatement;
 import org.junit.Test;
 
+import java.util.List;
+
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -26,28 +30,40 @@ import static org.junit.Assert.assertTrue;
 public class H2SqlScriptSmallTest {
     @Test
     public void endsWithOpenMultilineStringLiteral() {
-        H2SqlScript script = new H2SqlScript();
-        assertFalse(script.endsWithOpenMultilineStringLiteral("select * from t;"));
-        assertFalse(script.endsWithOpenMultilineStringLiteral("select * from t where a='xyz';"));
-        assertFalse(script.endsWithOpenMultilineStringLiteral("select * from t where a= 'xyz';"));
-        assertFalse(script.endsWithOpenMultilineStringLiteral("select * from t where a='xyz'"));
-        assertFalse(script.endsWithOpenMultilineStringLiteral("select * from t where a='$$';"));
-        assertFalse(script.endsWithOpenMultilineStringLiteral("select * from t where a='xy''z';"));
-        assertFalse(script.endsWithOpenMultilineStringLiteral("select * from t where a='xyz' and b like 'abc%';"));
-        assertFalse(script.endsWithOpenMultilineStringLiteral("select * from t where a=' xyz ';"));
-        assertFalse(script.endsWithOpenMultilineStringLiteral("select * from t where a=';';"));
-        assertFalse(script.endsWithOpenMultilineStringLiteral("select * from t where a='$$''$$';"));
-        assertFalse(script.endsWithOpenMultilineStringLiteral("select * from t where a='$$' || '$$';"));
-        assertFalse(script.endsWithOpenMultilineStringLiteral("select * from t where a='$$'||'$$';"));
-        assertFalse(script.endsWithOpenMultilineStringLiteral("INSERT INTO test_user (name) VALUES ('Mr. T');"));
-        assertFalse(script.endsWithOpenMultilineStringLiteral("INSERT INTO test_user (name) VALUES ('Mr. Semicolon;');"));
-        assertFalse(script.endsWithOpenMultilineStringLiteral("INSERT INTO test_user (id, name) VALUES (1, 'Mr. Semicolon;');"));
-        assertFalse(script.endsWithOpenMultilineStringLiteral("insert into TAB1 (GUID, UID, VAL) values (1, '0100', 100);"));
-        assertTrue(script.endsWithOpenMultilineStringLiteral("select * from t where a='$$||''$$;"));
-        assertTrue(script.endsWithOpenMultilineStringLiteral("select * from t where a='"));
-        assertTrue(script.endsWithOpenMultilineStringLiteral("select * from t where a='abc"));
-        assertTrue(script.endsWithOpenMultilineStringLiteral("select * from t where a='abc''"));
-        assertTrue(script.endsWithOpenMultilineStringLiteral("select * from t where a='abc'''||'"));
-        assertTrue(script.endsWithOpenMultilineStringLiteral("INSERT INTO test_user (name) VALUES ('Mr. Semicolon+Linebreak;"));
+        assertFalse(endsWithOpenMultilineStringLiteral("select * from t;"));
+        assertFalse(endsWithOpenMultilineStringLiteral("select * from t where a='xyz';"));
+        assertFalse(endsWithOpenMultilineStringLiteral("select * from t where a= 'xyz';"));
+        assertFalse(endsWithOpenMultilineStringLiteral("select * from t where a='xyz'"));
+        assertFalse(endsWithOpenMultilineStringLiteral("select * from t where a='$$';"));
+        assertFalse(endsWithOpenMultilineStringLiteral("select * from t where a='xy''z';"));
+        assertFalse(endsWithOpenMultilineStringLiteral("select * from t where a='xyz' and b like 'abc%';"));
+        assertFalse(endsWithOpenMultilineStringLiteral("select * from t where a=' xyz ';"));
+        assertFalse(endsWithOpenMultilineStringLiteral("select * from t where a=';';"));
+        assertFalse(endsWithOpenMultilineStringLiteral("select * from t where a='$$''$$';"));
+        assertFalse(endsWithOpenMultilineStringLiteral("select * from t where a='$$' || '$$';"));
+        assertFalse(endsWithOpenMultilineStringLiteral("select * from t where a='$$'||'$$';"));
+        assertFalse(endsWithOpenMultilineStringLiteral("INSERT INTO test_user (name) VALUES ('Mr. T');"));
+        assertFalse(endsWithOpenMultilineStringLiteral("INSERT INTO test_user (name) VALUES ('Mr. Semicolon;');"));
+        assertFalse(endsWithOpenMultilineStringLiteral("INSERT INTO test_user (id, name) VALUES (1, 'Mr. Semicolon;');"));
+        assertFalse(endsWithOpenMultilineStringLiteral("insert into TAB1 (GUID, UID, VAL) values (1, '0100', 100);"));
+        assertTrue(endsWithOpenMultilineStringLiteral("select * from t where a='$$||''$$;"));
+        assertTrue(endsWithOpenMultilineStringLiteral("select * from t where a='"));
+        assertTrue(endsWithOpenMultilineStringLiteral("select * from t where a='abc"));
+        assertTrue(endsWithOpenMultilineStringLiteral("select * from t where a='abc''"));
+        assertTrue(endsWithOpenMultilineStringLiteral("select * from t where a='abc'''||'"));
+        assertTrue(endsWithOpenMultilineStringLiteral("INSERT INTO test_user (name) VALUES ('Mr. Semicolon+Linebreak;"));
+    }
+
+    /**
+     * Checks whether this statement ends inside an open multi-line string literal, by checking whether a delimiter on
+     * the following line is swallowed by that literal.
+     *
+     * @param statement The statement to check.
+     * @return {@code true} if the statement ends with an open string literal, {@code false} if not.
+     */
+    private boolean endsWithOpenMultilineStringLiteral(String statement) {
+        List<SqlStatement> sqlStatements =
+                new H2SqlScript(statement + "\n;", PlaceholderReplacer.NO_PLACEHOLDERS).getSqlStatements();
+        return !sqlStatements.isEmpty() && sqlStatements.get(sqlStatements.size() - 1).getSql().endsWith(";");
     }
 }
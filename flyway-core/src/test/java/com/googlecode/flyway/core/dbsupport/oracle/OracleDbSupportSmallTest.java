@@ -18,6 +18,9 @@ package com.googlecode.flyway.core.dbsupport.oracle;
 import com.googlecode.flyway.core.exception.FlywayException;
 import org.junit.Test;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
 /**
  * Small Test for OracleDbSupport.
  */
@@ -31,4 +34,26 @@ public class OracleDbSupportSmallTest {
         OracleDbSupport oracleDbSupport = new OracleDbSupport(null);
         oracleDbSupport.createCleanScript("SYSTEM");
     }
+
+    @Test
+    public void generateDropBlock() {
+        String dropBlock = OracleDbSupport.generateDropBlock("flyway");
+
+        assertTrue(dropBlock.startsWith("DECLARE"));
+        assertTrue(dropBlock.endsWith("END;"));
+        assertTrue(dropBlock.contains("WHERE owner = 'FLYWAY'"));
+        assertTrue(dropBlock.contains("'DROP ' || o.object_type || ' flyway.\"' || o.object_name || '\"'"));
+        assertTrue(dropBlock.contains("'TABLE', ' CASCADE CONSTRAINTS PURGE'"));
+        assertTrue(dropBlock.contains("object_name NOT LIKE 'BIN$%'"));
+        assertTrue(dropBlock.contains("object_name NOT LIKE 'DR$%'"));
+        assertTrue(dropBlock.indexOf("'SEQUENCE', 0") < dropBlock.indexOf("'TABLE', 7"));
+    }
+
+    @Test
+    public void generateDropBlockEscapesQuotes() {
+        String dropBlock = OracleDbSupport.generateDropBlock("fly'way");
+
+        assertTrue(dropBlock.contains("WHERE owner = 'FLY''WAY'"));
+        assertFalse(dropBlock.contains("fly'way"));
+    }
 }
@@ -69,20 +69,19 @@ public class OracleSqlScriptSmallTest {
 
     @Test
     public void endsWithOpenMultilineStringLiteral() {
-        final OracleSqlScript script = new OracleSqlScript("", PlaceholderReplacer.NO_PLACEHOLDERS);
-        assertFalse(script.endsWithOpenMultilineStringLiteral("select q'[Hello 'quotes']' from dual;"));
-        assertFalse(script.endsWithOpenMultilineStringLiteral("select q'(Hello 'quotes')' from dual;"));
-        assertFalse(script.endsWithOpenMultilineStringLiteral("select q'{Hello 'quotes'}' from dual;"));
-        assertFalse(script.endsWithOpenMultilineStringLiteral("select q'<Hello 'quotes'>' from dual;"));
-        assertFalse(script.endsWithOpenMultilineStringLiteral("select q'$Hello 'quotes'$' from dual;"));
+        assertFalse(endsWithOpenMultilineStringLiteral("select q'[Hello 'quotes']' from dual;"));
+        assertFalse(endsWithOpenMultilineStringLiteral("select q'(Hello 'quotes')' from dual;"));
+        assertFalse(endsWithOpenMultilineStringLiteral("select q'{Hello 'quotes'}' from dual;"));
+        assertFalse(endsWithOpenMultilineStringLiteral("select q'<Hello 'quotes'>' from dual;"));
+        assertFalse(endsWithOpenMultilineStringLiteral("select q'$Hello 'quotes'$' from dual;"));
 
-        assertTrue(script.endsWithOpenMultilineStringLiteral("select q'[Hello 'quotes']"));
-        assertTrue(script.endsWithOpenMultilineStringLiteral("select q'(Hello 'quotes')"));
-        assertTrue(script.endsWithOpenMultilineStringLiteral("select q'{Hello 'quotes'}"));
-        assertTrue(script.endsWithOpenMultilineStringLiteral("select q'<Hello 'quotes'>"));
-        assertTrue(script.endsWithOpenMultilineStringLiteral("select q'$Hello 'quotes'$"));
+        assertTrue(endsWithOpenMultilineStringLiteral("select q'[Hello 'quotes']"));
+        assertTrue(endsWithOpenMultilineStringLiteral("select q'(Hello 'quotes')"));
+        assertTrue(endsWithOpenMultilineStringLiteral("select q'{Hello 'quotes'}"));
+        assertTrue(endsWithOpenMultilineStringLiteral("select q'<Hello 'quotes'>"));
+        assertTrue(endsWithOpenMultilineStringLiteral("select q'$Hello 'quotes'$"));
 
-        assertFalse(script.endsWithOpenMultilineStringLiteral("INSERT INTO USER_SDO_GEOM_METADATA (TABLE_NAME, COLUMN_NAME, DIMINFO, SRID)\n" +
+        assertFalse(endsWithOpenMultilineStringLiteral("INSERT INTO USER_SDO_GEOM_METADATA (TABLE_NAME, COLUMN_NAME, DIMINFO, SRID)\n" +
                 "VALUES ('GEO_TEST', 'GEO',\n" +
                 "MDSYS.SDO_DIM_ARRAY\n" +
                 "(MDSYS.SDO_DIM_ELEMENT('LONG', -180.0, 180.0, 0.05),\n" +
@@ -90,4 +89,17 @@ public class OracleSqlScriptSmallTest {
                 "),\n" +
                 "8307);"));
     }
+
+    /**
+     * Checks whether this statement ends inside an open multi-line string literal, by checking whether a delimiter on
+     * the following line is swallowed by that literal.
+     *
+     * @param statement The statement to check.
+     * @return {@code true} if the statement ends with an open string literal, {@code false} if not.
+     */
+    private boolean endsWithOpenMultilineStringLiteral(String statement) {
+        List<SqlStatement> sqlStatements =
+                new OracleSqlScript(statement + "\n;", PlaceholderReplacer.NO_PLACEHOLDERS).getSqlStatements();
+        return !sqlStatements.isEmpty() && sqlStatements.get(sqlStatements.size() - 1).getSql().endsWith(";");
+    }
 }
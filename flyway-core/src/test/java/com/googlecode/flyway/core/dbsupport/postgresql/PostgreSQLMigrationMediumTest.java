@@ -24,6 +24,7 @@ import javax.sql.DataSource;
 import java.util.Properties;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 /**
  * Test to demonstrate the migration functionality using PostgreSQL.
@@ -153,6 +154,26 @@ public class PostgreSQLMigrationMediumTest extends MigrationTestCase {
         flyway.migrate();
     }
 
+    /**
+     * Tests clean by recreating the schemas instead of dropping their objects one by one.
+     */
+    @Test
+    public void recreateSchemas() throws Exception {
+        flyway.setSchemas("flyway_1", "flyway_2", "flyway_3");
+        flyway.setRecreateSchemas(true);
+        flyway.clean();
+
+        flyway.setLocations("migration/multi");
+        flyway.migrate();
+        assertEquals(2, jdbcTemplate.queryForInt("select count(*) from flyway_2.test_user2"));
+
+        flyway.clean();
+        assertNull(flyway.status());
+
+        // Running migrate again on an unclean database, triggers duplicate object exceptions.
+        flyway.migrate();
+    }
+
     /**
      * Tests parsing support for $$ string literals.
      */
@@ -16,8 +16,13 @@
 package com.googlecode.flyway.core.dbsupport.postgresql;
 
 import com.googlecode.flyway.core.migration.sql.PlaceholderReplacer;
+import com.googlecode.flyway.core.migration.sql.SqlStatement;
 import org.junit.Test;
 
+import java.io.StringReader;
+import java.util.Iterator;
+import java.util.List;
+
 import static org.junit.Assert.*;
 
 /**
@@ -26,9 +31,8 @@ import static org.junit.Assert.*;
 public class PostgreSQLSqlScriptSmallTest {
     @Test
     public void endsWithOpenMultilineStringLiteral() {
-        final PostgreSQLSqlScript script = new PostgreSQLSqlScript("", PlaceholderReplacer.NO_PLACEHOLDERS);
-        assertTrue(script.endsWithOpenMultilineStringLiteral("INSERT INTO address VALUES (1, '1. first"));
-        assertFalse(script.endsWithOpenMultilineStringLiteral("INSERT INTO address VALUES (1, '1. first\n" +
+        assertTrue(endsWithOpenMultilineStringLiteral("INSERT INTO address VALUES (1, '1. first"));
+        assertFalse(endsWithOpenMultilineStringLiteral("INSERT INTO address VALUES (1, '1. first\n" +
                 "2. second');"));
     }
 
@@ -79,16 +83,48 @@ public class PostgreSQLSqlScriptSmallTest {
     }
 
     @Test
-    public void dollarQuoteRegex() {
-        assertFalse("abc".matches(PostgreSQLSqlScript.DOLLAR_QUOTE_REGEX));
-        assertFalse("abc$".matches(PostgreSQLSqlScript.DOLLAR_QUOTE_REGEX));
-        assertFalse("$abc".matches(PostgreSQLSqlScript.DOLLAR_QUOTE_REGEX));
-        assertTrue("$$".matches(PostgreSQLSqlScript.DOLLAR_QUOTE_REGEX));
-        assertTrue("$abc$".matches(PostgreSQLSqlScript.DOLLAR_QUOTE_REGEX));
-        assertTrue("$ABC$".matches(PostgreSQLSqlScript.DOLLAR_QUOTE_REGEX));
-        assertTrue("$aBcDeF$".matches(PostgreSQLSqlScript.DOLLAR_QUOTE_REGEX));
-        assertTrue("$aBc_DeF$".matches(PostgreSQLSqlScript.DOLLAR_QUOTE_REGEX));
-        assertTrue("$abcDEF123$".matches(PostgreSQLSqlScript.DOLLAR_QUOTE_REGEX));
-        assertTrue("$abcDEF123$xxx".matches(PostgreSQLSqlScript.DOLLAR_QUOTE_REGEX));
+    public void multilineDollarStreaming() {
+        final String sqlScriptSource =
+                "INSERT INTO dollar VALUES($$Hello\n" +
+                        "multi-line\n" +
+                        "quotes;\n" +
+                        "$$);\n" +
+                        "INSERT INTO dollar VALUES($abc$Hello;$abc$)";
+        final PostgreSQLSqlScript script =
+                new PostgreSQLSqlScript(new StringReader(sqlScriptSource), PlaceholderReplacer.NO_PLACEHOLDERS);
+        Iterator<SqlStatement> iterator = script.statementIterator();
+        assertEquals("INSERT INTO dollar VALUES($$Hello\nmulti-line\nquotes;\n$$)", iterator.next().getSql());
+        assertEquals("INSERT INTO dollar VALUES($abc$Hello;$abc$)", iterator.next().getSql());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void dollarQuoteOpening() {
+        final PostgreSQLSqlScript script = new PostgreSQLSqlScript("", PlaceholderReplacer.NO_PLACEHOLDERS);
+        assertNull(script.getStringLiteralOpening("abc", 0));
+        assertNull(script.getStringLiteralOpening("abc$", 3));
+        assertNull(script.getStringLiteralOpening("$abc", 0));
+        assertNull(script.getStringLiteralOpening("a$b$", 1));
+        assertEquals("$$", script.getStringLiteralOpening("$$", 0));
+        assertEquals("$abc$", script.getStringLiteralOpening("$abc$", 0));
+        assertEquals("$ABC$", script.getStringLiteralOpening("$ABC$", 0));
+        assertEquals("$aBcDeF$", script.getStringLiteralOpening("$aBcDeF$", 0));
+        assertEquals("$aBc_DeF$", script.getStringLiteralOpening("$aBc_DeF$", 0));
+        assertEquals("$abcDEF123$", script.getStringLiteralOpening("$abcDEF123$", 0));
+        assertEquals("$abcDEF123$", script.getStringLiteralOpening("$abcDEF123$xxx", 0));
+        assertEquals("$$", script.getStringLiteralOpening("AS $$", 3));
+    }
+
+    /**
+     * Checks whether this statement ends inside an open multi-line string literal, by checking whether a delimiter on
+     * the following line is swallowed by that literal.
+     *
+     * @param statement The statement to check.
+     * @return {@code true} if the statement ends with an open string literal, {@code false} if not.
+     */
+    private boolean endsWithOpenMultilineStringLiteral(String statement) {
+        List<SqlStatement> sqlStatements =
+                new PostgreSQLSqlScript(statement + "\n;", PlaceholderReplacer.NO_PLACEHOLDERS).getSqlStatements();
+        return !sqlStatements.isEmpty() && sqlStatements.get(sqlStatements.size() - 1).getSql().endsWith(";");
     }
 }
\ No newline at end of file
@@ -16,6 +16,7 @@
 package com.googlecode.flyway.core.migration;
 
 import com.googlecode.flyway.core.dbsupport.DbSupport;
+import com.googlecode.flyway.core.migration.sql.PlaceholderReplacer;
 import com.googlecode.flyway.core.migration.sql.SqlMigration;
 import com.googlecode.flyway.core.util.ClassPathResource;
 import com.googlecode.flyway.core.util.jdbc.JdbcTemplate;
@@ -36,7 +37,7 @@ import static org.junit.Assert.assertTrue;
 public class CompositeMigrationResolverSmallTest {
     @Test
     public void resolveMigrationsMultipleLocations() {
-        MigrationResolver migrationResolver = new CompositeMigrationResolver(new String[]{"migration/subdir/dir2"}, "db.migration", "migration/subdir/dir1", "UTF-8", "V", ".sql", new HashMap<String, String>(), "${", "}");
+        MigrationResolver migrationResolver = new CompositeMigrationResolver(new String[]{"migration/subdir/dir2"}, "db.migration", "migration/subdir/dir1", "UTF-8", 0, "V", ".sql", new PlaceholderReplacer(new HashMap<String, String>(), "${", "}"));
 
         List<Migration> migrations = migrationResolver.resolveMigrations();
 
@@ -84,7 +85,7 @@ public class CompositeMigrationResolverSmallTest {
     @Test
     public void checkForIncompatibilitiesMessage() {
         List<Migration> migrations = new ArrayList<Migration>();
-        migrations.add(new SqlMigration(new ClassPathResource("migration/validate/V1__First.sql"), null, "UTF8", "1", "V1__First.sql"));
+        migrations.add(new SqlMigration(new ClassPathResource("migration/validate/V1__First.sql"), null, "UTF8", 0, "1", "V1__First.sql"));
         migrations.add(createTestMigration(MigrationType.JAVA, "1", "Description", "Migration1", 123));
 
         try {
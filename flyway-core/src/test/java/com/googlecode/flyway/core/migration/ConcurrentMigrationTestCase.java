@@ -16,13 +16,20 @@
 package com.googlecode.flyway.core.migration;
 
 import com.googlecode.flyway.core.Flyway;
+import com.googlecode.flyway.core.dbsupport.DbSupport;
+import com.googlecode.flyway.core.dbsupport.DbSupportFactory;
+import com.googlecode.flyway.core.metadatatable.MetaDataTable;
+import com.googlecode.flyway.core.migration.sql.PlaceholderReplacer;
 import org.junit.Before;
 import org.junit.Test;
 
 import javax.sql.DataSource;
 import java.io.File;
 import java.io.FileInputStream;
+import java.sql.Connection;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -47,6 +54,11 @@ public abstract class ConcurrentMigrationTestCase {
      */
     private boolean failed;
 
+    /**
+     * The number of migrations applied by the migrator running in the background.
+     */
+    private int backgroundMigrationCount;
+
     /**
      * The datasource to use for concurrent migration tests.
      */
@@ -114,4 +126,94 @@ public abstract class ConcurrentMigrationTestCase {
         assertEquals("2.0", schemaVersion.toString());
         assertEquals(0, flyway.migrate());
     }
+
+    @Test
+    public void migrateConcurrentlyWithOutdatedPlan() throws Exception {
+        final List<Migration> migrations =
+                new CompositeMigrationResolver(new String[]{BASE_DIR}, flyway.getBasePackage(), flyway.getBaseDir(),
+                        flyway.getEncoding(), 0, flyway.getSqlMigrationPrefix(), flyway.getSqlMigrationSuffix(),
+                        PlaceholderReplacer.NO_PLACEHOLDERS).resolveMigrations();
+        final CountDownLatch planned = new CountDownLatch(1);
+        final CountDownLatch migrated = new CountDownLatch(1);
+
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    // Lets the other migrator apply everything between computing the pending migrations and applying them
+                    backgroundMigrationCount = migrate(migrations, new LockListener() {
+                        private int locks;
+
+                        public void beforeLock() throws InterruptedException {
+                            locks++;
+                            if (locks == 2) {
+                                planned.countDown();
+                                migrated.await();
+                            }
+                        }
+                    });
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    failed = true;
+                }
+            }
+        });
+        thread.start();
+
+        planned.await();
+        try {
+            assertEquals(4, migrate(migrations, null));
+        } finally {
+            migrated.countDown();
+            thread.join();
+        }
+
+        assertFalse(failed);
+        assertEquals(0, backgroundMigrationCount);
+        assertEquals(5, flyway.history().size());
+        assertEquals("2.0", flyway.status().getVersion().toString());
+    }
+
+    /**
+     * Migrates the database with a migrator of its own.
+     *
+     * @param migrations   The available migrations.
+     * @param lockListener The listener to notify before every lock of the metadata table. {@code null} for none.
+     * @return The number of applied migrations.
+     */
+    private int migrate(List<Migration> migrations, final LockListener lockListener) throws Exception {
+        Connection connection = concurrentMigrationDataSource.getConnection();
+        Connection connectionForMigrations = concurrentMigrationDataSource.getConnection();
+        try {
+            DbSupport dbSupport = DbSupportFactory.createDbSupport(connection);
+            MetaDataTable metaDataTable =
+                    new MetaDataTable(connection, dbSupport, flyway.getSchemas()[0], flyway.getTable()) {
+                        @Override
+                        public void lock() {
+                            if (lockListener != null) {
+                                try {
+                                    lockListener.beforeLock();
+                                } catch (InterruptedException e) {
+                                    throw new IllegalStateException(e);
+                                }
+                            }
+                            super.lock();
+                        }
+                    };
+            return new DbMigrator(connection, connectionForMigrations, dbSupport, metaDataTable,
+                    SchemaVersion.LATEST, false).migrate(migrations);
+        } finally {
+            connectionForMigrations.close();
+            connection.close();
+        }
+    }
+
+    /**
+     * Listener notified before the metadata table gets locked.
+     */
+    private interface LockListener {
+        /**
+         * Called before the metadata table gets locked.
+         */
+        void beforeLock() throws InterruptedException;
+    }
 }
@@ -0,0 +1,334 @@
+/**
+ * Copyright (C) 2010-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.migration;
+
+import com.googlecode.flyway.core.dbsupport.DbSupport;
+import com.googlecode.flyway.core.metadatatable.MetaDataTableRow;
+import com.googlecode.flyway.core.migration.sql.PlaceholderReplacer;
+import com.googlecode.flyway.core.util.ClassPathResource;
+import com.googlecode.flyway.core.util.jdbc.JdbcTemplate;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for MigrationIndex.
+ */
+public class MigrationIndexSmallTest {
+    /**
+     * The root of a jar file on the classpath.
+     */
+    private static final String JAR_ROOT = "jar:file:/app.jar!/";
+
+    /**
+     * The root of another jar file on the classpath.
+     */
+    private static final String OTHER_JAR_ROOT = "jar:file:/other.jar!/";
+
+    @Test
+    public void generate() throws IOException {
+        CompositeMigrationResolver migrationResolver =
+                new CompositeMigrationResolver(new String[]{"migration/subdir/dir2"}, "db.migration", "migration/subdir/dir1",
+                        "UTF-8", 0, "V", ".sql", PlaceholderReplacer.NO_PLACEHOLDERS);
+        File outputDirectory = createTempDirectory();
+        File outputLocation = new File(outputDirectory, "migration/subdir/dir1");
+        File outputResource = new File(outputLocation, "V3__Output_Only.sql");
+        try {
+            outputLocation.mkdirs();
+            outputResource.createNewFile();
+
+            assertEquals(2, MigrationIndex.generate(migrationResolver, outputDirectory));
+
+            MigrationIndex migrationIndex = read(new File(outputDirectory, MigrationIndex.LOCATION));
+
+            Set<String> resourceNames =
+                    migrationIndex.getResourceNames("migration/subdir/dir1", urls(JAR_ROOT + "migration/subdir/dir1"));
+            // Only the resources of the output directory, not those of the rest of the classpath
+            assertEquals(1, resourceNames.size());
+            assertTrue(resourceNames.contains("migration/subdir/dir1/V3__Output_Only.sql"));
+            assertNull(migrationIndex.getResourceNames("migration/subdir/dir1",
+                    urls(JAR_ROOT + "migration/subdir/dir1", OTHER_JAR_ROOT + "migration/subdir/dir1")));
+            assertNull(migrationIndex.getResourceNames("migration/subdir", urls(JAR_ROOT + "migration/subdir")));
+
+            List<MetaDataTableRow> appliedMigrations = new ArrayList<MetaDataTableRow>();
+            List<Migration> migrations = migrationResolver.resolveMigrations();
+            for (int i = migrations.size() - 1; i >= 0; i--) {
+                appliedMigrations.add(new MetaDataTableRow(migrations.get(i)));
+            }
+            assertEquals(MigrationIndex.getFingerprint(appliedMigrations),
+                    migrationIndex.getFingerprint(null, SchemaVersion.LATEST));
+        } finally {
+            outputResource.delete();
+            outputLocation.delete();
+            new File(outputDirectory, "migration/subdir").delete();
+            new File(outputDirectory, "migration").delete();
+            new File(outputDirectory, MigrationIndex.LOCATION).delete();
+            new File(outputDirectory, "META-INF/flyway").delete();
+            new File(outputDirectory, "META-INF").delete();
+            outputDirectory.delete();
+        }
+    }
+
+    @Test
+    public void fingerprint() throws IOException {
+        MigrationIndex migrationIndex = new MigrationIndex();
+        migrationIndex.merge(JAR_ROOT, null, 0, new StringReader("# comment\nmigration:1,SQL,123\nmigration:3,JAVA,\n"));
+        migrationIndex.merge(JAR_ROOT, null, 0, new StringReader("migration:2.1,SQL,456\n"));
+
+        List<MetaDataTableRow> appliedMigrations = new ArrayList<MetaDataTableRow>();
+        appliedMigrations.add(new MetaDataTableRow(createTestMigration(MigrationType.SQL, "1", 123)));
+        appliedMigrations.add(new MetaDataTableRow(createTestMigration(MigrationType.SQL, "2.1", 456)));
+        appliedMigrations.add(new MetaDataTableRow(createTestMigration(MigrationType.JAVA, "3", null)));
+
+        assertEquals(MigrationIndex.getFingerprint(appliedMigrations),
+                migrationIndex.getFingerprint(null, SchemaVersion.LATEST));
+        assertEquals(MigrationIndex.getFingerprint(appliedMigrations.subList(0, 2)),
+                migrationIndex.getFingerprint(null, new SchemaVersion("2.1")));
+        assertEquals(MigrationIndex.getFingerprint(appliedMigrations.subList(1, 3)),
+                migrationIndex.getFingerprint(new SchemaVersion("1"), SchemaVersion.LATEST));
+        assertFalse(MigrationIndex.getFingerprint(appliedMigrations.subList(0, 2))
+                == migrationIndex.getFingerprint(null, SchemaVersion.LATEST));
+    }
+
+    @Test
+    public void fingerprintChecksumChanged() throws IOException {
+        MigrationIndex migrationIndex = new MigrationIndex();
+        migrationIndex.merge(JAR_ROOT, null, 0, new StringReader("migration:1,SQL,123\n"));
+
+        List<MetaDataTableRow> appliedMigrations = new ArrayList<MetaDataTableRow>();
+        appliedMigrations.add(new MetaDataTableRow(createTestMigration(MigrationType.SQL, "1", 124)));
+
+        assertTrue(MigrationIndex.getFingerprint(appliedMigrations)
+                != migrationIndex.getFingerprint(null, SchemaVersion.LATEST));
+    }
+
+    @Test
+    public void checksum() throws IOException {
+        File rootDirectory = createTempDirectory();
+        File locationDirectory = new File(rootDirectory, "db/migration");
+        File script = new File(locationDirectory, "V1__First.sql");
+        ClassLoader oldClassLoader = Thread.currentThread().getContextClassLoader();
+        try {
+            locationDirectory.mkdirs();
+            script.createNewFile();
+            long indexTime = System.currentTimeMillis() - 60000;
+            script.setLastModified(indexTime - 1000);
+
+            MigrationIndex migrationIndex = new MigrationIndex();
+            URL rootUrl = rootDirectory.toURI().toURL();
+            migrationIndex.merge(rootUrl.toExternalForm(), rootDirectory, indexTime, new StringReader(
+                    "checksum:db/migration/V1__First.sql,-123\nchecksum:migration/subdir/dir1/V1__First.sql,456\n"));
+            Thread.currentThread().setContextClassLoader(new URLClassLoader(new URL[]{rootUrl}, oldClassLoader));
+
+            assertEquals(Integer.valueOf(-123), migrationIndex.getChecksum(new ClassPathResource("db/migration/V1__First.sql")));
+            // Not part of the classpath entry of the index, even though the index mentions it
+            assertNull(migrationIndex.getChecksum(new ClassPathResource("migration/subdir/dir1/V1__First.sql")));
+            assertNull(migrationIndex.getChecksum(new ClassPathResource("db/migration/V2__Missing.sql")));
+
+            // A script edited after the index was generated
+            script.setLastModified(indexTime + 1000);
+            assertNull(migrationIndex.getChecksum(new ClassPathResource("db/migration/V1__First.sql")));
+        } finally {
+            Thread.currentThread().setContextClassLoader(oldClassLoader);
+            script.delete();
+            locationDirectory.delete();
+            new File(rootDirectory, "db").delete();
+            rootDirectory.delete();
+        }
+    }
+
+    @Test
+    public void locationCoverage() throws IOException {
+        MigrationIndex migrationIndex = new MigrationIndex();
+        migrationIndex.merge(JAR_ROOT, null, 0, new StringReader("location:db/migration\n"
+                + "resource:db/migration/V1__First.sql\nresource:db/migration2/V2__Second.sql\n"));
+        migrationIndex.merge(OTHER_JAR_ROOT, null, 0,
+                new StringReader("location:db/migration\nresource:db/migration/sub/V3__Third.sql\n"));
+
+        Set<String> resourceNames = migrationIndex.getResourceNames("db/migration",
+                urls(JAR_ROOT + "db/migration", OTHER_JAR_ROOT + "db/migration/"));
+        assertEquals(2, resourceNames.size());
+        assertTrue(resourceNames.contains("db/migration/V1__First.sql"));
+        assertTrue(resourceNames.contains("db/migration/sub/V3__Third.sql"));
+
+        assertEquals(1, migrationIndex.getResourceNames("db/migration", urls(JAR_ROOT + "db/migration")).size());
+        assertNull(migrationIndex.getResourceNames("db/migration",
+                urls(JAR_ROOT + "db/migration", "jar:file:/unindexed.jar!/db/migration")));
+        assertNull(migrationIndex.getResourceNames("db/migration2", urls(JAR_ROOT + "db/migration2")));
+    }
+
+    @Test
+    public void outdatedDirectory() throws IOException {
+        File rootDirectory = createTempDirectory();
+        File locationDirectory = new File(rootDirectory, "db/migration");
+        File subDirectory = new File(locationDirectory, "sub");
+        try {
+            subDirectory.mkdirs();
+            long indexTime = System.currentTimeMillis() - 60000;
+            locationDirectory.setLastModified(indexTime - 1000);
+            subDirectory.setLastModified(indexTime - 1000);
+
+            MigrationIndex migrationIndex = new MigrationIndex();
+            String rootUrl = rootDirectory.toURI().toURL().toExternalForm();
+            migrationIndex.merge(rootUrl, rootDirectory, indexTime,
+                    new StringReader("location:db/migration\nresource:db/migration/sub/V1__First.sql\n"));
+            List<URL> locationUrls = urls(rootUrl + "db/migration/");
+
+            assertEquals(1, migrationIndex.getResourceNames("db/migration", locationUrls).size());
+
+            // A migration added to a sub folder after the index was generated
+            subDirectory.setLastModified(indexTime + 1000);
+            assertNull(migrationIndex.getResourceNames("db/migration", locationUrls));
+        } finally {
+            subDirectory.delete();
+            locationDirectory.delete();
+            new File(rootDirectory, "db").delete();
+            rootDirectory.delete();
+        }
+    }
+
+    @Test
+    public void upToDate() throws IOException {
+        File rootDirectory = createTempDirectory();
+        File locationDirectory = new File(rootDirectory, "db/migration");
+        File script = new File(locationDirectory, "V1__First.sql");
+        File unindexedDirectory = createTempDirectory();
+        File unindexedLocationDirectory = new File(unindexedDirectory, "db/migration");
+        ClassLoader oldClassLoader = Thread.currentThread().getContextClassLoader();
+        try {
+            locationDirectory.mkdirs();
+            script.createNewFile();
+            long indexTime = System.currentTimeMillis() - 60000;
+            script.setLastModified(indexTime - 1000);
+            locationDirectory.setLastModified(indexTime - 1000);
+
+            MigrationIndex migrationIndex = new MigrationIndex();
+            URL rootUrl = rootDirectory.toURI().toURL();
+            migrationIndex.merge(rootUrl.toExternalForm(), rootDirectory, indexTime,
+                    new StringReader("location:db/migration\nresource:db/migration/V1__First.sql\n"));
+            Thread.currentThread().setContextClassLoader(new URLClassLoader(new URL[]{rootUrl}, oldClassLoader));
+            List<String> locations = Arrays.asList("db.migration");
+
+            assertTrue(migrationIndex.isUpToDate(locations));
+
+            // A script edited after the index was generated
+            script.setLastModified(indexTime + 1000);
+            assertFalse(migrationIndex.isUpToDate(locations));
+            script.setLastModified(indexTime - 1000);
+
+            // Another classpath entry containing the location, without index
+            unindexedLocationDirectory.mkdirs();
+            Thread.currentThread().setContextClassLoader(new URLClassLoader(
+                    new URL[]{rootUrl, unindexedDirectory.toURI().toURL()}, oldClassLoader));
+            assertFalse(migrationIndex.isUpToDate(locations));
+        } finally {
+            Thread.currentThread().setContextClassLoader(oldClassLoader);
+            script.delete();
+            locationDirectory.delete();
+            new File(rootDirectory, "db").delete();
+            rootDirectory.delete();
+            unindexedLocationDirectory.delete();
+            new File(unindexedDirectory, "db").delete();
+            unindexedDirectory.delete();
+        }
+    }
+
+    /**
+     * Reads the migration index in this file, as the index of a jar file.
+     *
+     * @param file The index file.
+     * @return The index.
+     */
+    private MigrationIndex read(File file) throws IOException {
+        MigrationIndex migrationIndex = new MigrationIndex();
+        Reader reader = new InputStreamReader(new FileInputStream(file), "UTF-8");
+        try {
+            migrationIndex.merge(JAR_ROOT, null, 0, reader);
+        } finally {
+            reader.close();
+        }
+        return migrationIndex;
+    }
+
+    /**
+     * Converts these strings to urls.
+     *
+     * @param urls The urls as strings.
+     * @return The urls.
+     */
+    private List<URL> urls(String... urls) throws MalformedURLException {
+        List<URL> result = new ArrayList<URL>();
+        for (String url : urls) {
+            result.add(new URL(url));
+        }
+        return result;
+    }
+
+    /**
+     * @return A new empty temporary directory.
+     */
+    private File createTempDirectory() throws IOException {
+        File directory = File.createTempFile("flyway", "index");
+        directory.delete();
+        directory.mkdirs();
+        return directory;
+    }
+
+    /**
+     * Creates a migration for our tests.
+     */
+    private Migration createTestMigration(final MigrationType aMigrationType, final String aVersion, final Integer aChecksum) {
+        return new Migration() {
+            {
+                schemaVersion = new SchemaVersion(aVersion);
+                description = "Description";
+                script = "Migration" + aVersion;
+                checksum = aChecksum;
+            }
+
+            @Override
+            public MigrationType getMigrationType() {
+                return aMigrationType;
+            }
+
+            @Override
+            public void migrate(JdbcTemplate jdbcTemplate, DbSupport dbSupport) {
+            }
+
+            @Override
+            public String getLocation() {
+                return script;
+            }
+        };
+    }
+}
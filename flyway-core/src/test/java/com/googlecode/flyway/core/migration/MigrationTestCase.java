@@ -35,6 +35,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.sql.Connection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Properties;
 
 import static org.junit.Assert.assertEquals;
@@ -113,6 +114,15 @@ public abstract class MigrationTestCase {
         assertEquals(2, jdbcTemplate.queryForInt("select count(*) from all_misters"));
     }
 
+    @Test
+    public void migrateBatch() throws Exception {
+        flyway.setLocations(BASEDIR);
+        flyway.setBatchSize(10);
+        flyway.migrate();
+        assertEquals("2.0", flyway.status().getVersion().toString());
+        assertEquals(2, jdbcTemplate.queryForInt("select count(*) from all_misters"));
+    }
+
     @Test
     public void target() throws Exception {
         flyway.setLocations(BASEDIR);
@@ -216,6 +226,30 @@ public abstract class MigrationTestCase {
         }
     }
 
+    @Test
+    public void failedMiddleMigration() throws Exception {
+        flyway.setLocations("migration/failed_middle");
+
+        try {
+            flyway.migrate();
+            fail();
+        } catch (FlywayException e) {
+            //Expected
+        }
+
+        List<MetaDataTableRow> history = flyway.history();
+        assertEquals("1", history.get(0).getVersion().toString());
+        assertEquals(MigrationState.SUCCESS, history.get(0).getState());
+        if (dbSupport.supportsDdlTransactions()) {
+            assertEquals(1, history.size());
+        } else {
+            assertEquals(2, history.size());
+            assertEquals("2", history.get(1).getVersion().toString());
+            assertEquals(MigrationState.FAILED, history.get(1).getState());
+        }
+        assertEquals(0, jdbcTemplate.queryForInt("select count(*) from test_user"));
+    }
+
     @Test
     public void futureFailedMigration() throws Exception {
         flyway.setValidationMode(ValidationMode.NONE);
@@ -17,6 +17,8 @@ package com.googlecode.flyway.core.migration;
 
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -95,5 +97,38 @@ public class SchemaVersionSmallTest {
         assertTrue(v1.compareTo(v2) == 0);
         assertTrue(v1.equals(v2));
     }
-}
 
+    @Test
+    public void hashCodeConsistentWithEquals() {
+        final SchemaVersion v1 = new SchemaVersion("1.1");
+        final SchemaVersion v2 = new SchemaVersion("001.1.0-0");
+        assertTrue(v1.equals(v2));
+        assertEquals(v1.hashCode(), v2.hashCode());
+        assertEquals(new SchemaVersion("0").hashCode(), new SchemaVersion("0.0").hashCode());
+        assertFalse(v1.equals(new SchemaVersion("1.1.0.1")));
+    }
+
+    @Test
+    public void trailingNonNumeric() {
+        final SchemaVersion v1 = new SchemaVersion("1.0");
+        final SchemaVersion v2 = new SchemaVersion("1.0.a");
+        assertTrue(v1.compareTo(v2) < 0);
+        assertTrue(v2.compareTo(v1) > 0);
+    }
+
+    @Test
+    public void tooLargeForNumber() {
+        final SchemaVersion v1 = new SchemaVersion("99999999999999999999");
+        final SchemaVersion v2 = new SchemaVersion("99999999999999999998");
+        assertTrue(v1.compareTo(v2) > 0);
+        assertTrue(v2.compareTo(v1) < 0);
+        assertEquals(0, v1.compareTo(new SchemaVersion("99999999999999999999")));
+    }
+
+    @Test
+    public void empty() {
+        assertEquals(0, SchemaVersion.EMPTY.hashCode());
+        assertTrue(SchemaVersion.EMPTY.compareTo(new SchemaVersion("0")) < 0);
+        assertTrue(new SchemaVersion("0").compareTo(SchemaVersion.EMPTY) > 0);
+    }
+}
@@ -35,6 +35,16 @@ public class JdbcMigrationExecutorSmallTest {
         assertNull(jdbcMigrationExecutor.getChecksum());
     }
 
+    @Test
+    public void conventionOverConfigurationClassName() {
+        JdbcMigrationExecutor jdbcMigrationExecutor =
+                new JdbcMigrationExecutor(V2__InterfaceBasedMigration.class.getName());
+        assertEquals("2", jdbcMigrationExecutor.getVersion().toString());
+        assertEquals("InterfaceBasedMigration", jdbcMigrationExecutor.getDescription());
+        assertNull(jdbcMigrationExecutor.getChecksum());
+        assertEquals(V2__InterfaceBasedMigration.class.getName(), jdbcMigrationExecutor.getScript());
+    }
+
     @Test
     public void explicitInfo() {
         JdbcMigrationExecutor jdbcMigrationExecutor = new JdbcMigrationExecutor(new Version3dot5());
@@ -15,6 +15,7 @@
  */
 package com.googlecode.flyway.core.migration.sql;
 
+import com.googlecode.flyway.core.exception.FlywayException;
 import org.junit.Test;
 
 import java.util.HashMap;
@@ -54,4 +55,43 @@ public class PlaceholderReplacerSmallTest {
 
         assertEquals("No ${placeholder} right to ${replace}", placeholderReplacer.replacePlaceholders(TEST_STR));
     }
+
+    @Test
+    public void specialCharactersInValue() {
+        Map<String, String> placeholders = new HashMap<String, String>();
+        placeholders.put("placeholder", "$1 \\ ${replace}");
+        PlaceholderReplacer placeholderReplacer = new PlaceholderReplacer(placeholders, "${", "}");
+
+        assertEquals("No $1 \\ ${replace} #[left] to ${replace}", placeholderReplacer.replacePlaceholders(TEST_STR));
+    }
+
+    @Test
+    public void adjacentPlaceholders() {
+        Map<String, String> placeholders = new HashMap<String, String>();
+        placeholders.put("a", "1");
+        placeholders.put("b", "2");
+        PlaceholderReplacer placeholderReplacer = new PlaceholderReplacer(placeholders, "${", "}");
+
+        assertEquals("12${c}2", placeholderReplacer.replacePlaceholders("${a}${b}${c}${b}"));
+        assertEquals("$${1", placeholderReplacer.replacePlaceholders("$${${a}"));
+    }
+
+    @Test
+    public void strict() {
+        Map<String, String> placeholders = new HashMap<String, String>();
+        placeholders.put("placeholder", "value");
+        placeholders.put("replace", "replaced");
+        PlaceholderReplacer placeholderReplacer = new PlaceholderReplacer(placeholders, "${", "}", true);
+
+        assertEquals("No value #[left] to replaced", placeholderReplacer.replacePlaceholders(TEST_STR));
+    }
+
+    @Test(expected = FlywayException.class)
+    public void strictMissingValue() {
+        Map<String, String> placeholders = new HashMap<String, String>();
+        placeholders.put("placeholder", "value");
+        PlaceholderReplacer placeholderReplacer = new PlaceholderReplacer(placeholders, "${", "}", true);
+
+        placeholderReplacer.replacePlaceholders(TEST_STR);
+    }
 }
@@ -16,12 +16,15 @@
 package com.googlecode.flyway.core.migration.sql;
 
 import com.googlecode.flyway.core.migration.Migration;
+import com.googlecode.flyway.core.util.scanner.ClassPathScanner;
 import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.Assert.assertEquals;
 
@@ -41,7 +44,7 @@ public class SqlMigrationResolverSmallTest {
     @Test
     public void resolveMigrations() {
         SqlMigrationResolver sqlMigrationResolver =
-                new SqlMigrationResolver("/migration/subdir", PlaceholderReplacer.NO_PLACEHOLDERS, "UTF-8", "V", ".sql");
+                new SqlMigrationResolver("/migration/subdir", PlaceholderReplacer.NO_PLACEHOLDERS, "UTF-8", 0, "V", ".sql");
         Collection<Migration> migrations = sqlMigrationResolver.resolveMigrations();
 
         assertEquals(3, migrations.size());
@@ -61,7 +64,7 @@ public class SqlMigrationResolverSmallTest {
     @Test
     public void resolveMigrationsNoLeadingSlash() {
         SqlMigrationResolver sqlMigrationResolver =
-                new SqlMigrationResolver("migration/subdir", PlaceholderReplacer.NO_PLACEHOLDERS, "UTF-8", "V", ".sql");
+                new SqlMigrationResolver("migration/subdir", PlaceholderReplacer.NO_PLACEHOLDERS, "UTF-8", 0, "V", ".sql");
         Collection<Migration> migrations = sqlMigrationResolver.resolveMigrations();
 
         assertEquals(3, migrations.size());
@@ -78,10 +81,33 @@ public class SqlMigrationResolverSmallTest {
         assertEquals("dir2/V2_0__Add_foreign_key.sql", migrationList.get(2).getScript());
     }
 
+    @Test
+    public void resolveMigrationsConcurrently() {
+        List<Migration> sequentialMigrations =
+                new SqlMigrationResolver("migration/subdir", PlaceholderReplacer.NO_PLACEHOLDERS, "UTF-8", 0, "V", ".sql")
+                        .resolveMigrations();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            SqlMigrationResolver sqlMigrationResolver =
+                    new SqlMigrationResolver("migration/subdir", PlaceholderReplacer.NO_PLACEHOLDERS, "UTF-8", 0, "V", ".sql",
+                            new ClassPathScanner(), executorService);
+            List<Migration> migrations = sqlMigrationResolver.resolveMigrations();
+
+            assertEquals(sequentialMigrations.size(), migrations.size());
+            for (int i = 0; i < migrations.size(); i++) {
+                assertEquals(sequentialMigrations.get(i).getScript(), migrations.get(i).getScript());
+                assertEquals(sequentialMigrations.get(i).getChecksum(), migrations.get(i).getChecksum());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
     @Test
     public void resolveMigrationsRoot() {
         SqlMigrationResolver sqlMigrationResolver =
-                new SqlMigrationResolver("", PlaceholderReplacer.NO_PLACEHOLDERS, "UTF-8", "CheckValidate", ".sql");
+                new SqlMigrationResolver("", PlaceholderReplacer.NO_PLACEHOLDERS, "UTF-8", 0, "CheckValidate", ".sql");
         Collection<Migration> migrations = sqlMigrationResolver.resolveMigrations();
 
         assertEquals(1, migrations.size());
@@ -90,7 +116,7 @@ public class SqlMigrationResolverSmallTest {
     @Test
     public void resolveMigrationsNonExisting() {
         SqlMigrationResolver sqlMigrationResolver =
-                new SqlMigrationResolver("non/existing", PlaceholderReplacer.NO_PLACEHOLDERS, "UTF-8", "CheckValidate", ".sql");
+                new SqlMigrationResolver("non/existing", PlaceholderReplacer.NO_PLACEHOLDERS, "UTF-8", 0, "CheckValidate", ".sql");
         Collection<Migration> migrations = sqlMigrationResolver.resolveMigrations();
 
         assertEquals(0, migrations.size());
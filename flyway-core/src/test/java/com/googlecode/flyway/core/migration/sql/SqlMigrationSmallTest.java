@@ -0,0 +1,77 @@
+/**
+ * Copyright (C) 2010-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.migration.sql;
+
+import com.googlecode.flyway.core.util.ClassPathResource;
+import org.junit.Test;
+
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Testcase for SqlMigration.
+ */
+public class SqlMigrationSmallTest {
+    @Test
+    public void checksum() {
+        assertChecksumOfLoadedScript("migration/subdir/V1_1__Populate_table.sql");
+    }
+
+    @Test
+    public void checksumUtf8() {
+        assertChecksumOfLoadedScript("com/googlecode/flyway/core/util/utf8.nofilter");
+    }
+
+    @Test
+    public void checksumUtf8Bom() {
+        assertChecksumOfLoadedScript("com/googlecode/flyway/core/util/utf8bom.nofilter");
+        assertEquals(checksumOf("com/googlecode/flyway/core/util/utf8.nofilter"),
+                checksumOf("com/googlecode/flyway/core/util/utf8bom.nofilter"));
+    }
+
+    @Test
+    public void checksumPrecomputed() {
+        // The script does not exist, so it must not be read
+        SqlMigration sqlMigration = new SqlMigration(new ClassPathResource("non/existing/V1__Missing.sql"),
+                PlaceholderReplacer.NO_PLACEHOLDERS, "UTF-8", 0, "1", "V1__Missing.sql", 42);
+
+        assertEquals(Integer.valueOf(42), sqlMigration.getChecksum());
+    }
+
+    /**
+     * Checks that the checksum of this script matches the crc-32 of the complete script loaded as a string.
+     *
+     * @param location The location of the script on the classpath.
+     */
+    private void assertChecksumOfLoadedScript(String location) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(new ClassPathResource(location).loadAsString("UTF-8").getBytes());
+
+        assertEquals((int) crc32.getValue(), checksumOf(location));
+    }
+
+    /**
+     * Calculates the checksum of the sql migration for this script.
+     *
+     * @param location The location of the script on the classpath.
+     * @return The checksum.
+     */
+    private int checksumOf(String location) {
+        return new SqlMigration(new ClassPathResource(location), PlaceholderReplacer.NO_PLACEHOLDERS, "UTF-8", 0, "1", location)
+                .getChecksum();
+    }
+}
@@ -17,13 +17,18 @@ package com.googlecode.flyway.core.migration.sql;
 
 import org.junit.Test;
 
-import java.util.ArrayList;
+import java.io.StringReader;
+import java.sql.BatchUpdateException;
+import java.sql.Statement;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Test for SqlScript.
@@ -35,50 +40,64 @@ public class SqlScriptSmallTest {
      */
     private SqlScript sqlScript = new SqlScript();
 
-    /**
-     * Input lines.
-     */
-    private List<String> lines = new ArrayList<String>();
+    @Test
+    public void parseNoComment() {
+        List<SqlStatement> sqlStatements = sqlScript.parse("select * from table;", PlaceholderReplacer.NO_PLACEHOLDERS);
+        assertEquals(1, sqlStatements.size());
+        assertEquals("select * from table", sqlStatements.get(0).getSql());
+    }
 
     @Test
-    public void stripSqlCommentsNoComment() {
-        lines.add("select * from table;");
-        List<String> result = sqlScript.stripSqlComments(lines);
-        assertEquals("select * from table;", result.get(0));
+    public void parseSingleLineComment() {
+        List<SqlStatement> sqlStatements = sqlScript.parse("--select * from table;", PlaceholderReplacer.NO_PLACEHOLDERS);
+        assertEquals(0, sqlStatements.size());
     }
 
     @Test
-    public void stripSqlCommentsSingleLineComment() {
-        lines.add("--select * from table;");
-        List<String> result = sqlScript.stripSqlComments(lines);
-        assertEquals("", result.get(0));
+    public void parseMultiLineCommentSingleLine() {
+        String source = "/*comment line*/\n" +
+                "select * from table;";
+        List<SqlStatement> sqlStatements = sqlScript.parse(source, PlaceholderReplacer.NO_PLACEHOLDERS);
+        assertEquals(1, sqlStatements.size());
+        assertEquals(2, sqlStatements.get(0).getLineNumber());
+        assertEquals("select * from table", sqlStatements.get(0).getSql());
     }
 
     @Test
-    public void stripSqlCommentsMultiLineCommentSingleLine() {
-        lines.add("/*comment line*/");
-        lines.add("select * from table;");
-        List<String> result = sqlScript.stripSqlComments(lines);
-        assertEquals("", result.get(0));
-        assertEquals("select * from table;", result.get(1));
+    public void parseMultiLineCommentMultipleLines() {
+        String source = "/*comment line\n" +
+                "more comment text*/";
+        List<SqlStatement> sqlStatements = sqlScript.parse(source, PlaceholderReplacer.NO_PLACEHOLDERS);
+        assertEquals(0, sqlStatements.size());
     }
 
     @Test
-    public void stripSqlCommentsMultiLineCommentMultipleLines() {
-        lines.add("/*comment line");
-        lines.add("more comment text*/");
-        List<String> result = sqlScript.stripSqlComments(lines);
-        assertEquals("", result.get(0));
-        assertEquals("", result.get(1));
+    public void parseMultiLineCommentFollowedBySql() {
+        String source = "/* comment\n" +
+                "more comment text */ select * from table;";
+        List<SqlStatement> sqlStatements = sqlScript.parse(source, PlaceholderReplacer.NO_PLACEHOLDERS);
+        assertEquals(1, sqlStatements.size());
+        assertEquals(2, sqlStatements.get(0).getLineNumber());
+        assertEquals("select * from table", sqlStatements.get(0).getSql());
     }
 
     @Test
-    public void linesToStatements() {
-        lines.add("select col1, col2");
-        lines.add("from mytable");
-        lines.add("where col1 > 10;");
+    public void parseTrailingComment() {
+        String source = "select * from table; -- comment;\n" +
+                "select * from other_table;";
+        List<SqlStatement> sqlStatements = sqlScript.parse(source, PlaceholderReplacer.NO_PLACEHOLDERS);
+        assertEquals(2, sqlStatements.size());
+        assertEquals("select * from table", sqlStatements.get(0).getSql());
+        assertEquals("select * from other_table", sqlStatements.get(1).getSql());
+    }
+
+    @Test
+    public void parseMultipleLines() {
+        String source = "select col1, col2\n" +
+                "from mytable\n" +
+                "where col1 > 10;";
 
-        List<SqlStatement> sqlStatements = sqlScript.linesToStatements(lines);
+        List<SqlStatement> sqlStatements = sqlScript.parse(source, PlaceholderReplacer.NO_PLACEHOLDERS);
         assertNotNull(sqlStatements);
         assertEquals(1, sqlStatements.size());
 
@@ -87,6 +106,21 @@ public class SqlScriptSmallTest {
         assertEquals("select col1, col2\nfrom mytable\nwhere col1 > 10", sqlStatement.getSql());
     }
 
+    @Test
+    public void parseMultiLineStringLiteral() {
+        String source = "insert into mytable values ('first line;\n" +
+                "  -- second line;\n" +
+                "\n" +
+                "/* third line */');\n" +
+                "select * from mytable;";
+
+        List<SqlStatement> sqlStatements = sqlScript.parse(source, PlaceholderReplacer.NO_PLACEHOLDERS);
+        assertEquals(2, sqlStatements.size());
+        assertEquals("insert into mytable values ('first line;\n  -- second line;\n\n/* third line */')",
+                sqlStatements.get(0).getSql());
+        assertEquals(5, sqlStatements.get(1).getLineNumber());
+    }
+
     @Test
     public void parsePlaceholderComments() {
         String source = "${drop_view} \"SOME_VIEW\" IF EXISTS;\n" +"CREATE ${or_replace} VIEW \"SOME_VIEW\";\n";
@@ -103,4 +137,57 @@ public class SqlScriptSmallTest {
         assertEquals(2, sqlStatement.getLineNumber());
         assertEquals("CREATE OR REPLACE VIEW \"SOME_VIEW\"", sqlStatement.getSql());
     }
+
+    @Test
+    public void streaming() {
+        String source = "select * from table1;\n" +
+                "insert into table1 values ('a;\n" +
+                "b');\n" +
+                "select * from table2";
+
+        SqlScript streamingScript = new SqlScript(new StringReader(source), PlaceholderReplacer.NO_PLACEHOLDERS);
+        Iterator<SqlStatement> iterator = streamingScript.statementIterator();
+
+        for (SqlStatement expected : new SqlScript(source, PlaceholderReplacer.NO_PLACEHOLDERS).getSqlStatements()) {
+            assertTrue(iterator.hasNext());
+            SqlStatement sqlStatement = iterator.next();
+            assertEquals(expected.getLineNumber(), sqlStatement.getLineNumber());
+            assertEquals(expected.getSql(), sqlStatement.getSql());
+        }
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void streamingConsumedTwice() {
+        SqlScript streamingScript =
+                new SqlScript(new StringReader("select * from table1;"), PlaceholderReplacer.NO_PLACEHOLDERS);
+        streamingScript.statementIterator();
+        streamingScript.statementIterator();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void streamingConsumedGetSqlStatements() {
+        SqlScript streamingScript =
+                new SqlScript(new StringReader("select * from table1;"), PlaceholderReplacer.NO_PLACEHOLDERS);
+        streamingScript.statementIterator();
+        streamingScript.getSqlStatements();
+    }
+
+    @Test
+    public void streamingGetSqlStatements() {
+        SqlScript streamingScript = new SqlScript(new StringReader("select * from table1;\nselect * from table2;"),
+                PlaceholderReplacer.NO_PLACEHOLDERS);
+        assertEquals(2, streamingScript.getSqlStatements().size());
+        assertEquals(2, streamingScript.getSqlStatements().size());
+    }
+
+    @Test
+    public void getFailedStatementIndex() {
+        assertEquals(-1, SqlScript.getFailedStatementIndex(new BatchUpdateException(), 3));
+        assertEquals(0, SqlScript.getFailedStatementIndex(new BatchUpdateException(new int[0]), 3));
+        assertEquals(2, SqlScript.getFailedStatementIndex(new BatchUpdateException(new int[]{1, 1}), 3));
+        assertEquals(1, SqlScript.getFailedStatementIndex(
+                new BatchUpdateException(new int[]{1, Statement.EXECUTE_FAILED, 1}), 3));
+        assertEquals(-1, SqlScript.getFailedStatementIndex(new BatchUpdateException(new int[]{1, 1, 1}), 3));
+    }
 }
@@ -0,0 +1,50 @@
+/**
+ * Copyright (C) 2010-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.migration.sql;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for SqlStatement.
+ */
+public class SqlStatementSmallTest {
+    @Test
+    public void isBatchable() {
+        assertTrue(new SqlStatement(1, "INSERT INTO test_user (name) VALUES ('Mr. T')").isBatchable());
+        assertTrue(new SqlStatement(1, "insert into test_user (name) values ('Mr. T')").isBatchable());
+        assertTrue(new SqlStatement(1, "update test_user set name='Mr. Semicolon;'").isBatchable());
+        assertTrue(new SqlStatement(1, "DELETE FROM test_user").isBatchable());
+        assertTrue(new SqlStatement(1, "MERGE INTO test_user USING dual ON (1 = 1)").isBatchable());
+        assertFalse(new SqlStatement(1, "CREATE TABLE test_user (name VARCHAR(25) NOT NULL)").isBatchable());
+        assertFalse(new SqlStatement(1, "CREATE OR REPLACE VIEW v AS SELECT * FROM test_user").isBatchable());
+        assertFalse(new SqlStatement(1, "DROP TABLE test_user").isBatchable());
+        assertFalse(new SqlStatement(1, "INSERTED").isBatchable());
+        assertFalse(new SqlStatement(1, "BEGIN\nINSERT INTO test_user (name) VALUES ('Mr. T');\nEND;").isBatchable());
+        assertFalse(new SqlStatement(1, "SELECT * FROM test_user").isBatchable());
+    }
+
+    @Test
+    public void isBatchableReturningResultSet() {
+        assertFalse(new SqlStatement(1, "INSERT INTO test_user (name) VALUES ('Mr. T') RETURNING id").isBatchable());
+        assertFalse(new SqlStatement(1, "update test_user set name='Mr. T'\nreturning *").isBatchable());
+        assertFalse(new SqlStatement(1, "DELETE FROM test_user RETURNING name INTO :name").isBatchable());
+        assertFalse(new SqlStatement(1, "INSERT INTO test_user (name) OUTPUT inserted.id VALUES ('Mr. T')").isBatchable());
+        assertTrue(new SqlStatement(1, "INSERT INTO test_user (name, returning_customer) VALUES ('Mr. T', 1)").isBatchable());
+    }
+}
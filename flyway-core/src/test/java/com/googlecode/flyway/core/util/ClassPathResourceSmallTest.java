@@ -17,7 +17,11 @@ package com.googlecode.flyway.core.util;
 
 import org.junit.Test;
 
+import java.io.InputStreamReader;
+import java.io.Reader;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 /**
  * Tests for ClassPathResource.
@@ -40,4 +44,34 @@ public class ClassPathResourceSmallTest {
         assertEquals("SELECT 1 FROM DUAL;",
                 new ClassPathResource("com/googlecode/flyway/core/util/utf8bom.nofilter").loadAsString("UTF-8"));
     }
+
+    @Test
+    public void loadAsStringFromFileMatchesStream() throws Exception {
+        ClassPathResource resource =
+                new ClassPathResource("migration/dbsupport/sqlserver/sql/large/V3_1_0__Bootstrap.sql");
+
+        assertEquals(readFromClassLoader(resource.getLocation()), resource.loadAsString("UTF-8"));
+    }
+
+    @Test
+    public void openReaderFromFileUsesFileChannel() throws Exception {
+        ClassPathResource resource = new ClassPathResource("migration/sql/V1__First.sql");
+        assertEquals("file", resource.getUrl().getProtocol());
+
+        Reader reader = resource.openReader("UTF-8");
+        // Not the InputStreamReader over the stream of the classloader
+        assertFalse(reader instanceof InputStreamReader);
+        assertEquals(readFromClassLoader(resource.getLocation()), FileCopyUtils.copyToString(reader));
+    }
+
+    /**
+     * Reads this resource through the stream of the classloader.
+     *
+     * @param location The location of the resource on the classpath.
+     * @return The contents of the resource.
+     */
+    private String readFromClassLoader(String location) throws Exception {
+        return FileCopyUtils.copyToString(
+                new InputStreamReader(getClass().getClassLoader().getResourceAsStream(location), "UTF-8"));
+    }
 }
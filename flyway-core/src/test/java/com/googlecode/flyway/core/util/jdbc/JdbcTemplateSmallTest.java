@@ -0,0 +1,152 @@
+/**
+ * Copyright (C) 2010-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.util.jdbc;
+
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test for JdbcTemplate.
+ */
+public class JdbcTemplateSmallTest {
+    /**
+     * The names of the methods invoked on the connection and its statements, in order.
+     */
+    private final List<String> invocations = new ArrayList<String>();
+
+    /**
+     * The JdbcTemplate under test, backed by a connection recording its invocations.
+     */
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(createRecordingConnection()) {
+        @Override
+        protected void setNull(PreparedStatement preparedStatement, int parameterIndex) throws SQLException {
+            preparedStatement.setNull(parameterIndex, 0);
+        }
+    };
+
+    @Test
+    public void noStatementReuse() throws Exception {
+        jdbcTemplate.executeStatement("CREATE TABLE t1 (c1 INT)");
+        jdbcTemplate.executeStatement("CREATE TABLE t2 (c1 INT)");
+        jdbcTemplate.update("INSERT INTO t1 VALUES (?)", 1);
+        jdbcTemplate.update("INSERT INTO t1 VALUES (?)", 2);
+
+        assertEquals(2, count("createStatement"));
+        assertEquals(2, count("prepareStatement"));
+        assertEquals(4, count("close"));
+    }
+
+    @Test
+    public void statementReuse() throws Exception {
+        jdbcTemplate.beginStatementReuse();
+        jdbcTemplate.executeStatement("CREATE TABLE t1 (c1 INT)");
+        jdbcTemplate.executeStatement("CREATE TABLE t2 (c1 INT)");
+        jdbcTemplate.update("INSERT INTO t1 VALUES (?)", 1);
+        jdbcTemplate.update("INSERT INTO t1 VALUES (?)", 2);
+        jdbcTemplate.update("INSERT INTO t2 VALUES (?)", 3);
+
+        assertEquals(1, count("createStatement"));
+        assertEquals(2, count("prepareStatement"));
+        assertEquals(0, count("close"));
+
+        jdbcTemplate.endStatementReuse();
+        assertEquals(3, count("close"));
+    }
+
+    @Test
+    public void nestedStatementReuse() throws Exception {
+        jdbcTemplate.beginStatementReuse();
+        jdbcTemplate.beginStatementReuse();
+        jdbcTemplate.executeStatement("CREATE TABLE t1 (c1 INT)");
+        jdbcTemplate.endStatementReuse();
+        jdbcTemplate.executeStatement("CREATE TABLE t2 (c1 INT)");
+        assertEquals(1, count("createStatement"));
+        assertEquals(0, count("close"));
+
+        jdbcTemplate.endStatementReuse();
+        assertEquals(1, count("close"));
+    }
+
+    /**
+     * Counts the invocations of the method with this name.
+     *
+     * @param methodName The name of the method.
+     * @return The number of invocations.
+     */
+    private int count(String methodName) {
+        int count = 0;
+        for (String invocation : invocations) {
+            if (invocation.equals(methodName)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return A connection that records the method invocations on it and its statements.
+     */
+    private Connection createRecordingConnection() {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Connection.class},
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        invocations.add(method.getName());
+                        if ("createStatement".equals(method.getName())) {
+                            return createRecordingStatement(Statement.class);
+                        }
+                        if ("prepareStatement".equals(method.getName())) {
+                            return createRecordingStatement(PreparedStatement.class);
+                        }
+                        return null;
+                    }
+                });
+    }
+
+    /**
+     * Creates a statement that records the invocations of its close method.
+     *
+     * @param statementClass The type of statement to create.
+     * @return The statement.
+     */
+    private Object createRecordingStatement(Class<?> statementClass) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{statementClass},
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if ("close".equals(method.getName())) {
+                            invocations.add("close");
+                        }
+                        if (method.getReturnType() == boolean.class) {
+                            return false;
+                        }
+                        if (method.getReturnType() == int.class) {
+                            return 0;
+                        }
+                        return null;
+                    }
+                });
+    }
+}
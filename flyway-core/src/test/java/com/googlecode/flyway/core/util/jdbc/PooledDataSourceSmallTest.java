@@ -0,0 +1,226 @@
+/**
+ * Copyright (C) 2010-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.util.jdbc;
+
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test for PooledDataSource.
+ */
+@SuppressWarnings({"JavaDoc"})
+public class PooledDataSourceSmallTest {
+    /**
+     * The names of the methods invoked on the physical connections, in order.
+     */
+    private final List<String> invocations = new ArrayList<String>();
+
+    /**
+     * The number of physical connections opened so far.
+     */
+    private int opened;
+
+    /**
+     * Flag indicating whether the validation query fails on the physical connections.
+     */
+    private boolean validationFails;
+
+    /**
+     * The pool under test, backed by a DataSource handing out connections recording their invocations.
+     */
+    private final PooledDataSource pooledDataSource = new PooledDataSource(createRecordingDataSource());
+
+    @Test
+    public void reuse() throws Exception {
+        Connection connection = pooledDataSource.getConnection();
+        connection.close();
+        assertTrue(connection.isClosed());
+        assertEquals(1, pooledDataSource.getIdleCount());
+
+        pooledDataSource.getConnection().close();
+        assertEquals(1, opened);
+        assertEquals(0, count("close"));
+
+        pooledDataSource.close();
+        assertEquals(0, pooledDataSource.getIdleCount());
+        assertEquals(1, count("close"));
+    }
+
+    @Test
+    public void doubleClose() throws Exception {
+        Connection connection = pooledDataSource.getConnection();
+        connection.close();
+        connection.close();
+        assertEquals(1, pooledDataSource.getIdleCount());
+
+        try {
+            connection.createStatement();
+            fail();
+        } catch (SQLException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void maxSize() throws Exception {
+        pooledDataSource.setMaxSize(2);
+        pooledDataSource.setMaxWait(10);
+
+        Connection connection1 = pooledDataSource.getConnection();
+        pooledDataSource.getConnection();
+        try {
+            pooledDataSource.getConnection();
+            fail();
+        } catch (SQLException e) {
+            // Expected
+        }
+
+        connection1.close();
+        pooledDataSource.getConnection();
+        assertEquals(2, opened);
+    }
+
+    @Test
+    public void idleEviction() throws Exception {
+        pooledDataSource.setMaxIdleTime(-1);
+
+        pooledDataSource.getConnection().close();
+        pooledDataSource.getConnection();
+        assertEquals(2, opened);
+        assertEquals(1, count("close"));
+    }
+
+    @Test
+    public void validationQuery() throws Exception {
+        pooledDataSource.setValidationQuery("SELECT 1");
+
+        pooledDataSource.getConnection().close();
+        pooledDataSource.getConnection().close();
+        assertEquals(1, opened);
+        assertEquals(1, count("execute"));
+
+        validationFails = true;
+        pooledDataSource.getConnection();
+        assertEquals(2, opened);
+        assertEquals(1, count("close"));
+    }
+
+    @Test
+    public void rollbackOnReturn() throws Exception {
+        Connection connection = pooledDataSource.getConnection();
+        connection.setAutoCommit(false);
+        connection.close();
+
+        assertEquals(1, count("rollback"));
+        assertTrue(pooledDataSource.getConnection().getAutoCommit());
+    }
+
+    /**
+     * Counts the invocations of the method with this name.
+     *
+     * @param methodName The name of the method.
+     * @return The number of invocations.
+     */
+    private int count(String methodName) {
+        int count = 0;
+        for (String invocation : invocations) {
+            if (invocation.equals(methodName)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return A DataSource handing out new connections recording their method invocations.
+     */
+    private DataSource createRecordingDataSource() {
+        return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{DataSource.class},
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if ("getConnection".equals(method.getName())) {
+                            opened++;
+                            return createRecordingConnection();
+                        }
+                        return null;
+                    }
+                });
+    }
+
+    /**
+     * @return A connection that records the method invocations on it and its statements.
+     */
+    private Connection createRecordingConnection() {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Connection.class},
+                new InvocationHandler() {
+                    private boolean autoCommit = true;
+                    private boolean closed;
+
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        String methodName = method.getName();
+                        invocations.add(methodName);
+                        if ("close".equals(methodName)) {
+                            closed = true;
+                        }
+                        if ("isClosed".equals(methodName)) {
+                            return closed;
+                        }
+                        if ("getAutoCommit".equals(methodName)) {
+                            return autoCommit;
+                        }
+                        if ("setAutoCommit".equals(methodName)) {
+                            autoCommit = (Boolean) args[0];
+                        }
+                        if ("createStatement".equals(methodName)) {
+                            return createRecordingStatement();
+                        }
+                        return null;
+                    }
+                });
+    }
+
+    /**
+     * @return A statement that records the invocations of its execute method, and fails them when validation fails.
+     */
+    private Statement createRecordingStatement() {
+        return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Statement.class},
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if ("execute".equals(method.getName())) {
+                            invocations.add("execute");
+                            if (validationFails) {
+                                throw new SQLException("Connection lost");
+                            }
+                            return true;
+                        }
+                        return null;
+                    }
+                });
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.googlecode.flyway.core.util.scanner;
 
+import com.googlecode.flyway.core.api.migration.MigrationInfoProvider;
 import com.googlecode.flyway.core.api.migration.jdbc.JdbcMigration;
 import com.googlecode.flyway.core.dbsupport.DbSupport;
 import com.googlecode.flyway.core.dbsupport.db2.DB2MigrationMediumTest;
@@ -29,6 +30,7 @@ import org.hamcrest.core.DescribedAs;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -47,6 +49,18 @@ public class ClassPathScannerSmallTest {
         assertEquals("migration/sql/V2_0__Add_foreign_key_and_super_mega_humongous_padding_to_exceed_the_maximum_column_length_in_the_metadata_table.sql", resources[3].getLocation());
     }
 
+    @Test
+    public void scanForResourcesSharedScanner() throws Exception {
+        ClassPathScanner classPathScanner = new ClassPathScanner();
+
+        ClassPathResource[] resources = classPathScanner.scanForResources("migration/sql", "V", ".sql");
+        assertEquals(4, resources.length);
+
+        ClassPathResource[] resourcesDifferentSuffix = classPathScanner.scanForResources("migration.sql", "V1", "View.sql");
+        assertEquals(1, resourcesDifferentSuffix.length);
+        assertEquals("migration/sql/V1_1__View.sql", resourcesDifferentSuffix[0].getLocation());
+    }
+
     @Test
     public void scanForResourcesRoot() throws Exception {
         ClassPathResource[] resources = new ClassPathScanner().scanForResources("", "CheckValidate", ".sql");
@@ -87,6 +101,14 @@ public class ClassPathScannerSmallTest {
         assertEquals("migration/sql/V2_0__Add_foreign_key_and_super_mega_humongous_padding_to_exceed_the_maximum_column_length_in_the_metadata_table.sql", resources[3].getLocation());
     }
 
+    @Test
+    public void getLastModified() throws Exception {
+        ClassPathScanner classPathScanner = new ClassPathScanner();
+
+        assertTrue(classPathScanner.getLastModified("migration/sql") > 0);
+        assertEquals(0, classPathScanner.getLastModified("migration/nonexistent"));
+    }
+
     @Test
     public void scanForResourcesTrailingSlash() throws Exception {
         ClassPathResource[] resources = new ClassPathScanner().scanForResources("migration/sql/", "V", ".sql");
@@ -159,6 +181,34 @@ public class ClassPathScannerSmallTest {
         assertEquals(Version3dot5.class, classes[1]);
     }
 
+    @Test
+    public void scanForClassNames() throws Exception {
+        String[] classNames = new ClassPathScanner().scanForClassNames("com.googlecode.flyway.core.migration.jdbc.dummy", JdbcMigration.class);
+
+        assertEquals(2, classNames.length);
+
+        assertEquals(V2__InterfaceBasedMigration.class.getName(), classNames[0]);
+        assertEquals(Version3dot5.class.getName(), classNames[1]);
+    }
+
+    @Test
+    public void scanForClassNamesSubPackage() throws Exception {
+        String[] classNames = new ClassPathScanner().scanForClassNames("com.googlecode.flyway.core.dbsupport", MigrationTestCase.class);
+
+        assertTrue(classNames.length > 11);
+
+        assertEquals(DB2MigrationMediumTest.class.getName(), classNames[0]);
+    }
+
+    @Test
+    public void implementsInterface() throws Exception {
+        ClassPathScanner classPathScanner = new ClassPathScanner();
+
+        assertTrue(classPathScanner.implementsInterface(Version3dot5.class.getName(), MigrationInfoProvider.class));
+        assertFalse(classPathScanner.implementsInterface(V2__InterfaceBasedMigration.class.getName(), MigrationInfoProvider.class));
+        assertTrue(classPathScanner.implementsInterface(DB2MigrationMediumTest.class.getName(), MigrationTestCase.class));
+    }
+
     @Test
     public void scanForClassesSubPackage() throws Exception {
         Class<?>[] classes = new ClassPathScanner().scanForClasses("com.googlecode.flyway.core.dbsupport", MigrationTestCase.class);
@@ -34,7 +34,7 @@ public class FileSystemLocationScannerMediumTest {
         String path = URLDecoder.decode(url, "UTF-8") + "/";
 
         Set<String> resourceNames =
-                new FileSystemLocationScanner().findResourceNamesFromFileSystem(path, "sql", new File(path + "sql"));
+                new FileSystemLocationScanner().findResourceNamesFromFileSystem("sql", new File(path + "sql"));
 
         assertEquals(4, resourceNames.size());
         String[] names = resourceNames.toArray(new String[4]);
@@ -0,0 +1,96 @@
+/**
+ * Copyright (C) 2010-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.util.scanner;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Set;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for JarFileLocationScanner.
+ */
+public class JarFileLocationScannerSmallTest {
+    @Test
+    public void findResourceNames() throws IOException {
+        File jarFile = createJarFile("db/migration/V1__First.sql", "a/b.txt", "db/migration/sub/V2__Second.sql",
+                "db/other/V3__Third.sql", "db/migration/V1_1__Next.sql", "z.txt");
+        try {
+            Set<String> resourceNames = new JarFileLocationScanner("jar")
+                    .findResourceNames("db/migration", "file:" + jarFile.getAbsolutePath() + "!/db/migration");
+
+            assertEquals(3, resourceNames.size());
+            assertTrue(resourceNames.contains("db/migration/V1__First.sql"));
+            assertTrue(resourceNames.contains("db/migration/V1_1__Next.sql"));
+            assertTrue(resourceNames.contains("db/migration/sub/V2__Second.sql"));
+        } finally {
+            jarFile.delete();
+        }
+    }
+
+    @Test
+    public void findResourceNamesChangedJarFile() throws IOException {
+        File jarFile = createJarFile("db/migration/V1__First.sql");
+        try {
+            JarFileLocationScanner scanner = new JarFileLocationScanner("jar");
+            String locationUrl = "file:" + jarFile.getAbsolutePath() + "!/db/migration";
+            assertEquals(1, scanner.findResourceNames("db/migration", locationUrl).size());
+
+            writeJarFile(jarFile, "db/migration/V1__First.sql", "db/migration/V2__Second.sql");
+            jarFile.setLastModified(jarFile.lastModified() + 2000);
+            assertEquals(2, scanner.findResourceNames("db/migration", locationUrl).size());
+        } finally {
+            jarFile.delete();
+        }
+    }
+
+    /**
+     * Creates a temporary jar file with these entries.
+     *
+     * @param entryNames The names of the entries.
+     * @return The jar file.
+     */
+    private File createJarFile(String... entryNames) throws IOException {
+        File jarFile = File.createTempFile("flyway", ".jar");
+        writeJarFile(jarFile, entryNames);
+        return jarFile;
+    }
+
+    /**
+     * Writes this jar file with these empty entries.
+     *
+     * @param jarFile    The jar file to write.
+     * @param entryNames The names of the entries.
+     */
+    private void writeJarFile(File jarFile, String... entryNames) throws IOException {
+        JarOutputStream outputStream = new JarOutputStream(new FileOutputStream(jarFile));
+        try {
+            for (String entryName : entryNames) {
+                outputStream.putNextEntry(new ZipEntry(entryName));
+                outputStream.closeEntry();
+            }
+        } finally {
+            outputStream.close();
+        }
+    }
+}
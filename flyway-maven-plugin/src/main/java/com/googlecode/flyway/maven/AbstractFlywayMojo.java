@@ -93,6 +93,23 @@ abstract class AbstractFlywayMojo extends AbstractMojo {
      */
     private String table;
 
+    /**
+     * The number of connections clean uses concurrently. On SQL Server and DB2 independent objects are dropped
+     * concurrently, on the other databases whole schemas, which must then not depend on each other. (default: 1,
+     * sequential)<br> default property: ${flyway.cleanThreads}
+     *
+     * @parameter expression="${flyway.cleanThreads}"
+     */
+    private Integer cleanThreads;
+
+    /**
+     * Flag to clean each schema by dropping and recreating it where possible, instead of dropping its objects one by
+     * one. (default: false)<br> default property: ${flyway.recreateSchemas}
+     *
+     * @parameter expression="${flyway.recreateSchemas}"
+     */
+    private boolean recreateSchemas;
+
     /**
      * The link to the settings.xml
      *
@@ -151,6 +168,10 @@ abstract class AbstractFlywayMojo extends AbstractMojo {
             if (table != null) {
                 flyway.setTable(table);
             }
+            if (cleanThreads != null) {
+                flyway.setCleanThreads(cleanThreads);
+            }
+            flyway.setRecreateSchemas(recreateSchemas);
 
             doExecute(flyway);
         } catch (Exception e) {
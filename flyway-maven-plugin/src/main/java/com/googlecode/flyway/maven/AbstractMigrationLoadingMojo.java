@@ -61,6 +61,14 @@ abstract class AbstractMigrationLoadingMojo extends AbstractFlywayMojo {
      */
     private String encoding;
 
+    /**
+     * The number of threads used to load and checksum the Sql migrations concurrently. (default: 1, sequential)<br>
+     * Also configurable with Maven or System Property: ${flyway.resolverThreads}
+     *
+     * @parameter expression="${flyway.resolverThreads}"
+     */
+    private Integer resolverThreads;
+
     /**
      * The file name prefix for Sql migrations (default: V) Also configurable with Maven or System Property:
      * ${flyway.sqlMigrationPrefix}
@@ -116,6 +124,9 @@ abstract class AbstractMigrationLoadingMojo extends AbstractFlywayMojo {
         if (encoding != null) {
             flyway.setEncoding(encoding);
         }
+        if (resolverThreads != null) {
+            flyway.setResolverThreads(resolverThreads);
+        }
         if (sqlMigrationPrefix != null) {
             flyway.setSqlMigrationPrefix(sqlMigrationPrefix);
         }
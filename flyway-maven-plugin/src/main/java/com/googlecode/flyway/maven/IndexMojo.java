@@ -0,0 +1,64 @@
+/**
+ * Copyright (C) 2010-2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.maven;
+
+import com.googlecode.flyway.core.Flyway;
+import com.googlecode.flyway.core.migration.CompositeMigrationResolver;
+import com.googlecode.flyway.core.migration.MigrationIndex;
+import com.googlecode.flyway.core.migration.sql.PlaceholderReplacer;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.sql.DataSource;
+import java.io.File;
+
+/**
+ * Maven goal that generates the index of the available migrations (META-INF/flyway/migrations.idx) in the build output
+ * directory. No database connection is needed.
+ *
+ * @goal index
+ * @phase process-classes
+ */
+@SuppressWarnings({"UnusedDeclaration", "JavaDoc"})
+public class IndexMojo extends AbstractMigrationLoadingMojo {
+    /**
+     * Logger.
+     */
+    private static final Log LOG = LogFactory.getLog(IndexMojo.class);
+
+    /**
+     * The directory in which to generate the index. (default: ${project.build.outputDirectory})
+     *
+     * @parameter expression="${project.build.outputDirectory}"
+     */
+    private File outputDirectory;
+
+    @Override
+    DataSource createDataSource() throws Exception {
+        return null;
+    }
+
+    @Override
+    protected void doExecute(Flyway flyway) throws Exception {
+        super.doExecute(flyway);
+
+        CompositeMigrationResolver migrationResolver =
+                new CompositeMigrationResolver(flyway.getLocations(), flyway.getBasePackage(), flyway.getBaseDir(), flyway.getEncoding(), flyway.getBatchSize(), flyway.getResolverThreads(),
+                        flyway.getSqlMigrationPrefix(), flyway.getSqlMigrationSuffix(), PlaceholderReplacer.NO_PLACEHOLDERS);
+        int indexedMigrations = MigrationIndex.generate(migrationResolver, outputDirectory);
+        LOG.info("Indexed " + indexedMigrations + " migrations in " + MigrationIndex.LOCATION);
+    }
+}
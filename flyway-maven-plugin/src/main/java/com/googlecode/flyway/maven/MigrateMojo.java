@@ -20,6 +20,7 @@ import com.googlecode.flyway.core.migration.CompositeMigrationResolver;
 import com.googlecode.flyway.core.migration.Migration;
 import com.googlecode.flyway.core.migration.MigrationResolver;
 import com.googlecode.flyway.core.migration.SchemaVersion;
+import com.googlecode.flyway.core.migration.sql.PlaceholderReplacer;
 import com.googlecode.flyway.core.validation.ValidationMode;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -68,6 +69,15 @@ public class MigrateMojo extends AbstractMigrationLoadingMojo {
      */
     private boolean ignoreFailedFutureMigration;
 
+    /**
+     * The maximum number of consecutive data manipulation statements (insert, update, delete, ...) of a Sql migration
+     * to send to the database as a single JDBC batch. (default: 0, batching disabled) Also configurable with Maven or
+     * System Property: ${flyway.batchSize}
+     *
+     * @parameter expression="${flyway.batchSize}"
+     */
+    private Integer batchSize;
+
     /**
      * A map of <placeholder, replacementValue> to apply to sql migration scripts.
      *
@@ -91,6 +101,14 @@ public class MigrateMojo extends AbstractMigrationLoadingMojo {
      */
     private String placeholderSuffix;
 
+    /**
+     * Whether to fail when a sql migration script contains a placeholder without a value, instead of leaving it
+     * untouched. (default: false)<br> Also configurable with Maven or System Property: ${flyway.strictPlaceholders}
+     *
+     * @parameter expression="${flyway.strictPlaceholders}"
+     */
+    private boolean strictPlaceholders;
+
     /**
      * Flag to disable the check that a non-empty schema has been properly initialized with init. This check ensures
      * Flyway does not migrate or clean the wrong database in case of a configuration mistake. Be careful when disabling
@@ -101,6 +119,16 @@ public class MigrateMojo extends AbstractMigrationLoadingMojo {
      */
     private boolean disableInitCheck;
 
+    /**
+     * Flag to skip resolving and validating the migrations when the schema is already up to date, as detected by
+     * comparing the fingerprint of the migration index generated by the index goal with the migrations applied to the
+     * database. When they are, the checksums of sql migrations are taken from the up to date index of the classpath
+     * entry containing them. (default: false)<br/>Also configurable with Maven or System Property: ${flyway.fingerprintCheck}
+     *
+     * @parameter expression="${flyway.fingerprintCheck}"
+     */
+    private boolean fingerprintCheck;
+
     /**
      * The type of validation to be performed before migrating.<br/> <br/> Possible values are:<br/> <br/> <b>NONE</b>
      * (default)<br/> No validation is performed.<br/> <br/> <b>ALL</b><br/> For each sql migration a CRC32 checksum is
@@ -120,6 +148,9 @@ public class MigrateMojo extends AbstractMigrationLoadingMojo {
             flyway.setTarget(new SchemaVersion(target));
         }
         flyway.setIgnoreFailedFutureMigration(ignoreFailedFutureMigration);
+        if (batchSize != null) {
+            flyway.setBatchSize(batchSize);
+        }
 
         Map<String, String> mergedPlaceholders = new HashMap<String, String>();
         addPlaceholdersFromProperties(mergedPlaceholders, mavenProject.getProperties());
@@ -135,20 +166,26 @@ public class MigrateMojo extends AbstractMigrationLoadingMojo {
         if (placeholderSuffix != null) {
             flyway.setPlaceholderSuffix(placeholderSuffix);
         }
+        flyway.setStrictPlaceholders(strictPlaceholders);
         flyway.setDisableInitCheck(disableInitCheck);
+        flyway.setFingerprintCheck(fingerprintCheck);
         if (validationMode != null) {
             flyway.setValidationMode(ValidationMode.valueOf(validationMode.toUpperCase()));
         }
 
-        MigrationResolver migrationResolver =
-                new CompositeMigrationResolver(flyway.getLocations(), flyway.getBasePackage(), flyway.getBaseDir(), flyway.getEncoding(),
-                        flyway.getSqlMigrationPrefix(), flyway.getSqlMigrationSuffix(),
-                        flyway.getPlaceholders(), flyway.getPlaceholderPrefix(), flyway.getPlaceholderSuffix());
-        List<Migration> availableMigrations = migrationResolver.resolveMigrations();
-
-        if (availableMigrations.isEmpty()) {
-            LOG.warn("Possible solution: run mvn compile first so Flyway can find the migrations");
-            return;
+        if (!flyway.isFingerprintCheck()) {
+            // Stop early with a helpful hint when no migrations can be found
+            MigrationResolver migrationResolver =
+                    new CompositeMigrationResolver(flyway.getLocations(), flyway.getBasePackage(), flyway.getBaseDir(), flyway.getEncoding(), flyway.getBatchSize(), flyway.getResolverThreads(),
+                            flyway.getSqlMigrationPrefix(), flyway.getSqlMigrationSuffix(),
+                            new PlaceholderReplacer(flyway.getPlaceholders(), flyway.getPlaceholderPrefix(),
+                                    flyway.getPlaceholderSuffix(), flyway.isStrictPlaceholders()));
+            List<Migration> availableMigrations = migrationResolver.resolveMigrations();
+
+            if (availableMigrations.isEmpty()) {
+                LOG.warn("Possible solution: run mvn compile first so Flyway can find the migrations");
+                return;
+            }
         }
 
         flyway.migrate();